@@ -0,0 +1,67 @@
+package com.rtm.mq.toolkit.runtime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs vector {@link TextScanner} on a single space-padded field whose text fills
+ * {@code textLength} of {@code fieldLength} bytes.
+ * Lives in the runtime package because the scanners are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class TextScannerBenchmark {
+    @Param({"10", "40", "256"})
+    private int fieldLength;
+
+    @Param({"4"})
+    private int textLength;
+
+    @Param({"scalar", "vector"})
+    private String implementation;
+
+    private TextScanner scanner;
+    private byte[] field;
+    private byte[] output;
+
+    @Setup
+    public void setup() {
+        scanner = "vector".equals(implementation) ? new VectorTextScanner() : new ScalarTextScanner();
+        field = new byte[fieldLength];
+        Arrays.fill(field, (byte) ' ');
+        Arrays.fill(field, 0, Math.min(textLength, fieldLength), (byte) 'A');
+        output = new byte[fieldLength];
+    }
+
+    @Benchmark
+    public int trimEnd() {
+        return scanner.trimEnd(field, 0, fieldLength, (byte) ' ');
+    }
+
+    @Benchmark
+    public boolean isAscii() {
+        return scanner.isAscii(field, 0, fieldLength);
+    }
+
+    @Benchmark
+    public byte[] fill() {
+        scanner.fill(output, 0, fieldLength, (byte) ' ');
+        return output;
+    }
+}
@@ -24,7 +24,8 @@ public class DiffCommand extends BaseCommand {
     @CommandLine.Option(names = "--actual", required = true, description = "Actual message file.")
     private Path actualPath;
 
-    @CommandLine.Option(names = "--class", required = true, description = "Root class for conversion.")
+    @CommandLine.Option(names = "--class",
+            description = "Root class for conversion; without it messages are compared using the schema alone.")
     private String rootClass;
 
     @CommandLine.Option(names = "--output", description = "Output HTML report path.")
@@ -36,10 +37,11 @@ public class DiffCommand extends BaseCommand {
             MessageSchema schema = SchemaIO.read(schemaPath);
             byte[] expected = Files.readAllBytes(expectedPath);
             byte[] actual = Files.readAllBytes(actualPath);
-            Class<?> type = Class.forName(rootClass);
 
             MessageDiffEngine engine = new MessageDiffEngine();
-            DiffReport report = engine.diff(expected, actual, schema, type);
+            DiffReport report = rootClass != null
+                    ? engine.diff(expected, actual, schema, Class.forName(rootClass))
+                    : engine.diff(expected, actual, schema);
 
             Path output = outputPath != null
                     ? outputPath
@@ -18,6 +18,14 @@ public class GenJavaCommand extends BaseCommand {
             defaultValue = "com.rtm.mq.generated")
     private String basePackage;
 
+    @CommandLine.Option(names = "--primitives",
+            description = "Use primitive long fields for binary integers and scale-0 decimals.")
+    private boolean primitives;
+
+    @CommandLine.Option(names = "--records",
+            description = "Emit immutable records decoded through their canonical constructor.")
+    private boolean records;
+
     @Override
     public void run() {
         try {
@@ -28,7 +36,7 @@ public class GenJavaCommand extends BaseCommand {
                 return;
             }
             Path outputDir = baseDir.resolve("generated").resolve("java");
-            JavaPojoGenerator generator = new JavaPojoGenerator();
+            JavaPojoGenerator generator = new JavaPojoGenerator(primitives, records);
             for (Path schemaPath : schemaFiles) {
                 MessageSchema schema = SchemaIO.read(schemaPath);
                 generator.generate(schema.getRoot(), outputDir, basePackage);
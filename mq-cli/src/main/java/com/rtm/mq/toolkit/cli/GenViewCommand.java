@@ -0,0 +1,61 @@
+package com.rtm.mq.toolkit.cli;
+
+import com.rtm.mq.toolkit.codegen.JavaViewGenerator;
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.ir.ProtocolConfig;
+import com.rtm.mq.toolkit.ir.SchemaIO;
+import com.rtm.mq.toolkit.ir.YamlConfigIO;
+import picocli.CommandLine;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Generates flyweight view classes from schemas.
+ */
+@CommandLine.Command(name = "gen-view", description = "Generate flyweight view classes from IR.")
+public class GenViewCommand extends BaseCommand {
+    @CommandLine.Option(names = "--basePackage", description = "Base package for generated classes.",
+            defaultValue = "com.rtm.mq.generated")
+    private String basePackage;
+
+    @Override
+    public void run() {
+        try {
+            Path schemaDirPath = resolveSchemaDir();
+            List<Path> schemaFiles = listSchemaFiles(schemaDirPath);
+            if (schemaFiles.isEmpty()) {
+                System.out.println("No schemas found to generate.");
+                return;
+            }
+            ProtocolConfig protocolConfig = loadProtocolConfig();
+            Path outputDir = baseDir.resolve("generated").resolve("java");
+            JavaViewGenerator generator = new JavaViewGenerator();
+            for (Path schemaPath : schemaFiles) {
+                MessageSchema schema = SchemaIO.read(schemaPath);
+                generator.generate(schema, protocolConfig, outputDir, basePackage);
+            }
+            System.out.println("Generated views to " + outputDir);
+        } catch (Exception ex) {
+            throw new CommandLine.ExecutionException(new CommandLine(this), ex.getMessage(), ex);
+        }
+    }
+
+    private ProtocolConfig loadProtocolConfig() throws Exception {
+        Path configPath = resolveConfigDir().resolve("protocol.yaml");
+        if (Files.exists(configPath)) {
+            return YamlConfigIO.read(configPath, ProtocolConfig.class);
+        }
+        return new ProtocolConfig();
+    }
+
+    private List<Path> listSchemaFiles(Path schemaDir) throws Exception {
+        if (!Files.exists(schemaDir)) {
+            return List.of();
+        }
+        try (var stream = Files.list(schemaDir)) {
+            return stream.filter(path -> path.toString().endsWith(".yaml")).toList();
+        }
+    }
+}
@@ -14,6 +14,8 @@ import picocli.CommandLine;
                 ImportExcelCommand.class,
                 ValidateCommand.class,
                 GenJavaCommand.class,
+                GenCodecCommand.class,
+                GenViewCommand.class,
                 GenXmlCommand.class,
                 GenOpenApiCommand.class,
                 DiffCommand.class
@@ -0,0 +1,573 @@
+package com.rtm.mq.toolkit.codegen;
+
+import com.rtm.mq.toolkit.ir.FieldNode;
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.ir.NameUtils;
+import com.rtm.mq.toolkit.ir.ProtocolConfig;
+import com.rtm.mq.toolkit.ir.SchemaElement;
+import com.rtm.mq.toolkit.ir.SegmentNode;
+import com.rtm.mq.toolkit.runtime.CodePage;
+import com.rtm.mq.toolkit.runtime.CodecPlan;
+import com.rtm.mq.toolkit.runtime.CodecSupport;
+import com.rtm.mq.toolkit.runtime.ConversionOptions;
+import com.rtm.mq.toolkit.runtime.ConversionResult;
+import com.rtm.mq.toolkit.runtime.GenericMessage;
+import com.rtm.mq.toolkit.runtime.GroupIdMode;
+import com.rtm.mq.toolkit.runtime.Instruction;
+import com.rtm.mq.toolkit.runtime.InstructionKind;
+import com.rtm.mq.toolkit.runtime.MessageCodec;
+import com.rtm.mq.toolkit.runtime.MessageConverter;
+import com.rtm.mq.toolkit.runtime.SegmentPlan;
+import com.rtm.mq.toolkit.runtime.TraceLevel;
+import com.rtm.mq.toolkit.runtime.TracePath;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+
+import javax.lang.model.element.Modifier;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates a reflection-free {@code <Root>Codec} per schema for the POJOs emitted by {@link JavaPojoGenerator}.
+ */
+public final class JavaCodecGenerator {
+    private static final ClassName SUPPORT = ClassName.get(CodecSupport.class);
+    private static final TypeName RESULT = ParameterizedTypeName.get(ClassName.get(ConversionResult.class),
+            WildcardTypeName.subtypeOf(Object.class));
+
+    private final boolean primitives;
+
+    public JavaCodecGenerator() {
+        this(false);
+    }
+
+    /**
+     * @param primitives whether the POJOs were generated with primitive {@code long} fields
+     */
+    public JavaCodecGenerator(boolean primitives) {
+        this.primitives = primitives;
+    }
+
+    public void generate(MessageSchema schema, ProtocolConfig protocolConfig, Path outputDir, String basePackage)
+            throws IOException {
+        TypeSpec typeSpec = new Builder(schema, CodecPlan.compile(schema, protocolConfig), basePackage, primitives)
+                .build();
+        JavaFile javaFile = JavaFile.builder(basePackage, typeSpec)
+                .indent("    ")
+                .build();
+        javaFile.writeTo(outputDir);
+    }
+
+    private static final class Builder {
+        private final MessageSchema schema;
+        private final CodecPlan plan;
+        private final String basePackage;
+        private final boolean primitives;
+        private final List<MethodSpec> methods = new ArrayList<>();
+        private final Map<String, Integer> methodNames = new HashMap<>();
+        private final Map<CodePage, String> codePages = new LinkedHashMap<>();
+
+        private Builder(MessageSchema schema, CodecPlan plan, String basePackage, boolean primitives) {
+            this.schema = schema;
+            this.plan = plan;
+            this.basePackage = basePackage;
+            this.primitives = primitives;
+        }
+
+        private TypeSpec build() {
+            SegmentNode root = schema.getRoot();
+            ClassName rootType = ClassName.get(basePackage, root.getName());
+            String rootMethod = addSegmentMethods(root, plan.getRoot());
+            String rootPath = "/" + root.getName();
+
+            TypeSpec.Builder builder = TypeSpec.classBuilder(root.getName() + "Codec")
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                    .addSuperinterface(MessageCodec.class)
+                    .addJavadoc("Auto-generated codec for $L.\n",
+                            schema.getSchemaId() != null ? schema.getSchemaId() : root.getName())
+                    .addField(FieldSpec.builder(String.class, "SCHEMA_ID",
+                                    Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                            .initializer("$S", schema.getSchemaId())
+                            .build())
+                    .addField(FieldSpec.builder(ByteOrder.class, "BYTE_ORDER",
+                                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                            .initializer("$T.$L", ByteOrder.class,
+                                    plan.getByteOrder() == ByteOrder.LITTLE_ENDIAN ? "LITTLE_ENDIAN" : "BIG_ENDIAN")
+                            .build())
+                    .addFields(codePageFields())
+                    .addField(GroupIdMode.class, "groupIdMode", Modifier.PRIVATE, Modifier.FINAL)
+                    .addField(TraceLevel.class, "traceLevel", Modifier.PRIVATE, Modifier.FINAL)
+                    .addField(boolean.class, "failFast", Modifier.PRIVATE, Modifier.FINAL)
+                    .addField(MessageConverter.class, "generic", Modifier.PRIVATE, Modifier.FINAL);
+
+            builder.addMethod(MethodSpec.constructorBuilder()
+                    .addModifiers(Modifier.PUBLIC)
+                    .addStatement("this(new $T())", ConversionOptions.class)
+                    .build());
+            builder.addMethod(MethodSpec.constructorBuilder()
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(ConversionOptions.class, "options")
+                    .addStatement("this.groupIdMode = options.getGroupIdMode()")
+                    .addStatement("this.traceLevel = options.getTraceLevel()")
+                    .addStatement("this.failFast = options.isFailFast()")
+                    .addStatement("this.generic = new $T(options)", MessageConverter.class)
+                    .build());
+
+            int fixedSize = plan.getFixedSize();
+            if (fixedSize >= 0) {
+                builder.addField(FieldSpec.builder(int.class, "ENCODED_SIZE",
+                                Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$L", fixedSize)
+                        .build());
+            }
+
+            builder.addMethod(MethodSpec.methodBuilder("marshal")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(byte[].class)
+                    .addParameter(Object.class, "pojo")
+                    .addParameter(MessageSchema.class, "schema")
+                    .addStatement("$T root = root(pojo)", rootType)
+                    .addStatement("byte[] output = new byte[$L]", fixedSize >= 0 ? CodeBlock.of("ENCODED_SIZE")
+                            : CodeBlock.of("size$L(root)", rootMethod))
+                    .addStatement("write$L(root, $T.wrap(output), 0, $S)", rootMethod, ByteBuffer.class, rootPath)
+                    .addStatement("return output")
+                    .build());
+
+            builder.addMethod(MethodSpec.methodBuilder("encodedSize")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(int.class)
+                    .addParameter(Object.class, "pojo")
+                    .addParameter(MessageSchema.class, "schema")
+                    .addStatement("$T root = root(pojo)", rootType)
+                    .addStatement("return $L", fixedSize >= 0 ? CodeBlock.of("ENCODED_SIZE")
+                            : CodeBlock.of("size$L(root)", rootMethod))
+                    .build());
+
+            builder.addMethod(MethodSpec.methodBuilder("marshalTo")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(int.class)
+                    .addParameter(Object.class, "pojo")
+                    .addParameter(MessageSchema.class, "schema")
+                    .addParameter(ByteBuffer.class, "buffer")
+                    .addStatement("$T root = root(pojo)", rootType)
+                    .addStatement("int size = $L", fixedSize >= 0 ? CodeBlock.of("ENCODED_SIZE")
+                            : CodeBlock.of("size$L(root)", rootMethod))
+                    .addStatement("$T.requireRemaining(buffer, size)", SUPPORT)
+                    .addStatement("write$L(root, buffer, buffer.position(), $S)", rootMethod, rootPath)
+                    .addStatement("buffer.position(buffer.position() + size)")
+                    .addStatement("return size")
+                    .build());
+
+            TypeVariableName t = TypeVariableName.get("T");
+            builder.addMethod(MethodSpec.methodBuilder("unmarshal")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .addTypeVariable(t)
+                    .returns(ParameterizedTypeName.get(ClassName.get(ConversionResult.class), t))
+                    .addParameter(byte[].class, "bytes")
+                    .addParameter(MessageSchema.class, "schema")
+                    .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), t), "type")
+                    .addStatement("$T.requireNonNull(bytes, $S)", Objects.class, "bytes")
+                    .addStatement("$T.requireNonNull(type, $S)", Objects.class, "type")
+                    .beginControlFlow("if (!type.isAssignableFrom($T.class))", rootType)
+                    .addStatement("throw new $T($S + type.getName())", IllegalArgumentException.class,
+                            "Codec for " + root.getName() + " cannot produce ")
+                    .endControlFlow()
+                    .addStatement("$T root = new $T()", rootType, rootType)
+                    .addStatement("$T<T> result = new $T<>(type.cast(root))", ConversionResult.class, ConversionResult.class)
+                    .addStatement("read$L(root, bytes, 0, result, $T.start(traceLevel, $S, failFast))", rootMethod,
+                            TracePath.class, rootPath)
+                    .addStatement("return result")
+                    .build());
+
+            builder.addMethod(MethodSpec.methodBuilder("unmarshal")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .addTypeVariable(t)
+                    .returns(ParameterizedTypeName.get(ClassName.get(ConversionResult.class), t))
+                    .addParameter(ByteBuffer.class, "buffer")
+                    .addParameter(MessageSchema.class, "schema")
+                    .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), t), "type")
+                    .addStatement("$T.requireNonNull(buffer, $S)", Objects.class, "buffer")
+                    .addStatement("$T.requireNonNull(type, $S)", Objects.class, "type")
+                    .beginControlFlow("if (!type.isAssignableFrom($T.class))", rootType)
+                    .addStatement("throw new $T($S + type.getName())", IllegalArgumentException.class,
+                            "Codec for " + root.getName() + " cannot produce ")
+                    .endControlFlow()
+                    .addStatement("byte[] data")
+                    .beginControlFlow("if (buffer.hasArray() && buffer.arrayOffset() + buffer.position() == 0"
+                            + " && buffer.limit() == buffer.array().length)")
+                    .addStatement("data = buffer.array()")
+                    .nextControlFlow("else")
+                    .addStatement("data = new byte[buffer.remaining()]")
+                    .addStatement("buffer.get(buffer.position(), data)")
+                    .endControlFlow()
+                    .addStatement("$T root = new $T()", rootType, rootType)
+                    .addStatement("$T<T> result = new $T<>(type.cast(root))", ConversionResult.class, ConversionResult.class)
+                    .addStatement("int end = read$L(root, data, 0, result, $T.start(traceLevel, $S, failFast))", rootMethod,
+                            TracePath.class, rootPath)
+                    .addStatement("buffer.position(buffer.position() + end)")
+                    .addStatement("return result")
+                    .build());
+
+            builder.addMethod(MethodSpec.methodBuilder("unmarshalGeneric")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(ParameterizedTypeName.get(ConversionResult.class, GenericMessage.class))
+                    .addParameter(byte[].class, "bytes")
+                    .addParameter(MessageSchema.class, "schema")
+                    .addStatement("return generic.unmarshalGeneric(bytes, schema)")
+                    .build());
+
+            builder.addMethod(MethodSpec.methodBuilder("root")
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(rootType)
+                    .addParameter(Object.class, "pojo")
+                    .addStatement("$T.requireNonNull(pojo, $S)", Objects.class, "pojo")
+                    .beginControlFlow("if (!(pojo instanceof $T root))", rootType)
+                    .addStatement("throw new $T($S + pojo.getClass().getName())", IllegalArgumentException.class,
+                            "Codec for " + root.getName() + " cannot marshal ")
+                    .endControlFlow()
+                    .addStatement("return root")
+                    .build());
+            builder.addMethods(methods);
+            return builder.build();
+        }
+
+        private String addSegmentMethods(SegmentNode node, SegmentPlan segment) {
+            String name = uniqueName(node.getName());
+            int slot = methods.size();
+            ClassName type = ClassName.get(basePackage, node.getName());
+            List<Step> steps = steps(node, segment);
+
+            MethodSpec.Builder size = MethodSpec.methodBuilder("size" + name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(int.class)
+                    .addParameter(type, "value");
+            MethodSpec.Builder write = MethodSpec.methodBuilder("write" + name)
+                    .addModifiers(Modifier.PRIVATE)
+                    .returns(int.class)
+                    .addParameter(type, "value")
+                    .addParameter(ByteBuffer.class, "output")
+                    .addParameter(int.class, "offset")
+                    .addParameter(String.class, "path");
+            MethodSpec.Builder read = MethodSpec.methodBuilder("read" + name)
+                    .addModifiers(Modifier.PRIVATE)
+                    .returns(int.class)
+                    .addParameter(type, "target")
+                    .addParameter(byte[].class, "data")
+                    .addParameter(int.class, "offset")
+                    .addParameter(RESULT, "result")
+                    .addParameter(TracePath.class, "path");
+
+            size.addStatement("int size = $L", segment.getBodyLength());
+            int position = 0;
+            for (Step step : steps) {
+                Instruction instruction = step.instruction();
+                if (instruction.kind() != InstructionKind.SEGMENT) {
+                    write.addStatement(writeField(step, position));
+                    read.addCode(readField(step, position));
+                    position += instruction.length();
+                    continue;
+                }
+                if (position > 0) {
+                    write.addStatement("offset += $L", position);
+                    read.addStatement("offset += $L", position);
+                    position = 0;
+                }
+                String childMethod = addSegmentMethods(step.segment(), instruction.segment());
+                addChildSize(size, step, childMethod);
+                addChildWrite(write, step, childMethod);
+                addChildRead(read, step, childMethod);
+            }
+            if (position > 0) {
+                write.addStatement("offset += $L", position);
+                read.addStatement("offset += $L", position);
+            }
+            size.addStatement("return size");
+            write.addStatement("return offset");
+            read.addStatement("return offset");
+
+            List<MethodSpec> segmentMethods = new ArrayList<>();
+            if (segment.getFixedSize() < 0) {
+                segmentMethods.add(size.build());
+            }
+            segmentMethods.add(write.build());
+            segmentMethods.add(read.build());
+            methods.addAll(slot, segmentMethods);
+            return name;
+        }
+
+        private CodeBlock writeField(Step step, int position) {
+            Instruction instruction = step.instruction();
+            CodeBlock offset = offset(position);
+            CodeBlock value = step.property() != null
+                    ? CodeBlock.of("value.get$L()", NameUtils.toUpperCamel(step.property()))
+                    : null;
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+                return CodeBlock.of("$T.writeUnsigned(output, $L, $L, BYTE_ORDER, $S)", SUPPORT, offset,
+                        value != null ? value : CodeBlock.of("0L"), instruction.name());
+            }
+            if (instruction.kind() == InstructionKind.PACKED_DECIMAL) {
+                return CodeBlock.of("$T.writePacked(output, $L, $L, $L, $L, $S)", SUPPORT, offset,
+                        value != null ? value : CodeBlock.of("null"), instruction.length(), instruction.scale(),
+                        instruction.name());
+            }
+            if (instruction.kind() == InstructionKind.ZONED_DECIMAL) {
+                return CodeBlock.of("$T.writeZoned(output, $L, $L, $L, $L, $L, $S)", SUPPORT, offset,
+                        value != null ? value : CodeBlock.of("null"), instruction.length(), instruction.scale(),
+                        codePageReference(instruction.codePage()), instruction.name());
+            }
+            return CodeBlock.of("$T.writeText(output, $L, $L, $L$L)", SUPPORT, offset,
+                    value != null ? value : CodeBlock.of("(String) null"), instruction.length(),
+                    codePageArgument(instruction.codePage()));
+        }
+
+        private CodeBlock readField(Step step, int position) {
+            Instruction instruction = step.instruction();
+            CodeBlock offset = offset(position);
+            CodeBlock path = CodeBlock.of("path, $S", instruction.pathSegment());
+            CodeBlock read;
+            TypeName valueType;
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+                read = CodeBlock.of("$T.readUnsigned(data, $L, BYTE_ORDER, result, $L)", SUPPORT, offset, path);
+                valueType = TypeName.LONG.equals(step.type()) ? TypeName.LONG : ClassName.get(Long.class);
+            } else if (instruction.kind().isDecimal()) {
+                String method = instruction.kind() == InstructionKind.PACKED_DECIMAL ? "readPacked" : "readZoned";
+                if (instruction.scale() == 0 && TypeName.LONG.equals(step.type()) && step.property() != null) {
+                    String local = step.property() + "Value";
+                    return CodeBlock.builder()
+                            .addStatement("long $L = $T.$LLongValue(data, $L, $L, result, $L)", local, SUPPORT,
+                                    method, offset, instruction.length(), path)
+                            .beginControlFlow("if ($L != $T.NO_VALUE)", local, SUPPORT)
+                            .addStatement("target.set$L($L)", NameUtils.toUpperCamel(step.property()), local)
+                            .endControlFlow()
+                            .build();
+                }
+                if (instruction.scale() == 0 && ClassName.get(Long.class).equals(step.type())) {
+                    read = CodeBlock.of("$T.$LLong(data, $L, $L, result, $L)", SUPPORT, method, offset,
+                            instruction.length(), path);
+                    valueType = ClassName.get(Long.class);
+                } else {
+                    read = CodeBlock.of("$T.$L(data, $L, $L, $L, result, $L)", SUPPORT, method, offset,
+                            instruction.length(), instruction.scale(), path);
+                    valueType = ClassName.get(BigDecimal.class);
+                }
+            } else {
+                String method = instruction.kind() == InstructionKind.UNSIGNED_TEXT ? "readUnsignedText" : "readText";
+                read = CodeBlock.of("$T.$L(data, $L, $L$L, result, $L)", SUPPORT, method, offset, instruction.length(),
+                        codePageArgument(instruction.codePage()), path);
+                valueType = ClassName.get(String.class);
+            }
+            if (step.property() == null || !valueType.equals(step.type())) {
+                return CodeBlock.builder().addStatement(read).build();
+            }
+            return CodeBlock.builder()
+                    .addStatement("target.set$L($L)", NameUtils.toUpperCamel(step.property()), read)
+                    .build();
+        }
+
+        private void addChildSize(MethodSpec.Builder size, Step step, String childMethod) {
+            SegmentPlan child = step.instruction().segment();
+            String local = step.property() + "Value";
+            size.addStatement("$T $L = value.get$L()", step.type(), local, NameUtils.toUpperCamel(step.property()));
+            size.addStatement("size += $L", child.getHeaderLength());
+            int fixed = child.getFixedSize();
+            if (child.isRepeating()) {
+                size.beginControlFlow("if ($L != null)", local);
+                if (fixed >= 0) {
+                    size.addStatement("size += $L.size() * $L", local, fixed);
+                } else {
+                    size.beginControlFlow("for ($T entry : $L)", ClassName.get(basePackage, step.segment().getName()),
+                            local);
+                    size.addStatement("size += size$L(entry)", childMethod);
+                    size.endControlFlow();
+                }
+                size.endControlFlow();
+            } else {
+                size.beginControlFlow("if ($L != null)", local);
+                size.addStatement(fixed >= 0 ? CodeBlock.of("size += $L", fixed)
+                        : CodeBlock.of("size += size$L($L)", childMethod, local));
+                size.endControlFlow();
+            }
+        }
+
+        private void addChildWrite(MethodSpec.Builder write, Step step, String childMethod) {
+            SegmentPlan child = step.instruction().segment();
+            String local = step.property() + "Value";
+            String path = step.property() + "Path";
+            String count = step.property() + "Count";
+            write.addStatement("$T $L = value.get$L()", step.type(), local, NameUtils.toUpperCamel(step.property()));
+            write.addStatement("$T $L = path + $S", String.class, path, step.instruction().pathSegment());
+            write.addStatement("int $L = $T.count($L, $L, $L, $L)", count, SUPPORT, local, child.isRepeating(),
+                    child.getMinOccurs(), path);
+            CodeBlock codePage = codePageArgument(child.getCodePage());
+            write.addStatement("$T.writeText(output, offset, $L, $L$L)", SUPPORT,
+                    child.getGroupIdValue() != null ? CodeBlock.of("$S", child.getGroupIdValue())
+                            : CodeBlock.of("(String) null"),
+                    child.getGroupIdLength(), codePage);
+            CodeBlock countOffset = CodeBlock.of("offset + $L", child.getGroupIdLength());
+            if (child.getOccurrenceLength() == 4) {
+                write.addStatement("$T.writeUnsigned(output, $L, $L, BYTE_ORDER, $S)", SUPPORT, countOffset, count,
+                        "OccurrenceCount");
+            } else {
+                write.addStatement("$T.writeText(output, $L, $T.valueOf($L), $L$L)", SUPPORT, countOffset, String.class,
+                        count, child.getOccurrenceLength(), codePage);
+            }
+            write.addStatement("offset += $L", child.getHeaderLength());
+            if (child.isRepeating()) {
+                write.beginControlFlow("for (int i = 0; i < $L; i++)", count);
+                write.addStatement("offset = write$L($L.get(i), output, offset, $L + \"[\" + i + \"]\")", childMethod,
+                        local, path);
+            } else {
+                write.beginControlFlow("if ($L != null)", local);
+                write.addStatement("offset = write$L($L, output, offset, $L)", childMethod, local, path);
+            }
+            write.endControlFlow();
+        }
+
+        private void addChildRead(MethodSpec.Builder read, Step step, String childMethod) {
+            SegmentPlan child = step.instruction().segment();
+            ClassName childType = ClassName.get(basePackage, step.segment().getName());
+            String local = step.property() + "Value";
+            String count = step.property() + "Count";
+            read.addStatement("path.push($S)", step.instruction().pathSegment());
+            CodeBlock codePage = codePageArgument(child.getCodePage());
+            CodeBlock groupId = CodeBlock.of("$T.readText(data, offset, $L$L, result, path, $S)", SUPPORT,
+                    child.getGroupIdLength(), codePage, child.getGroupIdPathSegment());
+            if (child.getGroupIdValue() != null) {
+                String actual = step.property() + "GroupId";
+                read.addStatement("$T $L = $L", String.class, actual, groupId);
+                read.addStatement("$T.checkGroupId($S, $L, groupIdMode, result, path, offset, $L)", SUPPORT,
+                        child.getGroupIdValue(), actual, child.getId());
+            } else {
+                read.addStatement(groupId);
+            }
+            CodeBlock countOffset = CodeBlock.of("offset + $L", child.getGroupIdLength());
+            if (child.getOccurrenceLength() == 4) {
+                read.addStatement("long $L = $T.readUnsigned(data, $L, BYTE_ORDER, result, path, $S)", count, SUPPORT,
+                        countOffset, child.getOccurrencePathSegment());
+            } else {
+                read.addStatement("long $L = $T.readOccurrenceText(data, $L, $L$L, result, path, $S)", count, SUPPORT,
+                        countOffset, child.getOccurrenceLength(), codePage, child.getOccurrencePathSegment());
+            }
+            if (!child.isRepeating()) {
+                read.addStatement("$L = $T.singleOccurrence($L, $L, result, path)", count, SUPPORT, count,
+                        child.getMinOccurs());
+            }
+            read.addStatement("$T.checkOccurrences($L, data.length - offset - $L, $L, path, offset, $L)", SUPPORT,
+                    count, child.getHeaderLength(), child.getMinSize(), child.getId());
+            read.addStatement("offset += $L", child.getHeaderLength());
+            String setter = "set" + NameUtils.toUpperCamel(step.property());
+            if (child.isRepeating()) {
+                read.addStatement("$T $L = new $T<>()", step.type(), local, ArrayList.class);
+                read.beginControlFlow("for (int i = 0; i < $L; i++)", count);
+                read.addStatement("$T entry = new $T()", childType, childType);
+                read.addStatement("path.index(i)");
+                read.addStatement("offset = read$L(entry, data, offset, result, path)", childMethod);
+                read.addStatement("$L.add(entry)", local);
+                read.endControlFlow();
+            } else {
+                read.addStatement("$T $L = null", childType, local);
+                read.beginControlFlow("if ($L > 0)", count);
+                read.addStatement("$L = new $T()", local, childType);
+                read.addStatement("offset = read$L($L, data, offset, result, path)", childMethod, local);
+                read.endControlFlow();
+            }
+            read.addStatement("path.pop()");
+            read.addStatement("target.$L($L)", setter, local);
+        }
+
+        private List<Step> steps(SegmentNode node, SegmentPlan segment) {
+            List<Step> steps = new ArrayList<>();
+            int index = 0;
+            for (SchemaElement element : node.getElements()) {
+                if (element instanceof FieldNode field) {
+                    if (field.getLengthBytes() == null) {
+                        continue;
+                    }
+                    String property = field.isProtocol() ? null : field.getName();
+                    steps.add(new Step(segment.getInstruction(index++), property,
+                            JavaPojoGenerator.resolveFieldType(field, primitives), null));
+                } else if (element instanceof SegmentNode child) {
+                    ClassName childType = ClassName.get(basePackage, child.getName());
+                    boolean repeating = child.getOccurrence() != null && child.getOccurrence().isRepeating();
+                    TypeName type = repeating ? ParameterizedTypeName.get(ClassName.get(List.class), childType) : childType;
+                    steps.add(new Step(segment.getInstruction(index++), NameUtils.toLowerCamel(child.getName()), type,
+                            child));
+                }
+            }
+            return steps;
+        }
+
+        /**
+         * Returns the trailing code page argument for text helpers; empty for US-ASCII, which the
+         * helpers assume by default.
+         */
+        private CodeBlock codePageArgument(CodePage codePage) {
+            if (codePage == null || codePage.isAscii()) {
+                return CodeBlock.of("");
+            }
+            return CodeBlock.of(", $L", codePageReference(codePage));
+        }
+
+        private CodeBlock codePageReference(CodePage codePage) {
+            if (codePage.isAscii()) {
+                return CodeBlock.of("$T.US_ASCII", CodePage.class);
+            }
+            String field = codePages.computeIfAbsent(codePage,
+                    page -> "CHARSET_" + page.getName().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_"));
+            return CodeBlock.of("$L", field);
+        }
+
+        private List<FieldSpec> codePageFields() {
+            List<FieldSpec> fields = new ArrayList<>();
+            codePages.forEach((codePage, field) -> fields.add(FieldSpec.builder(CodePage.class, field,
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.forName($S)", CodePage.class, codePage.getName())
+                    .build()));
+            return fields;
+        }
+
+        private String uniqueName(String segmentName) {
+            int count = methodNames.merge(segmentName, 1, Integer::sum);
+            return count == 1 ? segmentName : segmentName + count;
+        }
+
+        private static CodeBlock offset(int position) {
+            return position == 0 ? CodeBlock.of("offset") : CodeBlock.of("offset + $L", position);
+        }
+    }
+
+    /**
+     * Compiled instruction paired with the generated POJO property it reads and writes.
+     *
+     * @param instruction compiled step
+     * @param property    POJO property name, null for protocol fields
+     * @param type        POJO property type
+     * @param segment     schema node for segment steps
+     */
+    private record Step(Instruction instruction, String property, TypeName type, SegmentNode segment) {
+    }
+}
@@ -4,6 +4,8 @@ import com.rtm.mq.toolkit.ir.FieldNode;
 import com.rtm.mq.toolkit.ir.NameUtils;
 import com.rtm.mq.toolkit.ir.SchemaElement;
 import com.rtm.mq.toolkit.ir.SegmentNode;
+import com.rtm.mq.toolkit.runtime.CodecPlan;
+import com.rtm.mq.toolkit.runtime.InstructionKind;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
@@ -15,20 +17,55 @@ import com.squareup.javapoet.TypeSpec;
 import javax.lang.model.element.Modifier;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Generates Java POJOs for schema segments.
+ * <p>
+ * With {@code primitives} enabled, 4-byte unsigned integers and scale-0 decimals of up to 18 digits
+ * become primitive {@code long} fields so the runtime can decode them without allocating. Nullable
+ * ones track presence in a bit set with {@code has<Name>()} and {@code clear<Name>()} accessors.
+ * <p>
+ * With {@code records} enabled, each segment becomes a Java record instead, which the runtime
+ * decodes through its canonical constructor. Records cannot track presence, so nullable primitive
+ * fields are emitted as {@code Long}.
  */
 public final class JavaPojoGenerator {
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final boolean primitives;
+    private final boolean records;
+
+    public JavaPojoGenerator() {
+        this(false);
+    }
+
+    public JavaPojoGenerator(boolean primitives) {
+        this(primitives, false);
+    }
+
+    public JavaPojoGenerator(boolean primitives, boolean records) {
+        this.primitives = primitives;
+        this.records = records;
+    }
+
     public void generate(SegmentNode root, Path outputDir, String basePackage) throws IOException {
         Map<String, SegmentNode> segments = new LinkedHashMap<>();
         collectSegments(root, segments);
 
         for (SegmentNode segment : segments.values()) {
+            if (records) {
+                writeRecord(segment, outputDir, basePackage);
+                continue;
+            }
             TypeSpec typeSpec = buildType(segment, basePackage);
             JavaFile javaFile = JavaFile.builder(basePackage, typeSpec)
                     .indent("    ")
@@ -52,12 +89,28 @@ public final class JavaPojoGenerator {
                 .addJavadoc("Auto-generated segment for $L.\n",
                         segment.getOriginalName() != null ? segment.getOriginalName() : segment.getName());
 
+        List<FieldNode> optional = new ArrayList<>();
+        for (SchemaElement element : segment.getElements()) {
+            if (element instanceof FieldNode field && !field.isProtocol()
+                    && resolveFieldType(field, primitives).isPrimitive() && Boolean.TRUE.equals(field.getNullable())) {
+                optional.add(field);
+            }
+        }
+        for (int word = 0; word * Long.SIZE < optional.size(); word++) {
+            builder.addField(FieldSpec.builder(long.class, presenceField(word), Modifier.PRIVATE).build());
+        }
+
         for (SchemaElement element : segment.getElements()) {
             if (element instanceof FieldNode field) {
                 if (field.isProtocol()) {
                     continue;
                 }
-                addField(builder, field, resolveFieldType(field));
+                int bit = optional.indexOf(field);
+                if (bit >= 0) {
+                    addOptionalField(builder, field.getName(), resolveFieldType(field, primitives), bit);
+                } else {
+                    addField(builder, field, resolveFieldType(field, primitives));
+                }
             } else if (element instanceof SegmentNode childSegment) {
                 String propertyName = NameUtils.toLowerCamel(childSegment.getName());
                 TypeName typeName = resolveSegmentType(childSegment, basePackage);
@@ -68,6 +121,69 @@ public final class JavaPojoGenerator {
         return builder.build();
     }
 
+    /**
+     * Writes a segment as a record source file. JavaPoet 1.13 has no record support, so the
+     * source is rendered directly, one component per line.
+     */
+    private void writeRecord(SegmentNode segment, Path outputDir, String basePackage) throws IOException {
+        Set<String> imports = new TreeSet<>();
+        List<String> components = new ArrayList<>();
+        for (SchemaElement element : segment.getElements()) {
+            if (element instanceof FieldNode field) {
+                if (field.isProtocol()) {
+                    continue;
+                }
+                TypeName typeName = resolveFieldType(field, primitives);
+                if (typeName.isPrimitive() && Boolean.TRUE.equals(field.getNullable())) {
+                    typeName = typeName.box();
+                }
+                components.add(render(typeName, basePackage, imports) + " " + field.getName());
+            } else if (element instanceof SegmentNode childSegment) {
+                TypeName typeName = resolveSegmentType(childSegment, basePackage);
+                components.add(render(typeName, basePackage, imports) + " "
+                        + NameUtils.toLowerCamel(childSegment.getName()));
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(basePackage).append(";\n\n");
+        for (String type : imports) {
+            source.append("import ").append(type).append(";\n");
+        }
+        if (!imports.isEmpty()) {
+            source.append("\n");
+        }
+        source.append("/**\n * Auto-generated segment for ")
+                .append(segment.getOriginalName() != null ? segment.getOriginalName() : segment.getName())
+                .append(".\n */\n");
+        source.append("public record ").append(segment.getName()).append("(");
+        for (int i = 0; i < components.size(); i++) {
+            source.append("\n        ").append(components.get(i)).append(i < components.size() - 1 ? "," : "");
+        }
+        source.append(") {\n}\n");
+
+        Path directory = outputDir.resolve(basePackage.replace('.', '/'));
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(segment.getName() + ".java"), source, StandardCharsets.UTF_8);
+    }
+
+    private static String render(TypeName typeName, String basePackage, Set<String> imports) {
+        if (typeName instanceof ParameterizedTypeName parameterized) {
+            List<String> arguments = new ArrayList<>();
+            for (TypeName argument : parameterized.typeArguments) {
+                arguments.add(render(argument, basePackage, imports));
+            }
+            return render(parameterized.rawType, basePackage, imports) + "<" + String.join(", ", arguments) + ">";
+        }
+        if (typeName instanceof ClassName className) {
+            if (!className.packageName().equals("java.lang") && !className.packageName().equals(basePackage)) {
+                imports.add(className.canonicalName());
+            }
+            return className.simpleName();
+        }
+        return typeName.toString();
+    }
+
     private void addField(TypeSpec.Builder builder, FieldNode field, TypeName typeName) {
         addField(builder, field.getName(), typeName);
     }
@@ -92,17 +208,102 @@ public final class JavaPojoGenerator {
                 .build());
     }
 
-    private TypeName resolveFieldType(FieldNode field) {
+    /**
+     * Adds a primitive field whose setter and {@code clear} method maintain a presence bit.
+     */
+    private void addOptionalField(TypeSpec.Builder builder, String fieldName, TypeName typeName, int bit) {
+        builder.addField(FieldSpec.builder(typeName, fieldName, Modifier.PRIVATE).build());
+        String presence = presenceField(bit / Long.SIZE);
+        String mask = "0x" + Long.toHexString(1L << bit % Long.SIZE) + "L";
+
+        String methodSuffix = NameUtils.toUpperCamel(fieldName);
+        builder.addMethod(MethodSpec.methodBuilder("get" + methodSuffix)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(typeName)
+                .addJavadoc("Gets $L; 0 when not set.\n", fieldName)
+                .addStatement("return $N", fieldName)
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("set" + methodSuffix)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(typeName, fieldName)
+                .addJavadoc("Sets $L and marks it present.\n", fieldName)
+                .addStatement("this.$N = $N", fieldName, fieldName)
+                .addStatement("$N |= $L", presence, mask)
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("has" + methodSuffix)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(boolean.class)
+                .addJavadoc("Returns whether $L has been set.\n", fieldName)
+                .addStatement("return ($N & $L) != 0", presence, mask)
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("clear" + methodSuffix)
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Clears $L back to not set.\n", fieldName)
+                .addStatement("this.$N = 0", fieldName)
+                .addStatement("$N &= ~$L", presence, mask)
+                .build());
+    }
+
+    private static String presenceField(int word) {
+        return "presenceBits" + word;
+    }
+
+    /**
+     * Resolves the property type, using primitive {@code long} for 4-byte unsigned integers and
+     * scale-0 decimals of up to 18 digits when {@code primitives} is set.
+     */
+    static TypeName resolveFieldType(FieldNode field, boolean primitives) {
+        if (primitives && field.getLengthBytes() != null) {
+            InstructionKind kind = CodecPlan.fieldKind(field);
+            if (kind == InstructionKind.UNSIGNED_INT || kind.isDecimal() && fitsLong(field, kind)) {
+                return TypeName.LONG;
+            }
+        }
+        return resolveFieldType(field);
+    }
+
+    /**
+     * Resolves the boxed property type from the wire encoding the field compiles to, so codecs can
+     * always assign what they decode. Integral datatypes keep {@code Long} for scale-0 decimals that
+     * fit; fields without a length fall back to the datatype alone.
+     */
+    static TypeName resolveFieldType(FieldNode field) {
+        TypeName declared = declaredType(field);
+        if (field.getLengthBytes() == null) {
+            return declared;
+        }
+        InstructionKind kind = CodecPlan.fieldKind(field);
+        if (kind == InstructionKind.UNSIGNED_INT) {
+            return ClassName.get(Long.class);
+        }
+        if (kind.isDecimal()) {
+            return declared.equals(ClassName.get(Long.class)) && fitsLong(field, kind)
+                    ? declared : ClassName.get(BigDecimal.class);
+        }
+        return ClassName.get(String.class);
+    }
+
+    private static TypeName declaredType(FieldNode field) {
         String datatype = field.getDatatype() != null ? field.getDatatype().trim().toLowerCase() : "";
         if (datatype.contains("unsigned") || datatype.contains("integer") || datatype.contains("int")) {
             return ClassName.get(Long.class);
         }
-        if (datatype.contains("decimal") || datatype.contains("bigdecimal")) {
+        if (datatype.contains("decimal") || datatype.contains("packed") || datatype.contains("zoned")
+                || datatype.contains("comp-3")) {
             return ClassName.get(BigDecimal.class);
         }
         return ClassName.get(String.class);
     }
 
+    private static boolean fitsLong(FieldNode field, InstructionKind kind) {
+        int length = field.getLengthBytes();
+        int digits = kind == InstructionKind.PACKED_DECIMAL ? length * 2 - 1 : length;
+        return (field.getScale() == null || field.getScale() == 0) && digits <= MAX_LONG_DIGITS;
+    }
+
     private TypeName resolveSegmentType(SegmentNode segment, String basePackage) {
         ClassName segmentType = ClassName.get(basePackage, segment.getName());
         if (segment.getOccurrence() != null && segment.getOccurrence().isRepeating()) {
@@ -0,0 +1,326 @@
+package com.rtm.mq.toolkit.codegen;
+
+import com.rtm.mq.toolkit.ir.FieldNode;
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.ir.NameUtils;
+import com.rtm.mq.toolkit.ir.ProtocolConfig;
+import com.rtm.mq.toolkit.ir.SchemaElement;
+import com.rtm.mq.toolkit.ir.SegmentNode;
+import com.rtm.mq.toolkit.runtime.CodePage;
+import com.rtm.mq.toolkit.runtime.CodecPlan;
+import com.rtm.mq.toolkit.runtime.Instruction;
+import com.rtm.mq.toolkit.runtime.InstructionKind;
+import com.rtm.mq.toolkit.runtime.MessageView;
+import com.rtm.mq.toolkit.runtime.SegmentPlan;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+
+import javax.lang.model.element.Modifier;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates a flyweight {@code <Segment>View} per schema segment. Field offsets are computed
+ * from the schema at generation time; only offsets behind a variable-size segment are found by
+ * walking the preceding occurrences.
+ */
+public final class JavaViewGenerator {
+    public void generate(MessageSchema schema, ProtocolConfig protocolConfig, Path outputDir, String basePackage)
+            throws IOException {
+        CodecPlan plan = CodecPlan.compile(schema, protocolConfig);
+        Map<String, TypeSpec> types = new LinkedHashMap<>();
+        collect(schema.getRoot(), plan.getRoot(), plan, basePackage, true, types);
+        for (TypeSpec typeSpec : types.values()) {
+            JavaFile javaFile = JavaFile.builder(basePackage, typeSpec)
+                    .indent("    ")
+                    .build();
+            javaFile.writeTo(outputDir);
+        }
+    }
+
+    private void collect(SegmentNode node,
+                         SegmentPlan segment,
+                         CodecPlan plan,
+                         String basePackage,
+                         boolean root,
+                         Map<String, TypeSpec> types) {
+        if (types.containsKey(node.getName())) {
+            return;
+        }
+        types.put(node.getName(), new Builder(node, segment, plan, basePackage, root).build());
+        int index = 0;
+        for (SchemaElement element : node.getElements()) {
+            if (element instanceof FieldNode field && field.getLengthBytes() != null) {
+                index++;
+            } else if (element instanceof SegmentNode child) {
+                collect(child, segment.getInstruction(index++).segment(), plan, basePackage, false, types);
+            }
+        }
+    }
+
+    private static ClassName viewType(String basePackage, SegmentNode node) {
+        return ClassName.get(basePackage, node.getName() + "View");
+    }
+
+    private static final class Builder {
+        private final SegmentNode node;
+        private final SegmentPlan segment;
+        private final CodecPlan plan;
+        private final String basePackage;
+        private final boolean root;
+        private final ClassName type;
+        private final TypeSpec.Builder builder;
+        private final Map<CodePage, String> codePages = new LinkedHashMap<>();
+        private final List<MethodSpec> accessors = new ArrayList<>();
+        private final List<MethodSpec> offsets = new ArrayList<>();
+
+        private Builder(SegmentNode node, SegmentPlan segment, CodecPlan plan, String basePackage, boolean root) {
+            this.node = node;
+            this.segment = segment;
+            this.plan = plan;
+            this.basePackage = basePackage;
+            this.root = root;
+            this.type = viewType(basePackage, node);
+            this.builder = TypeSpec.classBuilder(type)
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                    .superclass(MessageView.class)
+                    .addJavadoc("Auto-generated view over $L.\n",
+                            node.getOriginalName() != null ? node.getOriginalName() : node.getName());
+        }
+
+        private TypeSpec build() {
+            builder.addField(FieldSpec.builder(ByteOrder.class, "BYTE_ORDER",
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.$L", ByteOrder.class,
+                            plan.getByteOrder() == ByteOrder.LITTLE_ENDIAN ? "LITTLE_ENDIAN" : "BIG_ENDIAN")
+                    .build());
+            if (segment.getFixedSize() >= 0) {
+                builder.addField(FieldSpec.builder(int.class, "ENCODED_SIZE",
+                                Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$L", segment.getFixedSize())
+                        .build());
+            }
+            addWrapMethods();
+
+            CodeBlock anchor = CodeBlock.of("offset()");
+            int position = 0;
+            int index = 0;
+            for (SchemaElement element : node.getElements()) {
+                if (element instanceof FieldNode field) {
+                    if (field.getLengthBytes() == null) {
+                        continue;
+                    }
+                    Instruction instruction = segment.getInstruction(index++);
+                    if (!field.isProtocol()) {
+                        addFieldGetter(field.getName(), instruction, at(anchor, position));
+                    }
+                    position += instruction.length();
+                } else if (element instanceof SegmentNode child) {
+                    Instruction instruction = segment.getInstruction(index++);
+                    anchor = addChild(child, instruction.segment(), at(anchor, position));
+                    position = 0;
+                }
+            }
+
+            MethodSpec.Builder size = MethodSpec.methodBuilder("encodedSize")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(int.class);
+            if (segment.getFixedSize() >= 0) {
+                size.addStatement("return ENCODED_SIZE");
+            } else {
+                size.addStatement("return $L - offset()", at(anchor, position));
+            }
+            builder.addMethods(accessors);
+            builder.addMethod(size.build());
+            builder.addMethods(offsets);
+            builder.addFields(codePageFields());
+            return builder.build();
+        }
+
+        private void addWrapMethods() {
+            if (root) {
+                builder.addMethod(MethodSpec.methodBuilder("wrap")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(type)
+                        .addParameter(byte[].class, "data")
+                        .addJavadoc("Points this view at a message starting at index 0.\n")
+                        .addStatement("return wrap(data, 0)")
+                        .build());
+                builder.addMethod(MethodSpec.methodBuilder("wrap")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(type)
+                        .addParameter(ByteBuffer.class, "buffer")
+                        .addJavadoc("Points this view at a message starting at the buffer position.\n")
+                        .addStatement("return wrap(buffer, buffer.position())")
+                        .build());
+            }
+            String what = root ? "a message" : "an occurrence body";
+            builder.addMethod(MethodSpec.methodBuilder("wrap")
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(type)
+                    .addParameter(byte[].class, "data")
+                    .addParameter(int.class, "offset")
+                    .addJavadoc("Points this view at $L starting at an absolute index.\n", what)
+                    .addStatement("point(data, offset)")
+                    .addStatement("return this")
+                    .build());
+            builder.addMethod(MethodSpec.methodBuilder("wrap")
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(type)
+                    .addParameter(ByteBuffer.class, "buffer")
+                    .addParameter(int.class, "offset")
+                    .addJavadoc("Points this view at $L starting at an absolute index.\n", what)
+                    .addStatement("point(buffer, offset)")
+                    .addStatement("return this")
+                    .build());
+        }
+
+        private void addFieldGetter(String name, Instruction instruction, CodeBlock index) {
+            MethodSpec.Builder getter = MethodSpec.methodBuilder("get" + NameUtils.toUpperCamel(name))
+                    .addModifiers(Modifier.PUBLIC)
+                    .addJavadoc("Decodes $L.\n", name);
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+                getter.returns(long.class)
+                        .addStatement("return unsigned($L, BYTE_ORDER)", index);
+            } else if (instruction.kind().isDecimal()) {
+                getter.returns(BigDecimal.class)
+                        .addStatement("return decimal($L, $L, $L, $L)", index, instruction.length(),
+                                instruction.scale(), instruction.kind() == InstructionKind.PACKED_DECIMAL);
+            } else {
+                getter.returns(String.class)
+                        .addStatement("return text($L, $L, $L)", index, instruction.length(),
+                                codePageReference(instruction.codePage()));
+            }
+            accessors.add(getter.build());
+        }
+
+        /**
+         * Adds count and occurrence accessors for a child segment whose header starts at
+         * {@code start}; returns the expression for the index just past its last occurrence.
+         */
+        private CodeBlock addChild(SegmentNode child, SegmentPlan childPlan, CodeBlock start) {
+            String property = NameUtils.toLowerCamel(child.getName());
+            String suffix = NameUtils.toUpperCamel(property);
+            ClassName childType = viewType(basePackage, child);
+            String view = property + "View";
+            String cursor = property + "Cursor";
+            int header = childPlan.getHeaderLength();
+            int fixedSize = childPlan.getFixedSize();
+
+            builder.addField(FieldSpec.builder(childType, view, Modifier.PRIVATE, Modifier.FINAL)
+                    .initializer("new $T()", childType)
+                    .build());
+            if (fixedSize < 0) {
+                builder.addField(FieldSpec.builder(childType, cursor, Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", childType)
+                        .build());
+            }
+
+            offsets.add(MethodSpec.methodBuilder(property + "Start")
+                    .addModifiers(Modifier.PRIVATE)
+                    .returns(int.class)
+                    .addStatement("return $L", start)
+                    .build());
+
+            accessors.add(MethodSpec.methodBuilder("get" + suffix + "Count")
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(int.class)
+                    .addJavadoc("Returns the occurrence count from the $L header.\n", child.getName())
+                    .addStatement("return occurrences($LStart() + $L, $L, BYTE_ORDER, $L)", property,
+                            childPlan.getGroupIdLength(), childPlan.getOccurrenceLength(),
+                            codePageReference(childPlan.getCodePage()))
+                    .build());
+
+            if (childPlan.isRepeating()) {
+                accessors.add(MethodSpec.methodBuilder("get" + suffix)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(childType)
+                        .addParameter(int.class, "index")
+                        .addJavadoc("Returns an occurrence through a view owned by this one; "
+                                + "it is re-pointed on the next call.\n")
+                        .addStatement("return get$L(index, $L)", suffix, view)
+                        .build());
+                MethodSpec.Builder indexed = MethodSpec.methodBuilder("get" + suffix)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(childType)
+                        .addParameter(int.class, "index")
+                        .addParameter(childType, "view")
+                        .addJavadoc("Points the given view at an occurrence.\n")
+                        .addStatement("$T.checkIndex(index, get$LCount())", Objects.class, suffix)
+                        .addStatement("int at = $LStart() + $L", property, header);
+                if (fixedSize >= 0) {
+                    indexed.addStatement("return child(view, at + index * $T.ENCODED_SIZE)", childType);
+                } else {
+                    indexed.beginControlFlow("for (int i = 0; i < index; i++)")
+                            .addStatement("at += child(view, at).encodedSize()")
+                            .endControlFlow()
+                            .addStatement("return child(view, at)");
+                }
+                accessors.add(indexed.build());
+            } else {
+                accessors.add(MethodSpec.methodBuilder("get" + suffix)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(childType)
+                        .addJavadoc("Returns the occurrence through a view owned by this one, "
+                                + "or null when absent.\n")
+                        .addStatement("return get$LCount() == 0 ? null : child($L, $LStart() + $L)", suffix, view,
+                                property, header)
+                        .build());
+            }
+
+            MethodSpec.Builder end = MethodSpec.methodBuilder(property + "End")
+                    .addModifiers(Modifier.PRIVATE)
+                    .returns(int.class);
+            CodeBlock count = childPlan.isRepeating() ? CodeBlock.of("get$LCount()", suffix)
+                    : CodeBlock.of("$T.min(get$LCount(), 1)", Math.class, suffix);
+            if (fixedSize >= 0) {
+                end.addStatement("return $LStart() + $L + $L * $T.ENCODED_SIZE", property, header, count, childType);
+            } else {
+                end.addStatement("int count = $L", count)
+                        .addStatement("int at = $LStart() + $L", property, header)
+                        .beginControlFlow("for (int i = 0; i < count; i++)")
+                        .addStatement("at += child($L, at).encodedSize()", cursor)
+                        .endControlFlow()
+                        .addStatement("return at");
+            }
+            offsets.add(end.build());
+            return CodeBlock.of("$LEnd()", property);
+        }
+
+        private CodeBlock codePageReference(CodePage codePage) {
+            if (codePage.isAscii()) {
+                return CodeBlock.of("$T.US_ASCII", CodePage.class);
+            }
+            String field = codePages.computeIfAbsent(codePage,
+                    page -> "CHARSET_" + page.getName().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_"));
+            return CodeBlock.of("$L", field);
+        }
+
+        private List<FieldSpec> codePageFields() {
+            List<FieldSpec> fields = new ArrayList<>();
+            codePages.forEach((codePage, field) -> fields.add(FieldSpec.builder(CodePage.class, field,
+                            Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.forName($S)", CodePage.class, codePage.getName())
+                    .build()));
+            return fields;
+        }
+
+        private static CodeBlock at(CodeBlock anchor, int position) {
+            return position == 0 ? anchor : CodeBlock.of("$L + $L", anchor, position);
+        }
+    }
+}
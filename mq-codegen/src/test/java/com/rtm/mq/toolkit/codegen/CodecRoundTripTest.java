@@ -0,0 +1,177 @@
+package com.rtm.mq.toolkit.codegen;
+
+import com.rtm.mq.toolkit.codegen.roundtrip.Entry;
+import com.rtm.mq.toolkit.codegen.roundtrip.Hold;
+import com.rtm.mq.toolkit.codegen.roundtrip.LedgerHeader;
+import com.rtm.mq.toolkit.codegen.roundtrip.LedgerResponse;
+import com.rtm.mq.toolkit.codegen.roundtrip.LedgerResponseCodec;
+import com.rtm.mq.toolkit.codegen.roundtrip.Memo;
+import com.rtm.mq.toolkit.codegen.roundtrip.Trailer;
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.ir.ProtocolConfig;
+import com.rtm.mq.toolkit.ir.SchemaIO;
+import com.rtm.mq.toolkit.runtime.ConversionOptions;
+import com.rtm.mq.toolkit.runtime.ConversionResult;
+import com.rtm.mq.toolkit.runtime.GeneratedCodec;
+import com.rtm.mq.toolkit.runtime.MessageCodec;
+import com.rtm.mq.toolkit.runtime.MessageConverter;
+import com.rtm.mq.toolkit.runtime.SpecializedMessageCodec;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Round-trips one EBCDIC schema with packed and zoned decimals, an optional segment and a nested
+ * repeating segment through the interpreter, the hidden-class codec and the build-time codec.
+ * The classes in the {@code roundtrip} package are generator output for {@code roundtrip/ledger.yaml};
+ * {@link #fixturesMatchGeneratorOutput} fails when they go stale.
+ */
+class CodecRoundTripTest {
+    private static final String PACKAGE = "com.rtm.mq.toolkit.codegen.roundtrip";
+    private static final Path FIXTURES = Path.of("src/test/java", PACKAGE.replace('.', '/'));
+    private static final Charset EBCDIC = Charset.forName("IBM037");
+
+    private static MessageSchema schema;
+    private static ProtocolConfig protocolConfig;
+    private static ConversionOptions options;
+
+    @BeforeAll
+    static void loadSchema() throws Exception {
+        schema = SchemaIO.read(Path.of(CodecRoundTripTest.class.getResource("/roundtrip/ledger.yaml").toURI()));
+        protocolConfig = new ProtocolConfig();
+        protocolConfig.setCharset("IBM037");
+        options = new ConversionOptions();
+        options.setProtocolConfig(protocolConfig);
+    }
+
+    @Test
+    void fixturesMatchGeneratorOutput(@TempDir Path dir) throws IOException {
+        new JavaPojoGenerator().generate(schema.getRoot(), dir, PACKAGE);
+        new JavaCodecGenerator().generate(schema, protocolConfig, dir, PACKAGE);
+        Path generated = dir.resolve(PACKAGE.replace('.', '/'));
+        assertEquals(fileNames(FIXTURES), fileNames(generated));
+        for (String name : fileNames(generated)) {
+            assertEquals(Files.readString(generated.resolve(name)), Files.readString(FIXTURES.resolve(name)),
+                    name + " differs from generator output; regenerate the roundtrip fixtures");
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("messages")
+    void codecsAgree(String description, LedgerResponse message) {
+        MessageConverter interpreter = new MessageConverter(options);
+        SpecializedMessageCodec specialized = new SpecializedMessageCodec(options);
+        LedgerResponseCodec built = new LedgerResponseCodec(options);
+        assertInstanceOf(GeneratedCodec.class, specialized.codecFor(schema, LedgerResponse.class));
+
+        byte[] bytes = interpreter.marshal(message, schema);
+        assertArrayEquals("LDGHDR".getBytes(EBCDIC), Arrays.copyOf(bytes, 6));
+        assertArrayEquals(bytes, specialized.marshal(message, schema));
+        assertArrayEquals(bytes, built.marshal(message, schema));
+
+        ConversionResult<LedgerResponse> reference = interpreter.unmarshal(bytes, schema, LedgerResponse.class);
+        assertEquals(List.of(), reference.issues());
+        assertSameValues(message, reference.value());
+        for (MessageCodec codec : List.of(specialized, built)) {
+            ConversionResult<LedgerResponse> result = codec.unmarshal(bytes, schema, LedgerResponse.class);
+            assertEquals(reference.traces(), result.traces());
+            assertEquals(reference.issues(), result.issues());
+            assertSameValues(message, result.value());
+            assertArrayEquals(bytes, interpreter.marshal(result.value(), schema));
+            assertEquals(interpreter.unmarshalGeneric(bytes, schema).value().asMap(),
+                    codec.unmarshalGeneric(bytes, schema).value().asMap());
+        }
+    }
+
+    static Stream<Arguments> messages() {
+        LedgerResponse held = message(new BigDecimal("-1234.50"), hold("REVIEW", new BigDecimal("250.00")),
+                entry("E1", new BigDecimal("99.99"), "first", "second"),
+                entry("E2", new BigDecimal("-0.05")));
+        LedgerResponse clear = message(new BigDecimal("0.00"), null,
+                entry("E3", new BigDecimal("10.00"), "only"));
+        return Stream.of(Arguments.of("optional segment present", held),
+                Arguments.of("optional segment absent", clear));
+    }
+
+    private static LedgerResponse message(BigDecimal balance, Hold hold, Entry... entries) {
+        LedgerHeader header = new LedgerHeader();
+        header.setAccountId("ACC-001");
+        header.setBalance(balance);
+        header.setEntryCount(BigDecimal.valueOf(entries.length));
+        Trailer trailer = new Trailer();
+        trailer.setStatus("OK");
+        LedgerResponse message = new LedgerResponse();
+        message.setLedgerHeader(header);
+        message.setHold(hold);
+        message.setEntry(new ArrayList<>(List.of(entries)));
+        message.setTrailer(trailer);
+        return message;
+    }
+
+    private static Hold hold(String reason, BigDecimal amount) {
+        Hold hold = new Hold();
+        hold.setReason(reason);
+        hold.setAmount(amount);
+        return hold;
+    }
+
+    private static Entry entry(String ref, BigDecimal amount, String... memos) {
+        Entry entry = new Entry();
+        entry.setRef(ref);
+        entry.setAmount(amount);
+        List<Memo> list = new ArrayList<>();
+        for (String text : memos) {
+            Memo memo = new Memo();
+            memo.setText(text);
+            list.add(memo);
+        }
+        entry.setMemo(list);
+        return entry;
+    }
+
+    private static void assertSameValues(LedgerResponse expected, LedgerResponse actual) {
+        assertEquals(expected.getLedgerHeader().getAccountId(), actual.getLedgerHeader().getAccountId());
+        assertEquals(expected.getLedgerHeader().getBalance(), actual.getLedgerHeader().getBalance());
+        assertEquals(expected.getLedgerHeader().getEntryCount(), actual.getLedgerHeader().getEntryCount());
+        if (expected.getHold() == null) {
+            assertNull(actual.getHold());
+        } else {
+            assertEquals(expected.getHold().getReason(), actual.getHold().getReason());
+            assertEquals(expected.getHold().getAmount(), actual.getHold().getAmount());
+        }
+        assertEquals(expected.getEntry().size(), actual.getEntry().size());
+        for (int i = 0; i < expected.getEntry().size(); i++) {
+            Entry entry = expected.getEntry().get(i);
+            Entry decoded = actual.getEntry().get(i);
+            assertEquals(entry.getRef(), decoded.getRef());
+            assertEquals(entry.getAmount(), decoded.getAmount());
+            assertEquals(entry.getMemo().stream().map(Memo::getText).toList(),
+                    decoded.getMemo().stream().map(Memo::getText).toList());
+        }
+        assertEquals(expected.getTrailer().getStatus(), actual.getTrailer().getStatus());
+    }
+
+    private static List<String> fileNames(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+}
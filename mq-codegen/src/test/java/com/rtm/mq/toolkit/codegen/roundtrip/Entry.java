@@ -0,0 +1,58 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import java.lang.String;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Auto-generated segment for Entry.
+ */
+public class Entry {
+    private String ref;
+
+    private BigDecimal amount;
+
+    private List<Memo> memo;
+
+    /**
+     * Gets ref.
+     */
+    public String getRef() {
+        return ref;
+    }
+
+    /**
+     * Sets ref.
+     */
+    public void setRef(String ref) {
+        this.ref = ref;
+    }
+
+    /**
+     * Gets amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets amount.
+     */
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Gets memo.
+     */
+    public List<Memo> getMemo() {
+        return memo;
+    }
+
+    /**
+     * Sets memo.
+     */
+    public void setMemo(List<Memo> memo) {
+        this.memo = memo;
+    }
+}
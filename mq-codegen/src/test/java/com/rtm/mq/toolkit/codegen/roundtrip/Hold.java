@@ -0,0 +1,41 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import java.lang.String;
+import java.math.BigDecimal;
+
+/**
+ * Auto-generated segment for Hold.
+ */
+public class Hold {
+    private String reason;
+
+    private BigDecimal amount;
+
+    /**
+     * Gets reason.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Sets reason.
+     */
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * Gets amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets amount.
+     */
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
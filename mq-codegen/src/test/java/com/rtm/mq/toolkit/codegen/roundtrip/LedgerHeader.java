@@ -0,0 +1,57 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import java.lang.String;
+import java.math.BigDecimal;
+
+/**
+ * Auto-generated segment for LedgerHeader.
+ */
+public class LedgerHeader {
+    private String accountId;
+
+    private BigDecimal balance;
+
+    private BigDecimal entryCount;
+
+    /**
+     * Gets accountId.
+     */
+    public String getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * Sets accountId.
+     */
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    /**
+     * Gets balance.
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /**
+     * Sets balance.
+     */
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Gets entryCount.
+     */
+    public BigDecimal getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Sets entryCount.
+     */
+    public void setEntryCount(BigDecimal entryCount) {
+        this.entryCount = entryCount;
+    }
+}
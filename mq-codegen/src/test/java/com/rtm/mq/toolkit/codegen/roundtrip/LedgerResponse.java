@@ -0,0 +1,72 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import java.util.List;
+
+/**
+ * Auto-generated segment for LedgerResponse.
+ */
+public class LedgerResponse {
+    private LedgerHeader ledgerHeader;
+
+    private Hold hold;
+
+    private List<Entry> entry;
+
+    private Trailer trailer;
+
+    /**
+     * Gets ledgerHeader.
+     */
+    public LedgerHeader getLedgerHeader() {
+        return ledgerHeader;
+    }
+
+    /**
+     * Sets ledgerHeader.
+     */
+    public void setLedgerHeader(LedgerHeader ledgerHeader) {
+        this.ledgerHeader = ledgerHeader;
+    }
+
+    /**
+     * Gets hold.
+     */
+    public Hold getHold() {
+        return hold;
+    }
+
+    /**
+     * Sets hold.
+     */
+    public void setHold(Hold hold) {
+        this.hold = hold;
+    }
+
+    /**
+     * Gets entry.
+     */
+    public List<Entry> getEntry() {
+        return entry;
+    }
+
+    /**
+     * Sets entry.
+     */
+    public void setEntry(List<Entry> entry) {
+        this.entry = entry;
+    }
+
+    /**
+     * Gets trailer.
+     */
+    public Trailer getTrailer() {
+        return trailer;
+    }
+
+    /**
+     * Sets trailer.
+     */
+    public void setTrailer(Trailer trailer) {
+        this.trailer = trailer;
+    }
+}
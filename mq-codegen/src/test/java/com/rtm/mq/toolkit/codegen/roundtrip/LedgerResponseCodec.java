@@ -0,0 +1,362 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.runtime.CodePage;
+import com.rtm.mq.toolkit.runtime.CodecSupport;
+import com.rtm.mq.toolkit.runtime.ConversionOptions;
+import com.rtm.mq.toolkit.runtime.ConversionResult;
+import com.rtm.mq.toolkit.runtime.GenericMessage;
+import com.rtm.mq.toolkit.runtime.GroupIdMode;
+import com.rtm.mq.toolkit.runtime.MessageCodec;
+import com.rtm.mq.toolkit.runtime.MessageConverter;
+import com.rtm.mq.toolkit.runtime.TraceLevel;
+import com.rtm.mq.toolkit.runtime.TracePath;
+import java.lang.Class;
+import java.lang.IllegalArgumentException;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Auto-generated codec for Ledger:response:v1.0.
+ */
+public final class LedgerResponseCodec implements MessageCodec {
+    public static final String SCHEMA_ID = "Ledger:response:v1.0";
+
+    private static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    private static final CodePage CHARSET_IBM037 = CodePage.forName("IBM037");
+
+    private final GroupIdMode groupIdMode;
+
+    private final TraceLevel traceLevel;
+
+    private final boolean failFast;
+
+    private final MessageConverter generic;
+
+    public LedgerResponseCodec() {
+        this(new ConversionOptions());
+    }
+
+    public LedgerResponseCodec(ConversionOptions options) {
+        this.groupIdMode = options.getGroupIdMode();
+        this.traceLevel = options.getTraceLevel();
+        this.failFast = options.isFailFast();
+        this.generic = new MessageConverter(options);
+    }
+
+    @Override
+    public byte[] marshal(Object pojo, MessageSchema schema) {
+        LedgerResponse root = root(pojo);
+        byte[] output = new byte[sizeLedgerResponse(root)];
+        writeLedgerResponse(root, ByteBuffer.wrap(output), 0, "/LedgerResponse");
+        return output;
+    }
+
+    @Override
+    public int encodedSize(Object pojo, MessageSchema schema) {
+        LedgerResponse root = root(pojo);
+        return sizeLedgerResponse(root);
+    }
+
+    @Override
+    public int marshalTo(Object pojo, MessageSchema schema, ByteBuffer buffer) {
+        LedgerResponse root = root(pojo);
+        int size = sizeLedgerResponse(root);
+        CodecSupport.requireRemaining(buffer, size);
+        writeLedgerResponse(root, buffer, buffer.position(), "/LedgerResponse");
+        buffer.position(buffer.position() + size);
+        return size;
+    }
+
+    @Override
+    public <T> ConversionResult<T> unmarshal(byte[] bytes, MessageSchema schema, Class<T> type) {
+        Objects.requireNonNull(bytes, "bytes");
+        Objects.requireNonNull(type, "type");
+        if (!type.isAssignableFrom(LedgerResponse.class)) {
+            throw new IllegalArgumentException("Codec for LedgerResponse cannot produce " + type.getName());
+        }
+        LedgerResponse root = new LedgerResponse();
+        ConversionResult<T> result = new ConversionResult<>(type.cast(root));
+        readLedgerResponse(root, bytes, 0, result, TracePath.start(traceLevel, "/LedgerResponse", failFast));
+        return result;
+    }
+
+    @Override
+    public <T> ConversionResult<T> unmarshal(ByteBuffer buffer, MessageSchema schema,
+            Class<T> type) {
+        Objects.requireNonNull(buffer, "buffer");
+        Objects.requireNonNull(type, "type");
+        if (!type.isAssignableFrom(LedgerResponse.class)) {
+            throw new IllegalArgumentException("Codec for LedgerResponse cannot produce " + type.getName());
+        }
+        byte[] data;
+        if (buffer.hasArray() && buffer.arrayOffset() + buffer.position() == 0 && buffer.limit() == buffer.array().length) {
+            data = buffer.array();
+        } else {
+            data = new byte[buffer.remaining()];
+            buffer.get(buffer.position(), data);
+        }
+        LedgerResponse root = new LedgerResponse();
+        ConversionResult<T> result = new ConversionResult<>(type.cast(root));
+        int end = readLedgerResponse(root, data, 0, result, TracePath.start(traceLevel, "/LedgerResponse", failFast));
+        buffer.position(buffer.position() + end);
+        return result;
+    }
+
+    @Override
+    public ConversionResult<GenericMessage> unmarshalGeneric(byte[] bytes, MessageSchema schema) {
+        return generic.unmarshalGeneric(bytes, schema);
+    }
+
+    private static LedgerResponse root(Object pojo) {
+        Objects.requireNonNull(pojo, "pojo");
+        if (!(pojo instanceof LedgerResponse root)) {
+            throw new IllegalArgumentException("Codec for LedgerResponse cannot marshal " + pojo.getClass().getName());
+        }
+        return root;
+    }
+
+    private static int sizeLedgerResponse(LedgerResponse value) {
+        int size = 0;
+        LedgerHeader ledgerHeaderValue = value.getLedgerHeader();
+        size += 14;
+        if (ledgerHeaderValue != null) {
+            size += 21;
+        }
+        Hold holdValue = value.getHold();
+        size += 14;
+        if (holdValue != null) {
+            size += 15;
+        }
+        List<Entry> entryValue = value.getEntry();
+        size += 14;
+        if (entryValue != null) {
+            for (Entry entry : entryValue) {
+                size += sizeEntry(entry);
+            }
+        }
+        Trailer trailerValue = value.getTrailer();
+        size += 14;
+        if (trailerValue != null) {
+            size += 3;
+        }
+        return size;
+    }
+
+    private int writeLedgerResponse(LedgerResponse value, ByteBuffer output, int offset,
+            String path) {
+        LedgerHeader ledgerHeaderValue = value.getLedgerHeader();
+        String ledgerHeaderPath = path + "/LedgerHeader";
+        int ledgerHeaderCount = CodecSupport.count(ledgerHeaderValue, false, 1, ledgerHeaderPath);
+        CodecSupport.writeText(output, offset, "LDGHDR", 10, CHARSET_IBM037);
+        CodecSupport.writeUnsigned(output, offset + 10, ledgerHeaderCount, BYTE_ORDER, "OccurrenceCount");
+        offset += 14;
+        if (ledgerHeaderValue != null) {
+            offset = writeLedgerHeader(ledgerHeaderValue, output, offset, ledgerHeaderPath);
+        }
+        Hold holdValue = value.getHold();
+        String holdPath = path + "/Hold";
+        int holdCount = CodecSupport.count(holdValue, false, 0, holdPath);
+        CodecSupport.writeText(output, offset, "HOLD", 10, CHARSET_IBM037);
+        CodecSupport.writeUnsigned(output, offset + 10, holdCount, BYTE_ORDER, "OccurrenceCount");
+        offset += 14;
+        if (holdValue != null) {
+            offset = writeHold(holdValue, output, offset, holdPath);
+        }
+        List<Entry> entryValue = value.getEntry();
+        String entryPath = path + "/Entry";
+        int entryCount = CodecSupport.count(entryValue, true, 0, entryPath);
+        CodecSupport.writeText(output, offset, "ENTRY", 10, CHARSET_IBM037);
+        CodecSupport.writeUnsigned(output, offset + 10, entryCount, BYTE_ORDER, "OccurrenceCount");
+        offset += 14;
+        for (int i = 0; i < entryCount; i++) {
+            offset = writeEntry(entryValue.get(i), output, offset, entryPath + "[" + i + "]");
+        }
+        Trailer trailerValue = value.getTrailer();
+        String trailerPath = path + "/Trailer";
+        int trailerCount = CodecSupport.count(trailerValue, false, 1, trailerPath);
+        CodecSupport.writeText(output, offset, "TRL", 10, CHARSET_IBM037);
+        CodecSupport.writeUnsigned(output, offset + 10, trailerCount, BYTE_ORDER, "OccurrenceCount");
+        offset += 14;
+        if (trailerValue != null) {
+            offset = writeTrailer(trailerValue, output, offset, trailerPath);
+        }
+        return offset;
+    }
+
+    private int readLedgerResponse(LedgerResponse target, byte[] data, int offset,
+            ConversionResult<?> result, TracePath path) {
+        path.push("/LedgerHeader");
+        String ledgerHeaderGroupId = CodecSupport.readText(data, offset, 10, CHARSET_IBM037, result, path, "/groupid");
+        CodecSupport.checkGroupId("LDGHDR", ledgerHeaderGroupId, groupIdMode, result, path, offset, 1);
+        long ledgerHeaderCount = CodecSupport.readUnsigned(data, offset + 10, BYTE_ORDER, result, path, "/occurenceCount");
+        ledgerHeaderCount = CodecSupport.singleOccurrence(ledgerHeaderCount, 1, result, path);
+        CodecSupport.checkOccurrences(ledgerHeaderCount, data.length - offset - 14, 21, path, offset, 1);
+        offset += 14;
+        LedgerHeader ledgerHeaderValue = null;
+        if (ledgerHeaderCount > 0) {
+            ledgerHeaderValue = new LedgerHeader();
+            offset = readLedgerHeader(ledgerHeaderValue, data, offset, result, path);
+        }
+        path.pop();
+        target.setLedgerHeader(ledgerHeaderValue);
+        path.push("/Hold");
+        String holdGroupId = CodecSupport.readText(data, offset, 10, CHARSET_IBM037, result, path, "/groupid");
+        CodecSupport.checkGroupId("HOLD", holdGroupId, groupIdMode, result, path, offset, 2);
+        long holdCount = CodecSupport.readUnsigned(data, offset + 10, BYTE_ORDER, result, path, "/occurenceCount");
+        holdCount = CodecSupport.singleOccurrence(holdCount, 0, result, path);
+        CodecSupport.checkOccurrences(holdCount, data.length - offset - 14, 15, path, offset, 2);
+        offset += 14;
+        Hold holdValue = null;
+        if (holdCount > 0) {
+            holdValue = new Hold();
+            offset = readHold(holdValue, data, offset, result, path);
+        }
+        path.pop();
+        target.setHold(holdValue);
+        path.push("/Entry");
+        String entryGroupId = CodecSupport.readText(data, offset, 10, CHARSET_IBM037, result, path, "/groupid");
+        CodecSupport.checkGroupId("ENTRY", entryGroupId, groupIdMode, result, path, offset, 3);
+        long entryCount = CodecSupport.readUnsigned(data, offset + 10, BYTE_ORDER, result, path, "/occurenceCount");
+        CodecSupport.checkOccurrences(entryCount, data.length - offset - 14, 27, path, offset, 3);
+        offset += 14;
+        List<Entry> entryValue = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            Entry entry = new Entry();
+            path.index(i);
+            offset = readEntry(entry, data, offset, result, path);
+            entryValue.add(entry);
+        }
+        path.pop();
+        target.setEntry(entryValue);
+        path.push("/Trailer");
+        String trailerGroupId = CodecSupport.readText(data, offset, 10, CHARSET_IBM037, result, path, "/groupid");
+        CodecSupport.checkGroupId("TRL", trailerGroupId, groupIdMode, result, path, offset, 5);
+        long trailerCount = CodecSupport.readUnsigned(data, offset + 10, BYTE_ORDER, result, path, "/occurenceCount");
+        trailerCount = CodecSupport.singleOccurrence(trailerCount, 1, result, path);
+        CodecSupport.checkOccurrences(trailerCount, data.length - offset - 14, 3, path, offset, 5);
+        offset += 14;
+        Trailer trailerValue = null;
+        if (trailerCount > 0) {
+            trailerValue = new Trailer();
+            offset = readTrailer(trailerValue, data, offset, result, path);
+        }
+        path.pop();
+        target.setTrailer(trailerValue);
+        return offset;
+    }
+
+    private int writeLedgerHeader(LedgerHeader value, ByteBuffer output, int offset, String path) {
+        CodecSupport.writeText(output, offset, value.getAccountId(), 10, CHARSET_IBM037);
+        CodecSupport.writePacked(output, offset + 10, value.getBalance(), 6, 2, "balance");
+        CodecSupport.writeZoned(output, offset + 16, value.getEntryCount(), 5, 0, CHARSET_IBM037, "entryCount");
+        offset += 21;
+        return offset;
+    }
+
+    private int readLedgerHeader(LedgerHeader target, byte[] data, int offset,
+            ConversionResult<?> result, TracePath path) {
+        target.setAccountId(CodecSupport.readText(data, offset, 10, CHARSET_IBM037, result, path, "/accountId"));
+        target.setBalance(CodecSupport.readPacked(data, offset + 10, 6, 2, result, path, "/balance"));
+        target.setEntryCount(CodecSupport.readZoned(data, offset + 16, 5, 0, result, path, "/entryCount"));
+        offset += 21;
+        return offset;
+    }
+
+    private int writeHold(Hold value, ByteBuffer output, int offset, String path) {
+        CodecSupport.writeText(output, offset, value.getReason(), 8, CHARSET_IBM037);
+        CodecSupport.writeZoned(output, offset + 8, value.getAmount(), 7, 2, CHARSET_IBM037, "amount");
+        offset += 15;
+        return offset;
+    }
+
+    private int readHold(Hold target, byte[] data, int offset, ConversionResult<?> result,
+            TracePath path) {
+        target.setReason(CodecSupport.readText(data, offset, 8, CHARSET_IBM037, result, path, "/reason"));
+        target.setAmount(CodecSupport.readZoned(data, offset + 8, 7, 2, result, path, "/amount"));
+        offset += 15;
+        return offset;
+    }
+
+    private static int sizeEntry(Entry value) {
+        int size = 13;
+        List<Memo> memoValue = value.getMemo();
+        size += 14;
+        if (memoValue != null) {
+            size += memoValue.size() * 12;
+        }
+        return size;
+    }
+
+    private int writeEntry(Entry value, ByteBuffer output, int offset, String path) {
+        CodecSupport.writeText(output, offset, value.getRef(), 8, CHARSET_IBM037);
+        CodecSupport.writePacked(output, offset + 8, value.getAmount(), 5, 2, "amount");
+        offset += 13;
+        List<Memo> memoValue = value.getMemo();
+        String memoPath = path + "/Memo";
+        int memoCount = CodecSupport.count(memoValue, true, 0, memoPath);
+        CodecSupport.writeText(output, offset, "MEMO", 10, CHARSET_IBM037);
+        CodecSupport.writeUnsigned(output, offset + 10, memoCount, BYTE_ORDER, "OccurrenceCount");
+        offset += 14;
+        for (int i = 0; i < memoCount; i++) {
+            offset = writeMemo(memoValue.get(i), output, offset, memoPath + "[" + i + "]");
+        }
+        return offset;
+    }
+
+    private int readEntry(Entry target, byte[] data, int offset, ConversionResult<?> result,
+            TracePath path) {
+        target.setRef(CodecSupport.readText(data, offset, 8, CHARSET_IBM037, result, path, "/ref"));
+        target.setAmount(CodecSupport.readPacked(data, offset + 8, 5, 2, result, path, "/amount"));
+        offset += 13;
+        path.push("/Memo");
+        String memoGroupId = CodecSupport.readText(data, offset, 10, CHARSET_IBM037, result, path, "/groupid");
+        CodecSupport.checkGroupId("MEMO", memoGroupId, groupIdMode, result, path, offset, 4);
+        long memoCount = CodecSupport.readUnsigned(data, offset + 10, BYTE_ORDER, result, path, "/occurenceCount");
+        CodecSupport.checkOccurrences(memoCount, data.length - offset - 14, 12, path, offset, 4);
+        offset += 14;
+        List<Memo> memoValue = new ArrayList<>();
+        for (int i = 0; i < memoCount; i++) {
+            Memo entry = new Memo();
+            path.index(i);
+            offset = readMemo(entry, data, offset, result, path);
+            memoValue.add(entry);
+        }
+        path.pop();
+        target.setMemo(memoValue);
+        return offset;
+    }
+
+    private int writeMemo(Memo value, ByteBuffer output, int offset, String path) {
+        CodecSupport.writeText(output, offset, value.getText(), 12, CHARSET_IBM037);
+        offset += 12;
+        return offset;
+    }
+
+    private int readMemo(Memo target, byte[] data, int offset, ConversionResult<?> result,
+            TracePath path) {
+        target.setText(CodecSupport.readText(data, offset, 12, CHARSET_IBM037, result, path, "/text"));
+        offset += 12;
+        return offset;
+    }
+
+    private int writeTrailer(Trailer value, ByteBuffer output, int offset, String path) {
+        CodecSupport.writeText(output, offset, value.getStatus(), 3, CHARSET_IBM037);
+        offset += 3;
+        return offset;
+    }
+
+    private int readTrailer(Trailer target, byte[] data, int offset, ConversionResult<?> result,
+            TracePath path) {
+        target.setStatus(CodecSupport.readText(data, offset, 3, CHARSET_IBM037, result, path, "/status"));
+        offset += 3;
+        return offset;
+    }
+}
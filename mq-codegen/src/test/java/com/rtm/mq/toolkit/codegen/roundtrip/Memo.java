@@ -0,0 +1,24 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import java.lang.String;
+
+/**
+ * Auto-generated segment for Memo.
+ */
+public class Memo {
+    private String text;
+
+    /**
+     * Gets text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Sets text.
+     */
+    public void setText(String text) {
+        this.text = text;
+    }
+}
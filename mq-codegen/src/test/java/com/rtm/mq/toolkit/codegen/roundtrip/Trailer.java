@@ -0,0 +1,24 @@
+package com.rtm.mq.toolkit.codegen.roundtrip;
+
+import java.lang.String;
+
+/**
+ * Auto-generated segment for Trailer.
+ */
+public class Trailer {
+    private String status;
+
+    /**
+     * Gets status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets status.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
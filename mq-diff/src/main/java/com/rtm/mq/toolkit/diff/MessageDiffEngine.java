@@ -7,6 +7,7 @@ import com.rtm.mq.toolkit.ir.SchemaElement;
 import com.rtm.mq.toolkit.ir.SegmentNode;
 import com.rtm.mq.toolkit.runtime.ConversionResult;
 import com.rtm.mq.toolkit.runtime.FieldTrace;
+import com.rtm.mq.toolkit.runtime.GenericMessage;
 import com.rtm.mq.toolkit.runtime.MessageCodec;
 import com.rtm.mq.toolkit.runtime.MessageConverter;
 
@@ -38,10 +39,28 @@ public final class MessageDiffEngine {
 
         Map<String, Object> expectedTree = treeBuilder.build(schema.getRoot(), expectedResult.value());
         Map<String, Object> actualTree = treeBuilder.build(schema.getRoot(), actualResult.value());
+        return compare(schema, expectedTree, actualTree, expectedResult.traces(), actualResult.traces());
+    }
+
+    /**
+     * Diffs two messages using the schema alone, without POJO classes: both are decoded to
+     * {@link GenericMessage}s and compared through their map views.
+     */
+    public DiffReport diff(byte[] expected, byte[] actual, MessageSchema schema) {
+        ConversionResult<GenericMessage> expectedResult = converter.unmarshalGeneric(expected, schema);
+        ConversionResult<GenericMessage> actualResult = converter.unmarshalGeneric(actual, schema);
+        return compare(schema, expectedResult.value().asMap(), actualResult.value().asMap(),
+                expectedResult.traces(), actualResult.traces());
+    }
 
+    private DiffReport compare(MessageSchema schema,
+                               Map<String, Object> expectedTree,
+                               Map<String, Object> actualTree,
+                               List<FieldTrace> expectedTraces,
+                               List<FieldTrace> actualTraces) {
         DiffReport report = new DiffReport();
-        Map<String, FieldTrace> expectedTrace = traceIndex(expectedResult.traces());
-        Map<String, FieldTrace> actualTrace = traceIndex(actualResult.traces());
+        Map<String, FieldTrace> expectedTrace = traceIndex(expectedTraces);
+        Map<String, FieldTrace> actualTrace = traceIndex(actualTraces);
 
         compareSegment(schema.getRoot(), expectedTree, actualTree, "/" + schema.getRoot().getName(),
                 expectedTrace, actualTrace, report);
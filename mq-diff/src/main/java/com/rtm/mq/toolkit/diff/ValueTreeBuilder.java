@@ -4,9 +4,9 @@ import com.rtm.mq.toolkit.ir.FieldNode;
 import com.rtm.mq.toolkit.ir.NameUtils;
 import com.rtm.mq.toolkit.ir.SchemaElement;
 import com.rtm.mq.toolkit.ir.SegmentNode;
+import com.rtm.mq.toolkit.runtime.PropertyAccessor;
+import com.rtm.mq.toolkit.runtime.PropertyAccessors;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -50,28 +50,7 @@ public final class ValueTreeBuilder {
         if (target == null || fieldName == null) {
             return null;
         }
-        Method getter = findGetter(target.getClass(), fieldName);
-        if (getter != null) {
-            try {
-                return getter.invoke(target);
-            } catch (Exception ignored) {
-            }
-        }
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Exception ignored) {
-            return null;
-        }
-    }
-
-    private Method findGetter(Class<?> type, String fieldName) {
-        String methodName = "get" + NameUtils.toUpperCamel(fieldName);
-        try {
-            return type.getMethod(methodName);
-        } catch (NoSuchMethodException ex) {
-            return null;
-        }
+        PropertyAccessor accessor = PropertyAccessors.forClass(target.getClass()).find(fieldName);
+        return accessor != null ? accessor.get(target) : null;
     }
 }
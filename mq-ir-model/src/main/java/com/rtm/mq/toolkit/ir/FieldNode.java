@@ -14,12 +14,14 @@ public final class FieldNode implements SchemaElement {
     private String originalName;
     private String description;
     private Integer lengthBytes;
+    private Integer scale;
     private String datatype;
     private boolean required;
     private Boolean nullable;
     private String example;
     private String format;
     private String converter;
+    private String charset;
     private String defaultValue;
     private boolean protocol;
     private Map<String, String> extensions = new LinkedHashMap<>();
@@ -57,6 +59,17 @@ public final class FieldNode implements SchemaElement {
         this.lengthBytes = lengthBytes;
     }
 
+    /**
+     * Decimal places of packed/zoned decimal fields; null means 0.
+     */
+    public Integer getScale() {
+        return scale;
+    }
+
+    public void setScale(Integer scale) {
+        this.scale = scale;
+    }
+
     public String getDatatype() {
         return datatype;
     }
@@ -105,6 +118,14 @@ public final class FieldNode implements SchemaElement {
         this.converter = converter;
     }
 
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
     public String getDefaultValue() {
         return defaultValue;
     }
@@ -14,6 +14,7 @@ public class MessageSchema {
     private String operationId;
     private String version;
     private Direction direction;
+    private String charset;
     private SegmentNode root;
     private Map<String, String> sharedHeader = new LinkedHashMap<>();
 
@@ -49,6 +50,14 @@ public class MessageSchema {
         this.direction = direction;
     }
 
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
     public SegmentNode getRoot() {
         return root;
     }
@@ -12,6 +12,7 @@ public class ProtocolConfig {
     private int groupIdLength = 10;
     private int occurrenceLength = 4;
     private String byteOrder = "BIG_ENDIAN";
+    private String charset = "US-ASCII";
     private String groupIdConverter = "stringFieldConverter";
     private String occurrenceConverter = "counterFieldConverter";
 
@@ -55,6 +56,14 @@ public class ProtocolConfig {
         this.byteOrder = byteOrder;
     }
 
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
     public String getGroupIdConverter() {
         return groupIdConverter;
     }
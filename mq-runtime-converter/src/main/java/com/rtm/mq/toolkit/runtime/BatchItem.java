@@ -0,0 +1,15 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Outcome of one input of a batch call; exactly one of {@code value} and {@code error} is set.
+ *
+ * @param index position of the input in the batch
+ * @param value converted value, null on failure
+ * @param error failure raised for this input, null on success
+ * @param <T>   value type
+ */
+public record BatchItem<T>(int index, T value, RuntimeException error) {
+    public boolean succeeded() {
+        return error == null;
+    }
+}
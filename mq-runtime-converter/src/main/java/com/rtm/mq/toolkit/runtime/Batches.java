@@ -0,0 +1,69 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Runs a conversion over a batch on a fork/join pool. Inputs are split into contiguous ranges,
+ * a few per worker, and each range is converted sequentially into its slots of the result.
+ */
+final class Batches {
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private Batches() {
+    }
+
+    static <I, O> List<BatchItem<O>> run(List<I> inputs, Function<? super I, O> conversion, ForkJoinPool pool) {
+        Objects.requireNonNull(inputs, "inputs");
+        Objects.requireNonNull(pool, "pool");
+        @SuppressWarnings("unchecked")
+        BatchItem<O>[] items = new BatchItem[inputs.size()];
+        int threshold = Math.max(1, inputs.size() / (pool.getParallelism() * CHUNKS_PER_WORKER));
+        pool.invoke(new Range<>(inputs, conversion, items, 0, inputs.size(), threshold));
+        return Arrays.asList(items);
+    }
+
+    private static final class Range<I, O> extends RecursiveAction {
+        private final List<I> inputs;
+        private final Function<? super I, O> conversion;
+        private final BatchItem<O>[] items;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private Range(List<I> inputs,
+                      Function<? super I, O> conversion,
+                      BatchItem<O>[] items,
+                      int from,
+                      int to,
+                      int threshold) {
+            this.inputs = inputs;
+            this.conversion = conversion;
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Range<>(inputs, conversion, items, from, middle, threshold),
+                        new Range<>(inputs, conversion, items, middle, to, threshold));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                try {
+                    items[i] = new BatchItem<>(i, conversion.apply(inputs.get(i)), null);
+                } catch (RuntimeException ex) {
+                    items[i] = new BatchItem<>(i, null, ex);
+                }
+            }
+        }
+    }
+}
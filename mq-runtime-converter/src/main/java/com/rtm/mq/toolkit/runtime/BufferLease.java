@@ -0,0 +1,52 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer borrowed from a {@link BufferPool}; release it exactly once, after which the buffer
+ * must no longer be used.
+ */
+public final class BufferLease implements AutoCloseable {
+    private final BufferPool pool;
+    private final int sizeClass;
+    private ByteBuffer buffer;
+
+    BufferLease(BufferPool pool, int sizeClass, ByteBuffer buffer) {
+        this.pool = pool;
+        this.sizeClass = sizeClass;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns the leased buffer.
+     *
+     * @throws IllegalStateException if the lease was released
+     */
+    public ByteBuffer buffer() {
+        if (buffer == null) {
+            throw new IllegalStateException("Lease already released");
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to its pool.
+     *
+     * @throws IllegalStateException if the lease was already released
+     */
+    public void release() {
+        ByteBuffer released = buffer();
+        buffer = null;
+        pool.release(sizeClass, released);
+    }
+
+    /**
+     * Releases the lease unless it already was, so it can be used in try-with-resources.
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            release();
+        }
+    }
+}
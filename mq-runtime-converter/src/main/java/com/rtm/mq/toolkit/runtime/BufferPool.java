@@ -0,0 +1,149 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.rtm.mq.toolkit.ir.MessageSchema;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in pool of heap output buffers for high-rate senders. Buffers are grouped in power-of-two
+ * size classes and kept in stripes selected by thread id, so concurrent senders rarely contend;
+ * sizes above the largest class are allocated and dropped on release.
+ * <p>
+ * Thread-safe. Leased buffers are not zeroed.
+ */
+public final class BufferPool {
+    private static final int MIN_CLASS_SHIFT = 8;
+
+    private final int maxClassShift;
+    private final int maxPerClass;
+    private final Stripe[] stripes;
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder pooled = new LongAdder();
+
+    /**
+     * Creates a pool for buffers up to 1 MiB, keeping up to 64 per size class and stripe.
+     */
+    public BufferPool() {
+        this(1 << 20, 64);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxPooledSize largest buffer to pool, rounded up to a power of two
+     * @param maxPerClass   buffers kept per size class and stripe
+     */
+    public BufferPool(int maxPooledSize, int maxPerClass) {
+        if (maxPooledSize < 1 || maxPerClass < 0) {
+            throw new IllegalArgumentException("Invalid pool limits " + maxPooledSize + "/" + maxPerClass);
+        }
+        this.maxClassShift = Math.max(MIN_CLASS_SHIFT, shift(maxPooledSize));
+        this.maxPerClass = maxPerClass;
+        int stripeCount = 1;
+        while (stripeCount < Runtime.getRuntime().availableProcessors()) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxClassShift - MIN_CLASS_SHIFT + 1);
+        }
+    }
+
+    /**
+     * Leases a buffer with position 0 and limit {@code size}.
+     *
+     * @param size bytes needed
+     * @return lease to release after use
+     */
+    public BufferLease lease(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative size " + size);
+        }
+        leases.increment();
+        int shift = Math.max(MIN_CLASS_SHIFT, shift(size));
+        if (shift > maxClassShift) {
+            return new BufferLease(this, -1, ByteBuffer.allocate(size));
+        }
+        int sizeClass = shift - MIN_CLASS_SHIFT;
+        ByteBuffer buffer = stripe().poll(sizeClass);
+        if (buffer != null) {
+            hits.increment();
+            pooled.decrement();
+        } else {
+            buffer = ByteBuffer.allocate(1 << shift);
+        }
+        buffer.clear().limit(size);
+        return new BufferLease(this, sizeClass, buffer);
+    }
+
+    /**
+     * Marshals into a leased buffer sized from the codec's encoded size.
+     *
+     * @param codec  codec to marshal with
+     * @param pojo   root object
+     * @param schema schema definition
+     * @return lease whose buffer holds the message between position 0 and its limit
+     */
+    public BufferLease marshal(MessageCodec codec, Object pojo, MessageSchema schema) {
+        BufferLease lease = lease(codec.encodedSize(pojo, schema));
+        try {
+            codec.marshalTo(pojo, schema, lease.buffer());
+            lease.buffer().flip();
+            return lease;
+        } catch (RuntimeException ex) {
+            lease.release();
+            throw ex;
+        }
+    }
+
+    public BufferPoolStats stats() {
+        long leased = leases.sum();
+        return new BufferPoolStats(leased, hits.sum(), leased - releases.sum(), pooled.sum());
+    }
+
+    void release(int sizeClass, ByteBuffer buffer) {
+        releases.increment();
+        if (sizeClass >= 0 && stripe().offer(sizeClass, buffer, maxPerClass)) {
+            pooled.increment();
+        }
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+    }
+
+    private static int shift(int size) {
+        return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    /**
+     * Free lists per size class for one stripe.
+     */
+    private static final class Stripe {
+        private final ArrayDeque<ByteBuffer>[] free;
+
+        @SuppressWarnings("unchecked")
+        private Stripe(int classes) {
+            this.free = new ArrayDeque[classes];
+            for (int i = 0; i < classes; i++) {
+                free[i] = new ArrayDeque<>();
+            }
+        }
+
+        private synchronized ByteBuffer poll(int sizeClass) {
+            return free[sizeClass].pollLast();
+        }
+
+        private synchronized boolean offer(int sizeClass, ByteBuffer buffer, int max) {
+            if (free[sizeClass].size() >= max) {
+                return false;
+            }
+            free[sizeClass].addLast(buffer);
+            return true;
+        }
+    }
+}
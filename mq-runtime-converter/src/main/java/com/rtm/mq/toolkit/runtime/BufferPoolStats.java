@@ -0,0 +1,18 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Snapshot of {@link BufferPool} counters.
+ *
+ * @param leases      buffers leased so far
+ * @param hits        leases served from the pool rather than allocated
+ * @param outstanding leases not yet released
+ * @param pooled      buffers currently held for reuse
+ */
+public record BufferPoolStats(long leases, long hits, long outstanding, long pooled) {
+    /**
+     * Returns the share of leases served from the pool, 0 before the first lease.
+     */
+    public double hitRate() {
+        return leases == 0 ? 0.0 : (double) hits / leases;
+    }
+}
@@ -0,0 +1,186 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-byte character set for text fields, e.g. {@code IBM037} or {@code IBM1047} for z/OS payloads.
+ * Non-ASCII pages transcode through 256-entry tables built once per charset, so no
+ * {@link CharsetDecoder}/{@link CharsetEncoder} is created per field. Fields are padded with the
+ * page's own space byte.
+ */
+public final class CodePage {
+    public static final CodePage US_ASCII = new CodePage(StandardCharsets.US_ASCII);
+
+    private static final Map<String, CodePage> PAGES = new ConcurrentHashMap<>();
+
+    private final Charset charset;
+    private final char[] toChar;
+    private final byte[] toByte;
+    private final byte padByte;
+    private final byte replacement;
+    private final boolean latin1;
+
+    private CodePage(Charset charset) {
+        this.charset = charset;
+        this.toChar = null;
+        this.toByte = null;
+        this.padByte = (byte) ' ';
+        this.replacement = (byte) '?';
+        this.latin1 = true;
+    }
+
+    private CodePage(Charset charset, char[] toChar, byte[] toByte) {
+        this.charset = charset;
+        this.toChar = toChar;
+        this.toByte = toByte;
+        this.padByte = toByte[' '];
+        this.replacement = toByte['?'];
+        boolean narrow = true;
+        for (char c : toChar) {
+            narrow &= c <= 0xFF;
+        }
+        this.latin1 = narrow;
+    }
+
+    /**
+     * Resolves a code page by charset name or alias ({@code CP037}, {@code IBM1047}, ...).
+     *
+     * @param name charset name; null or blank means US-ASCII
+     * @return shared code page
+     * @throws IllegalArgumentException if the charset is unknown or not single-byte
+     */
+    public static CodePage forName(String name) {
+        if (name == null || name.isBlank()) {
+            return US_ASCII;
+        }
+        Charset charset = Charset.forName(name.trim());
+        if (charset.equals(StandardCharsets.US_ASCII)) {
+            return US_ASCII;
+        }
+        return PAGES.computeIfAbsent(charset.name(), key -> build(charset));
+    }
+
+    public String getName() {
+        return charset.name();
+    }
+
+    public boolean isAscii() {
+        return toChar == null;
+    }
+
+    public byte getPadByte() {
+        return padByte;
+    }
+
+    /**
+     * Returns the zone nibble of the page's digits: 0xF for EBCDIC, 0x3 for ASCII-based pages.
+     */
+    int getDigitZone() {
+        return ((toByte == null ? '0' : toByte['0']) & 0xF0) >>> 4;
+    }
+
+    /**
+     * Decodes a padded field; trailing pad bytes are dropped and blank fields decode to null.
+     */
+    String decode(byte[] data, int offset, int length) {
+        if (toChar == null) {
+            return CodecSupport.decodeText(data, offset, length);
+        }
+        int end = TextScanners.scanner().trimEnd(data, offset, offset + length, padByte);
+        int size = end - offset;
+        boolean blank = true;
+        if (latin1) {
+            byte[] text = new byte[size];
+            for (int i = 0; i < size; i++) {
+                char c = toChar[data[offset + i] & 0xFF];
+                blank &= c <= ' ';
+                text[i] = (byte) c;
+            }
+            return blank ? null : new String(text, StandardCharsets.ISO_8859_1);
+        }
+        char[] text = new char[size];
+        for (int i = 0; i < size; i++) {
+            char c = toChar[data[offset + i] & 0xFF];
+            blank &= c <= ' ';
+            text[i] = c;
+        }
+        return blank ? null : new String(text);
+    }
+
+    String decode(ByteBuffer buffer, int index, int length) {
+        if (toChar == null) {
+            return CodecSupport.decodeText(buffer, index, length);
+        }
+        if (buffer.hasArray()) {
+            return decode(buffer.array(), buffer.arrayOffset() + index, length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return decode(bytes, 0, length);
+    }
+
+    /**
+     * Writes a padded field at an absolute index; unmappable characters become the page's '?'.
+     */
+    void encode(ByteBuffer output, int offset, String value, int length) {
+        if (toByte == null) {
+            CodecSupport.writeText(output, offset, value, length);
+            return;
+        }
+        String text = value == null ? "" : value;
+        int size = text.length();
+        if (size > length) {
+            throw new IllegalArgumentException("Value too long for field length " + length);
+        }
+        for (int i = 0; i < size; i++) {
+            char c = text.charAt(i);
+            output.put(offset + i, c <= 0xFF ? toByte[c] : encodeWide(c));
+        }
+        CodecSupport.pad(output, offset + size, offset + length, padByte);
+    }
+
+    private byte encodeWide(char c) {
+        byte[] bytes = String.valueOf(c).getBytes(charset);
+        return bytes.length == 1 ? bytes[0] : replacement;
+    }
+
+    private static CodePage build(Charset charset) {
+        CharsetEncoder encoder = charset.newEncoder();
+        if (encoder.maxBytesPerChar() != 1.0f) {
+            throw new IllegalArgumentException("Charset is not single-byte: " + charset.name());
+        }
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        char[] toChar = new char[256];
+        byte[] toByte = new byte[256];
+        try {
+            for (int b = 0; b < 256; b++) {
+                CharBuffer decoded = decoder.reset().decode(ByteBuffer.wrap(new byte[] {(byte) b}));
+                toChar[b] = decoded.hasRemaining() ? decoded.get() : '\uFFFD';
+            }
+            byte unmappable = encoder.encode(CharBuffer.wrap("?")).get();
+            for (char c = 0; c < 256; c++) {
+                toByte[c] = encoder.canEncode(c) ? encoder.reset().encode(CharBuffer.wrap(new char[] {c})).get()
+                        : unmappable;
+            }
+        } catch (CharacterCodingException ex) {
+            throw new IllegalArgumentException("Unable to build tables for " + charset.name(), ex);
+        }
+        return new CodePage(charset, toChar, toByte);
+    }
+
+    @Override
+    public String toString() {
+        return charset.name();
+    }
+}
@@ -0,0 +1,228 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.rtm.mq.toolkit.ir.FieldNode;
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.ir.NameUtils;
+import com.rtm.mq.toolkit.ir.Occurrence;
+import com.rtm.mq.toolkit.ir.ProtocolConfig;
+import com.rtm.mq.toolkit.ir.SchemaElement;
+import com.rtm.mq.toolkit.ir.SegmentNode;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, thread-safe layout compiled once from a schema so marshal/unmarshal
+ * no longer interpret the schema tree per message.
+ */
+public final class CodecPlan {
+    private final String schemaId;
+    private final ByteOrder byteOrder;
+    private final CodePage codePage;
+    private final SegmentPlan root;
+    private final String rootPath;
+    private final String[] segmentPaths;
+
+    private CodecPlan(String schemaId, ByteOrder byteOrder, CodePage codePage, SegmentPlan root) {
+        this.schemaId = schemaId;
+        this.byteOrder = byteOrder;
+        this.codePage = codePage;
+        this.root = root;
+        this.rootPath = "/" + root.getName();
+        List<String> paths = new ArrayList<>();
+        collectPaths(root, rootPath, paths);
+        this.segmentPaths = paths.toArray(new String[0]);
+    }
+
+    /**
+     * Compiles a schema against the protocol configuration. Text is encoded in the field's
+     * charset, else the schema's, else the protocol configuration's.
+     *
+     * @param schema         schema definition
+     * @param protocolConfig protocol defaults for groupId/occurrence fields
+     * @return compiled plan
+     */
+    public static CodecPlan compile(MessageSchema schema, ProtocolConfig protocolConfig) {
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(schema.getRoot(), "schema.root");
+        ProtocolConfig config = protocolConfig != null ? protocolConfig : new ProtocolConfig();
+        CodePage codePage = CodePage.forName(schema.getCharset() != null ? schema.getCharset() : config.getCharset());
+        return new CodecPlan(schema.getSchemaId(), resolveByteOrder(config), codePage,
+                compileSegment(schema.getRoot(), config, codePage, new int[1]));
+    }
+
+    public String getSchemaId() {
+        return schemaId;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Returns the schema-wide text encoding, used for protocol headers and fields without their own charset.
+     *
+     * @return default code page
+     */
+    public CodePage getCodePage() {
+        return codePage;
+    }
+
+    public SegmentPlan getRoot() {
+        return root;
+    }
+
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    /**
+     * Returns the message size when it is the same for every message, as for schemas without
+     * repeating or optional segments.
+     *
+     * @return constant message size, or -1 when the size depends on the data
+     */
+    public int getFixedSize() {
+        return root.getFixedSize();
+    }
+
+    /**
+     * Returns the number of segments in the plan, the root included.
+     *
+     * @return one more than the highest segment id
+     */
+    public int getSegmentCount() {
+        return segmentPaths.length;
+    }
+
+    /**
+     * Returns the path of a segment, without occurrence indices.
+     *
+     * @param id segment id from {@link SegmentPlan#getId()}
+     * @return path such as {@code /Root/Txn}
+     */
+    public String segmentPath(int id) {
+        return segmentPaths[id];
+    }
+
+    private static void collectPaths(SegmentPlan segment, String path, List<String> paths) {
+        paths.add(path);
+        for (Instruction instruction : segment.instructions()) {
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                collectPaths(instruction.segment(), path + instruction.pathSegment(), paths);
+            }
+        }
+    }
+
+    private static SegmentPlan compileSegment(SegmentNode segment,
+                                              ProtocolConfig config,
+                                              CodePage codePage,
+                                              int[] nextId) {
+        int id = nextId[0]++;
+        List<Instruction> instructions = new ArrayList<>();
+        for (SchemaElement element : segment.getElements()) {
+            if (element instanceof FieldNode field) {
+                if (field.getLengthBytes() == null) {
+                    continue;
+                }
+                instructions.add(fieldInstruction(field, codePage));
+            } else if (element instanceof SegmentNode child) {
+                instructions.add(new Instruction(InstructionKind.SEGMENT, child.getName(),
+                        NameUtils.toLowerCamel(child.getName()), 0, 0, null, null, "/" + child.getName(),
+                        compileSegment(child, config, codePage, nextId)));
+            }
+        }
+        Occurrence occurrence = segment.getOccurrence() != null ? segment.getOccurrence() : new Occurrence(1, 1);
+        String groupIdValue = segment.getProtocol() != null ? segment.getProtocol().getGroupIdValue() : null;
+        return new SegmentPlan(id,
+                segment.getName(),
+                groupIdValue,
+                resolveGroupIdLength(segment, config),
+                resolveOccurrenceLength(segment, config),
+                occurrence.isRepeating(),
+                occurrence.getMinOccurs(),
+                "/" + config.getGroupIdFieldName(),
+                "/" + config.getOccurrenceFieldName(),
+                codePage,
+                instructions.toArray(new Instruction[0]));
+    }
+
+    /**
+     * Returns the wire encoding a field compiles to; the field must have a length.
+     *
+     * @param field schema field
+     * @return instruction kind, never {@link InstructionKind#SEGMENT}
+     */
+    public static InstructionKind fieldKind(FieldNode field) {
+        InstructionKind kind = decimalKind(field);
+        if (kind != null) {
+            return kind;
+        }
+        if (isBinaryUnsigned(field)) {
+            return field.getLengthBytes() == 4 ? InstructionKind.UNSIGNED_INT : InstructionKind.UNSIGNED_TEXT;
+        }
+        return InstructionKind.STRING;
+    }
+
+    private static Instruction fieldInstruction(FieldNode field, CodePage codePage) {
+        int length = field.getLengthBytes();
+        InstructionKind kind = fieldKind(field);
+        int scale = 0;
+        if (kind.isDecimal()) {
+            scale = field.getScale() != null ? field.getScale() : 0;
+            if (scale < 0 || scale > Decimals.digits(kind == InstructionKind.PACKED_DECIMAL, length)) {
+                throw new IllegalArgumentException("Invalid scale " + scale + " for field " + field.getName());
+            }
+        }
+        CodePage fieldCodePage = field.getCharset() != null ? CodePage.forName(field.getCharset()) : codePage;
+        return new Instruction(kind, field.getName(), field.getName(), length, scale,
+                field.getConverter(), fieldCodePage, "/" + field.getName(), null);
+    }
+
+    /**
+     * Detects packed/zoned decimal fields from the datatype or format, e.g. {@code Packed Decimal},
+     * {@code COMP-3} or {@code Zoned Decimal}.
+     */
+    private static InstructionKind decimalKind(FieldNode field) {
+        String text = ((field.getDatatype() != null ? field.getDatatype() : "") + " "
+                + (field.getFormat() != null ? field.getFormat() : "")).toLowerCase();
+        if (text.contains("packed") || text.contains("comp-3") || text.contains("comp3")) {
+            return InstructionKind.PACKED_DECIMAL;
+        }
+        if (text.contains("zoned")) {
+            return InstructionKind.ZONED_DECIMAL;
+        }
+        return null;
+    }
+
+    private static boolean isBinaryUnsigned(FieldNode field) {
+        String datatype = field.getDatatype() != null ? field.getDatatype().toLowerCase() : "";
+        return datatype.contains("unsigned") || datatype.contains("integer") || datatype.contains("long");
+    }
+
+    private static int resolveGroupIdLength(SegmentNode segment, ProtocolConfig config) {
+        if (segment.getProtocol() != null && segment.getProtocol().getGroupId() != null
+                && segment.getProtocol().getGroupId().getLengthBytes() != null) {
+            return segment.getProtocol().getGroupId().getLengthBytes();
+        }
+        return config.getGroupIdLength();
+    }
+
+    private static int resolveOccurrenceLength(SegmentNode segment, ProtocolConfig config) {
+        if (segment.getProtocol() != null && segment.getProtocol().getOccurrenceCount() != null
+                && segment.getProtocol().getOccurrenceCount().getLengthBytes() != null) {
+            return segment.getProtocol().getOccurrenceCount().getLengthBytes();
+        }
+        return config.getOccurrenceLength();
+    }
+
+    private static ByteOrder resolveByteOrder(ProtocolConfig config) {
+        String order = config.getByteOrder();
+        if (order != null && order.equalsIgnoreCase("LITTLE_ENDIAN")) {
+            return ByteOrder.LITTLE_ENDIAN;
+        }
+        return ByteOrder.BIG_ENDIAN;
+    }
+}
@@ -0,0 +1,542 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Offset-based wire helpers called by build-time generated codecs; behaviour matches {@link MessageConverter}.
+ */
+public final class CodecSupport {
+    /**
+     * Returned by the primitive decimal readers for blank or invalid fields; no field of up to
+     * 18 digits decodes to it.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final TextScanner SCANNER = TextScanners.scanner();
+    private static final byte SPACE = (byte) ' ';
+
+    private CodecSupport() {
+    }
+
+    public static String readText(byte[] data,
+                                  int offset,
+                                  int length,
+                                  ConversionResult<?> result,
+                                  TracePath path,
+                                  String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeText(data, offset, length);
+    }
+
+    /**
+     * Reads a text field encoded in {@code codePage}.
+     */
+    public static String readText(byte[] data,
+                                  int offset,
+                                  int length,
+                                  CodePage codePage,
+                                  ConversionResult<?> result,
+                                  TracePath path,
+                                  String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return codePage.decode(data, offset, length);
+    }
+
+    public static String readUnsignedText(byte[] data,
+                                          int offset,
+                                          int length,
+                                          ConversionResult<?> result,
+                                          TracePath path,
+                                          String leaf) {
+        return readUnsignedText(data, offset, length, CodePage.US_ASCII, result, path, leaf);
+    }
+
+    public static String readUnsignedText(byte[] data,
+                                          int offset,
+                                          int length,
+                                          CodePage codePage,
+                                          ConversionResult<?> result,
+                                          TracePath path,
+                                          String leaf) {
+        String value = readText(data, offset, length, codePage, result, path, leaf);
+        issue(result, path, leaf, "WARN", "Expected 4 bytes for unsigned integer");
+        return value;
+    }
+
+    public static long readUnsigned(byte[] data,
+                                    int offset,
+                                    ByteOrder byteOrder,
+                                    ConversionResult<?> result,
+                                    TracePath path,
+                                    String leaf) {
+        require(data, offset, 4);
+        trace(result, path, leaf, offset, 4);
+        int value = (data[offset] & 0xFF) << 24
+                | (data[offset + 1] & 0xFF) << 16
+                | (data[offset + 2] & 0xFF) << 8
+                | (data[offset + 3] & 0xFF);
+        if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+            value = Integer.reverseBytes(value);
+        }
+        return Integer.toUnsignedLong(value);
+    }
+
+    /**
+     * Reads a text occurrence count; blank values count as zero, and negative or unparsable ones
+     * as zero with a WARN (or -1 when failing fast, for {@link #checkOccurrences} to reject).
+     */
+    public static long readOccurrenceText(byte[] data,
+                                          int offset,
+                                          int length,
+                                          ConversionResult<?> result,
+                                          TracePath path,
+                                          String leaf) {
+        return parseOccurrence(readText(data, offset, length, result, path, leaf), result, path, leaf);
+    }
+
+    public static long readOccurrenceText(byte[] data,
+                                          int offset,
+                                          int length,
+                                          CodePage codePage,
+                                          ConversionResult<?> result,
+                                          TracePath path,
+                                          String leaf) {
+        return parseOccurrence(readText(data, offset, length, codePage, result, path, leaf), result, path, leaf);
+    }
+
+    /**
+     * Reads a packed decimal with the schema scale; blank fields read as null.
+     */
+    public static BigDecimal readPacked(byte[] data,
+                                        int offset,
+                                        int length,
+                                        int scale,
+                                        ConversionResult<?> result,
+                                        TracePath path,
+                                        String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeDecimal(data, offset, length, scale, true, result, path, leaf);
+    }
+
+    /**
+     * Reads a scale-0 packed decimal without going through {@link BigDecimal}.
+     */
+    public static Long readPackedLong(byte[] data,
+                                      int offset,
+                                      int length,
+                                      ConversionResult<?> result,
+                                      TracePath path,
+                                      String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeDecimalLong(data, offset, length, true, result, path, leaf);
+    }
+
+    /**
+     * Reads a scale-0 packed decimal into a primitive; blank or invalid fields return {@link #NO_VALUE}.
+     */
+    public static long readPackedLongValue(byte[] data,
+                                           int offset,
+                                           int length,
+                                           ConversionResult<?> result,
+                                           TracePath path,
+                                           String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeDecimalLongValue(data, offset, length, true, result, path, leaf);
+    }
+
+    public static BigDecimal readZoned(byte[] data,
+                                       int offset,
+                                       int length,
+                                       int scale,
+                                       ConversionResult<?> result,
+                                       TracePath path,
+                                       String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeDecimal(data, offset, length, scale, false, result, path, leaf);
+    }
+
+    public static Long readZonedLong(byte[] data,
+                                     int offset,
+                                     int length,
+                                     ConversionResult<?> result,
+                                     TracePath path,
+                                     String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeDecimalLong(data, offset, length, false, result, path, leaf);
+    }
+
+    /**
+     * Reads a scale-0 zoned decimal into a primitive; blank or invalid fields return {@link #NO_VALUE}.
+     */
+    public static long readZonedLongValue(byte[] data,
+                                          int offset,
+                                          int length,
+                                          ConversionResult<?> result,
+                                          TracePath path,
+                                          String leaf) {
+        require(data, offset, length);
+        trace(result, path, leaf, offset, length);
+        return decodeDecimalLongValue(data, offset, length, false, result, path, leaf);
+    }
+
+    /**
+     * Reports a decoded value the target property cannot hold; blank values leave it unset quietly.
+     */
+    public static void unassignable(Object value, String type, ConversionResult<?> result, TracePath path, String leaf) {
+        if (value != null) {
+            issue(result, path, leaf, "ERROR", "Cannot assign " + value.getClass().getSimpleName() + " to "
+                    + type + " property");
+        }
+    }
+
+    public static void checkGroupId(String expected,
+                                    String actual,
+                                    GroupIdMode groupIdMode,
+                                    ConversionResult<?> result,
+                                    TracePath path) {
+        if (expected != null && !expected.equals(actual)) {
+            String level = groupIdMode == GroupIdMode.STRICT ? "ERROR" : "WARN";
+            issue(result, path, null, level, "Expected groupId " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Checks a segment groupId; under fail-fast a {@link GroupIdMode#STRICT} mismatch throws instead
+     * of adding an issue.
+     *
+     * @param offset offset of the segment header
+     * @param pathId segment id
+     */
+    public static void checkGroupId(String expected,
+                                    String actual,
+                                    GroupIdMode groupIdMode,
+                                    ConversionResult<?> result,
+                                    TracePath path,
+                                    int offset,
+                                    int pathId) {
+        if (path.failsFast() && groupIdMode == GroupIdMode.STRICT && expected != null && !expected.equals(actual)) {
+            throw new MessageFormatException("Unexpected groupId", offset, pathId);
+        }
+        checkGroupId(expected, actual, groupIdMode, result, path);
+    }
+
+    /**
+     * Under fail-fast, rejects an unreadable occurrence count or one whose minimum size exceeds
+     * the bytes left after the header; otherwise does nothing.
+     *
+     * @param count     decoded count, negative when unreadable
+     * @param available bytes left after the header
+     * @param minSize   minimum size of one occurrence
+     * @param path      trace cursor carrying the fail-fast setting
+     * @param offset    offset of the segment header
+     * @param pathId    segment id
+     */
+    public static void checkOccurrences(long count, int available, int minSize, TracePath path, int offset, int pathId) {
+        if (!path.failsFast()) {
+            return;
+        }
+        if (count < 0) {
+            throw new MessageFormatException("Invalid occurrence count", offset, pathId);
+        }
+        if (count * minSize > available) {
+            throw new MessageFormatException("Occurrence count exceeds message length", offset, pathId);
+        }
+    }
+
+    public static void checkSingleOccurrence(long count, ConversionResult<?> result, TracePath path) {
+        singleOccurrence(count, 1, result, path);
+    }
+
+    /**
+     * Returns how many bodies follow the header of a non-repeating segment: none when the count is
+     * 0 and the segment is absent, otherwise one. A count above 1, or 0 for a required segment, is
+     * reported; an unreadable negative count is returned unchanged.
+     */
+    public static long singleOccurrence(long count, int minOccurs, ConversionResult<?> result, TracePath path) {
+        if (count > 1 || count == 0 && minOccurs > 0) {
+            issue(result, path, null, "WARN", "Expected occurenceCount 1 but found " + count);
+        }
+        return Math.min(count, 1);
+    }
+
+    /**
+     * Returns the occurrence count written for a segment value, rejecting missing required segments.
+     */
+    public static int count(Object value, boolean repeating, int minOccurs, String path) {
+        if (repeating) {
+            if (value == null) {
+                if (minOccurs > 0) {
+                    throw new IllegalArgumentException("Missing required list segment at " + path);
+                }
+                return 0;
+            }
+            if (!(value instanceof List<?> list)) {
+                throw new IllegalArgumentException("Expected list for repeating segment at " + path);
+            }
+            return list.size();
+        }
+        if (value == null) {
+            if (minOccurs > 0) {
+                throw new IllegalArgumentException("Missing required segment at " + path);
+            }
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Writes a space-padded ASCII field at an absolute index; the buffer position is not changed.
+     */
+    public static void writeText(ByteBuffer output, int offset, String value, int length) {
+        String text = value == null ? "" : value;
+        int size = text.length();
+        for (int i = 0; i < size; i++) {
+            if (text.charAt(i) >= 0x80) {
+                writeBytes(output, offset, text.getBytes(StandardCharsets.US_ASCII), length);
+                return;
+            }
+        }
+        if (size > length) {
+            throw new IllegalArgumentException("Value too long for field length " + length);
+        }
+        for (int i = 0; i < size; i++) {
+            output.put(offset + i, (byte) text.charAt(i));
+        }
+        pad(output, offset + size, offset + length, SPACE);
+    }
+
+    public static void writeText(ByteBuffer output, int offset, Object value, int length) {
+        writeText(output, offset, value == null ? null : String.valueOf(value), length);
+    }
+
+    /**
+     * Writes a field padded with the code page's space at an absolute index.
+     */
+    public static void writeText(ByteBuffer output, int offset, String value, int length, CodePage codePage) {
+        codePage.encode(output, offset, value, length);
+    }
+
+    public static void writeText(ByteBuffer output, int offset, Object value, int length, CodePage codePage) {
+        codePage.encode(output, offset, value == null ? null : String.valueOf(value), length);
+    }
+
+    /**
+     * Writes an unsigned 32-bit integer at an absolute index in the given byte order,
+     * independent of the buffer's own order; the buffer position is not changed.
+     */
+    public static void writeUnsigned(ByteBuffer output, int offset, long value, ByteOrder byteOrder, String name) {
+        if (value < 0 || value > 0xFFFF_FFFFL) {
+            throw new IllegalArgumentException("Unsigned int out of range for " + name);
+        }
+        int number = (int) value;
+        output.putInt(offset, output.order() == byteOrder ? number : Integer.reverseBytes(number));
+    }
+
+    public static void writeUnsigned(ByteBuffer output, int offset, Object value, ByteOrder byteOrder, String name) {
+        writeUnsigned(output, offset, value == null ? 0L : ((Number) value).longValue(), byteOrder, name);
+    }
+
+    /**
+     * Writes a packed decimal at an absolute index; null writes zero.
+     */
+    public static void writePacked(ByteBuffer output, int offset, Object value, int length, int scale, String name) {
+        Decimals.encode(output, offset, length, value, scale, true, CodePage.US_ASCII, name);
+    }
+
+    public static void writePacked(ByteBuffer output, int offset, long value, int length, int scale, String name) {
+        Decimals.encode(output, offset, length, value, scale, true, CodePage.US_ASCII, name);
+    }
+
+    /**
+     * Writes a zoned decimal using the code page's digit zone at an absolute index; null writes zero.
+     */
+    public static void writeZoned(ByteBuffer output,
+                                  int offset,
+                                  Object value,
+                                  int length,
+                                  int scale,
+                                  CodePage codePage,
+                                  String name) {
+        Decimals.encode(output, offset, length, value, scale, false, codePage, name);
+    }
+
+    public static void writeZoned(ByteBuffer output,
+                                  int offset,
+                                  long value,
+                                  int length,
+                                  int scale,
+                                  CodePage codePage,
+                                  String name) {
+        Decimals.encode(output, offset, length, value, scale, false, codePage, name);
+    }
+
+    /**
+     * Rejects a write of {@code size} bytes before anything is written.
+     */
+    public static void requireRemaining(ByteBuffer output, int size) {
+        if (output.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    private static void writeBytes(ByteBuffer output, int offset, byte[] bytes, int length) {
+        if (bytes.length > length) {
+            throw new IllegalArgumentException("Value too long for field length " + length);
+        }
+        output.put(offset, bytes);
+        pad(output, offset + bytes.length, offset + length, SPACE);
+    }
+
+    static void pad(ByteBuffer output, int from, int to, byte pad) {
+        if (output.hasArray()) {
+            SCANNER.fill(output.array(), output.arrayOffset() + from, output.arrayOffset() + to, pad);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            output.put(i, pad);
+        }
+    }
+
+    /**
+     * Decodes a space-padded field in place: trailing padding is skipped in the source and at
+     * most one compact Latin-1 string is built for the remaining range. Blank fields decode to null.
+     */
+    static String decodeText(byte[] data, int offset, int length) {
+        int end = SCANNER.trimEnd(data, offset, offset + length, SPACE);
+        int start = offset;
+        while (start < end && (data[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        if (start == end) {
+            return null;
+        }
+        return decode(data, offset, end - offset);
+    }
+
+    static String decodeText(ByteBuffer buffer, int index, int length) {
+        if (buffer.hasArray()) {
+            return decodeText(buffer.array(), buffer.arrayOffset() + index, length);
+        }
+        int end = index + length;
+        while (end > index && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        int start = index;
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        if (start == end) {
+            return null;
+        }
+        byte[] bytes = new byte[end - index];
+        buffer.get(index, bytes);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    private static String decode(byte[] data, int offset, int length) {
+        if (!SCANNER.isAscii(data, offset, offset + length)) {
+            return new String(data, offset, length, StandardCharsets.US_ASCII);
+        }
+        return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+    static BigDecimal decodeDecimal(byte[] data,
+                                    int offset,
+                                    int length,
+                                    int scale,
+                                    boolean packed,
+                                    ConversionResult<?> result,
+                                    TracePath path,
+                                    String leaf) {
+        try {
+            return Decimals.decode(data, offset, length, scale, packed);
+        } catch (NumberFormatException ex) {
+            issue(result, path, leaf, "ERROR", (packed ? "Invalid packed decimal: " : "Invalid zoned decimal: ")
+                    + ex.getMessage());
+            return null;
+        }
+    }
+
+    static Long decodeDecimalLong(byte[] data,
+                                  int offset,
+                                  int length,
+                                  boolean packed,
+                                  ConversionResult<?> result,
+                                  TracePath path,
+                                  String leaf) {
+        long value = decodeDecimalLongValue(data, offset, length, packed, result, path, leaf);
+        return value == NO_VALUE ? null : value;
+    }
+
+    static long decodeDecimalLongValue(byte[] data,
+                                       int offset,
+                                       int length,
+                                       boolean packed,
+                                       ConversionResult<?> result,
+                                       TracePath path,
+                                       String leaf) {
+        if (Decimals.isBlank(data, offset, length)) {
+            return NO_VALUE;
+        }
+        try {
+            return Decimals.decodeLongValue(data, offset, length, packed);
+        } catch (NumberFormatException ex) {
+            issue(result, path, leaf, "ERROR", (packed ? "Invalid packed decimal: " : "Invalid zoned decimal: ")
+                    + ex.getMessage());
+        } catch (ArithmeticException ex) {
+            issue(result, path, leaf, "ERROR", "Decimal value out of long range");
+        }
+        return NO_VALUE;
+    }
+
+    static long parseOccurrence(String text, ConversionResult<?> result, TracePath path, String leaf) {
+        if (text == null || text.isBlank()) {
+            return 0L;
+        }
+        long count;
+        try {
+            count = Long.parseLong(text.trim());
+        } catch (NumberFormatException ex) {
+            count = -1L;
+        }
+        if (count >= 0) {
+            return count;
+        }
+        if (path.failsFast()) {
+            return -1L;
+        }
+        issue(result, path, leaf, "WARN", "Invalid occurrence value: " + text);
+        return 0L;
+    }
+
+    static void trace(ConversionResult<?> result, TracePath path, String leaf, int offset, int length) {
+        if (path.tracesFields()) {
+            result.addTrace(new FieldTrace(path.resolve(leaf), offset, length));
+        }
+    }
+
+    static void issue(ConversionResult<?> result, TracePath path, String leaf, String level, String message) {
+        if (path.recordsIssues()) {
+            result.addIssue(new ConversionIssue(level, path.resolve(leaf), message));
+        }
+    }
+
+    private static void require(byte[] data, int offset, int length) {
+        if (offset + length > data.length) {
+            throw new BufferUnderflowException();
+        }
+    }
+}
@@ -5,6 +5,8 @@ package com.rtm.mq.toolkit.runtime;
  */
 public class ConversionOptions {
     private GroupIdMode groupIdMode = GroupIdMode.STRICT;
+    private TraceLevel traceLevel = TraceLevel.FULL;
+    private boolean failFast;
     private com.rtm.mq.toolkit.ir.ProtocolConfig protocolConfig = new com.rtm.mq.toolkit.ir.ProtocolConfig();
 
     public GroupIdMode getGroupIdMode() {
@@ -15,6 +17,28 @@ public class ConversionOptions {
         this.groupIdMode = groupIdMode;
     }
 
+    public TraceLevel getTraceLevel() {
+        return traceLevel;
+    }
+
+    public void setTraceLevel(TraceLevel traceLevel) {
+        this.traceLevel = traceLevel;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Makes unmarshal throw {@link MessageFormatException} at the first structural error: a groupId
+     * mismatch under {@link GroupIdMode#STRICT}, an unreadable occurrence count, or a count larger
+     * than the remaining bytes can hold. Off by default, when such errors become issues and
+     * decoding continues.
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
     public com.rtm.mq.toolkit.ir.ProtocolConfig getProtocolConfig() {
         return protocolConfig;
     }
@@ -2,17 +2,88 @@ package com.rtm.mq.toolkit.runtime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * Conversion result with tracing metadata.
+ * Conversion result with tracing metadata. Trace and issue lists are only allocated when
+ * something is recorded or an accessor is first called; the accessors always return the
+ * result's own mutable list.
  *
- * @param value parsed object
- * @param traces field traces
- * @param issues validation issues
  * @param <T> value type
  */
-public record ConversionResult<T>(T value, List<FieldTrace> traces, List<ConversionIssue> issues) {
+public final class ConversionResult<T> {
+    private final T value;
+    private List<FieldTrace> traces;
+    private List<ConversionIssue> issues;
+
     public ConversionResult(T value) {
-        this(value, new ArrayList<>(), new ArrayList<>());
+        this.value = value;
+    }
+
+    public ConversionResult(T value, List<FieldTrace> traces, List<ConversionIssue> issues) {
+        this.value = value;
+        this.traces = traces;
+        this.issues = issues;
+    }
+
+    public T value() {
+        return value;
+    }
+
+    /**
+     * Returns a result for another value that shares this one's traces and issues, such as an
+     * immutable root created from its decoded constructor arguments.
+     */
+    @SuppressWarnings("unchecked")
+    <U> ConversionResult<U> withValue(U value) {
+        return value == this.value ? (ConversionResult<U>) this : new ConversionResult<>(value, traces, issues);
+    }
+
+    public List<FieldTrace> traces() {
+        if (traces == null) {
+            traces = new ArrayList<>();
+        }
+        return traces;
+    }
+
+    public List<ConversionIssue> issues() {
+        if (issues == null) {
+            issues = new ArrayList<>();
+        }
+        return issues;
+    }
+
+    public void addTrace(FieldTrace trace) {
+        traces().add(trace);
+    }
+
+    public void addIssue(ConversionIssue issue) {
+        issues().add(issue);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ConversionResult<?> that)) {
+            return false;
+        }
+        return Objects.equals(value, that.value) && orEmpty(traces).equals(orEmpty(that.traces))
+                && orEmpty(issues).equals(orEmpty(that.issues));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value, orEmpty(traces), orEmpty(issues));
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionResult[value=" + value + ", traces=" + orEmpty(traces) + ", issues=" + orEmpty(issues) + "]";
+    }
+
+    private static <E> List<E> orEmpty(List<E> list) {
+        return list != null ? list : List.of();
     }
 }
@@ -0,0 +1,332 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * Packed (COMP-3) and zoned decimal encoding. Values of up to 18 digits are accumulated in a
+ * {@code long}; only wider fields go through {@link BigInteger}.
+ * <p>
+ * Packed fields hold two digits per byte with the sign in the last nibble (C/A/E/F positive,
+ * D/B negative). Zoned fields hold one digit per byte in the low nibble; the last byte's zone
+ * carries the sign (D or B for EBCDIC, 7 for ASCII). Fields made only of spaces or low-values
+ * are blank.
+ */
+final class Decimals {
+    static final int MAX_LONG_DIGITS = 18;
+
+    private static final long[] POW10 = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POW10[0] = 1L;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private Decimals() {
+    }
+
+    /**
+     * Returns the number of digits a field can hold.
+     */
+    static int digits(boolean packed, int length) {
+        return packed ? length * 2 - 1 : length;
+    }
+
+    static boolean isBlank(byte[] data, int offset, int length) {
+        byte first = data[offset];
+        if (first != 0x00 && first != 0x20 && first != 0x40) {
+            return false;
+        }
+        for (int i = offset + 1; i < offset + length; i++) {
+            if (data[i] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a field to a decimal with the schema scale; blank fields decode to null.
+     *
+     * @throws NumberFormatException if a digit or sign nibble is invalid
+     */
+    static BigDecimal decode(byte[] data, int offset, int length, int scale, boolean packed) {
+        if (isBlank(data, offset, length)) {
+            return null;
+        }
+        if (digits(packed, length) <= MAX_LONG_DIGITS) {
+            return BigDecimal.valueOf(decodeLong(data, offset, length, packed), scale);
+        }
+        return new BigDecimal(decodeBig(data, offset, length, packed), scale);
+    }
+
+    /**
+     * Decodes the unscaled value of a non-blank field as a {@code long}.
+     *
+     * @throws NumberFormatException if a digit or sign nibble is invalid
+     * @throws ArithmeticException   if the value is outside the long range or is {@code Long.MIN_VALUE},
+     *                               which marks an absent value in the primitive read path
+     */
+    static long decodeLongValue(byte[] data, int offset, int length, boolean packed) {
+        if (digits(packed, length) <= MAX_LONG_DIGITS) {
+            return decodeLong(data, offset, length, packed);
+        }
+        long value = decodeBig(data, offset, length, packed).longValueExact();
+        if (value == Long.MIN_VALUE) {
+            throw new ArithmeticException("Decimal value out of long range");
+        }
+        return value;
+    }
+
+    private static long decodeLong(byte[] data, int offset, int length, boolean packed) {
+        int last = offset + length - 1;
+        long value = 0;
+        boolean negative;
+        if (packed) {
+            for (int i = offset; i < last; i++) {
+                int b = data[i] & 0xFF;
+                value = value * 100 + digit(b >>> 4) * 10 + digit(b & 0x0F);
+            }
+            int b = data[last] & 0xFF;
+            value = value * 10 + digit(b >>> 4);
+            negative = packedNegative(b & 0x0F);
+        } else {
+            for (int i = offset; i < last; i++) {
+                value = value * 10 + zonedDigit(data[i]);
+            }
+            value = value * 10 + digit(data[last] & 0x0F);
+            negative = zonedNegative(data[last]);
+        }
+        return negative ? -value : value;
+    }
+
+    private static BigInteger decodeBig(byte[] data, int offset, int length, boolean packed) {
+        int last = offset + length - 1;
+        StringBuilder digits = new StringBuilder(digits(packed, length) + 1);
+        boolean negative;
+        if (packed) {
+            for (int i = offset; i < last; i++) {
+                int b = data[i] & 0xFF;
+                digits.append((char) ('0' + digit(b >>> 4))).append((char) ('0' + digit(b & 0x0F)));
+            }
+            int b = data[last] & 0xFF;
+            digits.append((char) ('0' + digit(b >>> 4)));
+            negative = packedNegative(b & 0x0F);
+        } else {
+            for (int i = offset; i < last; i++) {
+                digits.append((char) ('0' + zonedDigit(data[i])));
+            }
+            digits.append((char) ('0' + digit(data[last] & 0x0F)));
+            negative = zonedNegative(data[last]);
+        }
+        BigInteger value = new BigInteger(digits.toString());
+        return negative ? value.negate() : value;
+    }
+
+    /**
+     * Encodes a value at an absolute index; null encodes as zero.
+     *
+     * @throws IllegalArgumentException if the value is not numeric, has more decimal places than
+     *                                  the scale or does not fit the field
+     */
+    static void encode(ByteBuffer output,
+                       int offset,
+                       int length,
+                       Object value,
+                       int scale,
+                       boolean packed,
+                       CodePage codePage,
+                       String name) {
+        if (value == null) {
+            encodeLong(output, offset, length, 0L, packed, codePage, name);
+            return;
+        }
+        if (isIntegral(value)) {
+            encode(output, offset, length, ((Number) value).longValue(), scale, packed, codePage, name);
+            return;
+        }
+        encodeDecimal(output, offset, length, value, scale, packed, codePage, name);
+    }
+
+    /**
+     * Encodes an integral value at an absolute index without boxing it.
+     *
+     * @throws IllegalArgumentException if the value does not fit the field
+     */
+    static void encode(ByteBuffer output,
+                       int offset,
+                       int length,
+                       long value,
+                       int scale,
+                       boolean packed,
+                       CodePage codePage,
+                       String name) {
+        if (scale <= MAX_LONG_DIGITS) {
+            long bound = Long.MAX_VALUE / POW10[scale];
+            if (value >= -bound && value <= bound) {
+                encodeLong(output, offset, length, value * POW10[scale], packed, codePage, name);
+                return;
+            }
+        }
+        encodeDecimal(output, offset, length, BigDecimal.valueOf(value), scale, packed, codePage, name);
+    }
+
+    private static void encodeDecimal(ByteBuffer output,
+                                      int offset,
+                                      int length,
+                                      Object value,
+                                      int scale,
+                                      boolean packed,
+                                      CodePage codePage,
+                                      String name) {
+        BigInteger unscaled;
+        try {
+            unscaled = toBigDecimal(value, name).setScale(scale, RoundingMode.UNNECESSARY).unscaledValue();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Value has more than " + scale + " decimal places for " + name);
+        }
+        if (unscaled.bitLength() < Long.SIZE - 1) {
+            encodeLong(output, offset, length, unscaled.longValue(), packed, codePage, name);
+        } else {
+            encodeBig(output, offset, length, unscaled, packed, codePage, name);
+        }
+    }
+
+    private static void encodeLong(ByteBuffer output,
+                                   int offset,
+                                   int length,
+                                   long unscaled,
+                                   boolean packed,
+                                   CodePage codePage,
+                                   String name) {
+        int digits = digits(packed, length);
+        long value = Math.abs(unscaled);
+        if (unscaled == Long.MIN_VALUE || digits <= MAX_LONG_DIGITS && value >= POW10[digits]) {
+            throw new IllegalArgumentException("Value too large for " + digits + " digits in " + name);
+        }
+        boolean negative = unscaled < 0;
+        int last = offset + length - 1;
+        if (packed) {
+            output.put(last, (byte) ((value % 10) << 4 | (negative ? 0x0D : 0x0C)));
+            value /= 10;
+            for (int i = last - 1; i >= offset; i--) {
+                int low = (int) (value % 10);
+                value /= 10;
+                output.put(i, (byte) ((value % 10) << 4 | low));
+                value /= 10;
+            }
+            return;
+        }
+        int zone = codePage.getDigitZone() << 4;
+        for (int i = last; i >= offset; i--) {
+            output.put(i, (byte) (zone | (int) (value % 10)));
+            value /= 10;
+        }
+        if (negative) {
+            output.put(last, (byte) (negativeZone(codePage) << 4 | (output.get(last) & 0x0F)));
+        }
+    }
+
+    private static void encodeBig(ByteBuffer output,
+                                  int offset,
+                                  int length,
+                                  BigInteger unscaled,
+                                  boolean packed,
+                                  CodePage codePage,
+                                  String name) {
+        int digits = digits(packed, length);
+        String text = unscaled.abs().toString();
+        if (text.length() > digits) {
+            throw new IllegalArgumentException("Value too large for " + digits + " digits in " + name);
+        }
+        boolean negative = unscaled.signum() < 0;
+        int lead = digits - text.length();
+        int last = offset + length - 1;
+        if (packed) {
+            for (int i = offset; i <= last; i++) {
+                int index = (i - offset) * 2;
+                int high = digitAt(text, index - lead);
+                int low = i == last ? (negative ? 0x0D : 0x0C) : digitAt(text, index + 1 - lead);
+                output.put(i, (byte) (high << 4 | low));
+            }
+            return;
+        }
+        int zone = codePage.getDigitZone() << 4;
+        for (int i = offset; i <= last; i++) {
+            output.put(i, (byte) (zone | digitAt(text, i - offset - lead)));
+        }
+        if (negative) {
+            output.put(last, (byte) (negativeZone(codePage) << 4 | (output.get(last) & 0x0F)));
+        }
+    }
+
+    private static int digitAt(String text, int index) {
+        return index < 0 ? 0 : text.charAt(index) - '0';
+    }
+
+    private static BigDecimal toBigDecimal(Object value, String name) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (isIntegral(value)) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        }
+        try {
+            return new BigDecimal(String.valueOf(value).trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid decimal value for " + name + ": " + value);
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static int digit(int nibble) {
+        if (nibble > 9) {
+            throw new NumberFormatException("Invalid digit nibble " + nibble);
+        }
+        return nibble;
+    }
+
+    private static int zonedDigit(byte b) {
+        if (b == 0x20 || b == 0x40) {
+            return 0;
+        }
+        int zone = (b & 0xF0) >>> 4;
+        if (zone != 0x3 && zone != 0xF) {
+            throw new NumberFormatException("Invalid zoned digit " + (b & 0xFF));
+        }
+        return digit(b & 0x0F);
+    }
+
+    private static boolean packedNegative(int sign) {
+        if (sign < 0x0A) {
+            throw new NumberFormatException("Invalid packed sign " + sign);
+        }
+        return sign == 0x0B || sign == 0x0D;
+    }
+
+    private static boolean zonedNegative(byte last) {
+        int zone = (last & 0xF0) >>> 4;
+        return switch (zone) {
+            case 0x3, 0xA, 0xC, 0xE, 0xF -> false;
+            case 0x7, 0xB, 0xD -> true;
+            default -> throw new NumberFormatException("Invalid zoned sign " + zone);
+        };
+    }
+
+    private static int negativeZone(CodePage codePage) {
+        return codePage.getDigitZone() == 0xF ? 0xD : 0x7;
+    }
+}
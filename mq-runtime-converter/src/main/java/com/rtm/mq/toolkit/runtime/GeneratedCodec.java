@@ -0,0 +1,253 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.rtm.mq.toolkit.ir.MessageSchema;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for codecs emitted by {@link GeneratedCodecFactory} for one (schema, root class) pair.
+ * Subclasses contain straight-line field reads/writes and direct getter/setter calls; this class
+ * only holds the shared wire helpers they invoke.
+ */
+public abstract class GeneratedCodec implements MessageCodec {
+    protected final CodecPlan plan;
+    protected final ConversionOptions options;
+    private final SchemaBinding binding;
+    private final Class<?> rootType;
+    private final SegmentPlan[] segments;
+    private final CodePage[] codePages;
+    private final GenericDecoder genericDecoder;
+
+    protected GeneratedCodec(SchemaBinding binding, ConversionOptions options) {
+        this.plan = binding.getPlan();
+        this.options = options;
+        this.binding = binding;
+        this.rootType = binding.getRootType();
+        this.segments = segments(plan).toArray(new SegmentPlan[0]);
+        this.codePages = codePages(plan).toArray(new CodePage[0]);
+        this.genericDecoder = new GenericDecoder(plan, options);
+    }
+
+    public Class<?> getRootType() {
+        return rootType;
+    }
+
+    public CodecPlan getPlan() {
+        return plan;
+    }
+
+    public SchemaBinding getBinding() {
+        return binding;
+    }
+
+    @Override
+    public final byte[] marshal(Object pojo, MessageSchema schema) {
+        byte[] output = new byte[encodedSize(pojo, schema)];
+        writeRoot(pojo, ByteBuffer.wrap(output));
+        return output;
+    }
+
+    @Override
+    public final int encodedSize(Object pojo, MessageSchema schema) {
+        requireRoot(pojo);
+        int fixedSize = plan.getFixedSize();
+        return fixedSize >= 0 ? fixedSize : MessageConverter.sizeOf(binding.root(), pojo);
+    }
+
+    @Override
+    public final int marshalTo(Object pojo, MessageSchema schema, ByteBuffer buffer) {
+        int size = encodedSize(pojo, schema);
+        CodecSupport.requireRemaining(buffer, size);
+        writeRoot(pojo, buffer);
+        return size;
+    }
+
+    @Override
+    public final <T> ConversionResult<T> unmarshal(byte[] bytes, MessageSchema schema, Class<T> type) {
+        Objects.requireNonNull(bytes, "bytes");
+        return read(ByteBuffer.wrap(bytes), type);
+    }
+
+    @Override
+    public final <T> ConversionResult<T> unmarshal(ByteBuffer buffer, MessageSchema schema, Class<T> type) {
+        Objects.requireNonNull(buffer, "buffer");
+        ByteBuffer input = buffer.slice();
+        ConversionResult<T> result = read(input, type);
+        buffer.position(buffer.position() + input.position());
+        return result;
+    }
+
+    @Override
+    public final ConversionResult<GenericMessage> unmarshalGeneric(byte[] bytes, MessageSchema schema) {
+        Objects.requireNonNull(bytes, "bytes");
+        return genericDecoder.decode(bytes);
+    }
+
+    private <T> ConversionResult<T> read(ByteBuffer input, Class<T> type) {
+        Objects.requireNonNull(type, "type");
+        if (!type.isAssignableFrom(rootType)) {
+            throw new IllegalArgumentException("Codec for " + rootType.getName() + " cannot produce " + type.getName());
+        }
+        Object root = newRoot();
+        ConversionResult<T> result = new ConversionResult<>(type.cast(root));
+        input.order(plan.getByteOrder());
+        readRoot(root, input, result, TracePath.start(options, plan.getRootPath()));
+        return result;
+    }
+
+    protected abstract Object newRoot();
+
+    protected abstract void readRoot(Object root, ByteBuffer buffer, ConversionResult<?> result, TracePath path);
+
+    protected abstract void writeRoot(Object root, ByteBuffer output);
+
+    protected final long readHeader(int segmentIndex, ByteBuffer buffer, ConversionResult<?> result, TracePath path) {
+        return WireFormat.readHeader(segments[segmentIndex], buffer, result, path, options.getGroupIdMode());
+    }
+
+    protected final String readText(ByteBuffer buffer,
+                                    int length,
+                                    int codePageIndex,
+                                    ConversionResult<?> result,
+                                    TracePath path,
+                                    String leaf) {
+        return WireFormat.readText(buffer, length, codePages[codePageIndex], result, path, leaf);
+    }
+
+    protected final String readUnsignedText(ByteBuffer buffer,
+                                            int length,
+                                            int codePageIndex,
+                                            ConversionResult<?> result,
+                                            TracePath path,
+                                            String leaf) {
+        return WireFormat.readUnsignedText(buffer, length, codePages[codePageIndex], result, path, leaf);
+    }
+
+    protected final long readUnsigned(ByteBuffer buffer, ConversionResult<?> result, TracePath path, String leaf) {
+        return WireFormat.readUnsigned(buffer, result, path, leaf);
+    }
+
+    protected final BigDecimal readDecimal(ByteBuffer buffer,
+                                           int length,
+                                           int scale,
+                                           boolean packed,
+                                           ConversionResult<?> result,
+                                           TracePath path,
+                                           String leaf) {
+        return WireFormat.readDecimal(buffer, length, scale, packed, result, path, leaf);
+    }
+
+    protected final Long readDecimalLong(ByteBuffer buffer,
+                                         int length,
+                                         boolean packed,
+                                         ConversionResult<?> result,
+                                         TracePath path,
+                                         String leaf) {
+        return WireFormat.readDecimalLong(buffer, length, packed, result, path, leaf);
+    }
+
+    protected final long readDecimalLongValue(ByteBuffer buffer,
+                                              int length,
+                                              boolean packed,
+                                              ConversionResult<?> result,
+                                              TracePath path,
+                                              String leaf) {
+        return WireFormat.readDecimalLongValue(buffer, length, packed, result, path, leaf);
+    }
+
+    protected final void writeHeader(int segmentIndex, Object value, ByteBuffer output, String path) {
+        WireFormat.writeHeader(segments[segmentIndex], value, plan.getByteOrder(), output, path);
+    }
+
+    protected final void writeText(Object value, int length, int codePageIndex, ByteBuffer output) {
+        WireFormat.writeText(value == null ? null : String.valueOf(value), length, codePages[codePageIndex], output);
+    }
+
+    protected final void writeDecimal(Object value,
+                                      int length,
+                                      int scale,
+                                      boolean packed,
+                                      int codePageIndex,
+                                      String name,
+                                      ByteBuffer output) {
+        WireFormat.writeDecimal(value, length, scale, packed, codePages[codePageIndex], output, name);
+    }
+
+    protected final void writeDecimal(long value,
+                                      int length,
+                                      int scale,
+                                      boolean packed,
+                                      int codePageIndex,
+                                      String name,
+                                      ByteBuffer output) {
+        WireFormat.writeDecimal(value, length, scale, packed, codePages[codePageIndex], output, name);
+    }
+
+    protected final void writeUnsigned(Object value, String name, ByteBuffer output) {
+        long number = value == null ? 0L : ((Number) value).longValue();
+        WireFormat.writeUnsigned(number, plan.getByteOrder(), output, name);
+    }
+
+    protected final void writeUnsigned(long value, String name, ByteBuffer output) {
+        WireFormat.writeUnsigned(value, plan.getByteOrder(), output, name);
+    }
+
+    private void requireRoot(Object pojo) {
+        Objects.requireNonNull(pojo, "pojo");
+        if (!rootType.isInstance(pojo)) {
+            throw new IllegalArgumentException("Codec for " + rootType.getName() + " cannot marshal "
+                    + pojo.getClass().getName());
+        }
+    }
+
+    protected static String child(String path, String pathSegment) {
+        return path + pathSegment;
+    }
+
+    protected static String item(String path, int index) {
+        return path + "[" + index + "]";
+    }
+
+    /**
+     * Lists segments depth-first, root first; generated code addresses segments by this index.
+     *
+     * @param plan compiled plan
+     * @return segments in generation order
+     */
+    static List<SegmentPlan> segments(CodecPlan plan) {
+        List<SegmentPlan> segments = new ArrayList<>();
+        collect(plan.getRoot(), segments);
+        return segments;
+    }
+
+    /**
+     * Lists the distinct field code pages in first-use order; generated code addresses them by this index.
+     *
+     * @param plan compiled plan
+     * @return code pages used by field instructions
+     */
+    static List<CodePage> codePages(CodecPlan plan) {
+        List<CodePage> codePages = new ArrayList<>();
+        for (SegmentPlan segment : segments(plan)) {
+            for (Instruction instruction : segment.instructions()) {
+                if (instruction.codePage() != null && !codePages.contains(instruction.codePage())) {
+                    codePages.add(instruction.codePage());
+                }
+            }
+        }
+        return codePages;
+    }
+
+    private static void collect(SegmentPlan segment, List<SegmentPlan> segments) {
+        segments.add(segment);
+        for (Instruction instruction : segment.instructions()) {
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                collect(instruction.segment(), segments);
+            }
+        }
+    }
+}
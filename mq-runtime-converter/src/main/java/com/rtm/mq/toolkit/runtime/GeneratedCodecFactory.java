@@ -0,0 +1,680 @@
+package com.rtm.mq.toolkit.runtime;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits a dedicated {@link GeneratedCodec} subclass per (plan, root class) and defines it as a
+ * hidden class, giving the JIT monomorphic straight-line code for each message type.
+ * Root and segment classes must be public with a public no-arg constructor and public accessors,
+ * and visible from this class's loader, which resolves the hidden class's references to them.
+ */
+public final class GeneratedCodecFactory {
+    private static final String SUPPORT = Type.getInternalName(GeneratedCodec.class);
+    private static final String BUFFER = Type.getDescriptor(ByteBuffer.class);
+    private static final String RESULT = Type.getDescriptor(ConversionResult.class);
+    private static final String OUTPUT = BUFFER;
+    private static final String STRING = Type.getDescriptor(String.class);
+    private static final String TRACE = Type.getDescriptor(TracePath.class);
+    private static final String TRACE_PATH = Type.getInternalName(TracePath.class);
+    private static final String OBJECT = Type.getDescriptor(Object.class);
+    private static final String DECIMAL = Type.getDescriptor(BigDecimal.class);
+    private static final String LIST = Type.getInternalName(List.class);
+    private static final int READ_PATH = 4;
+    private static final int WRITE_PATH = 3;
+
+    private final ConversionOptions options;
+
+    public GeneratedCodecFactory() {
+        this(new ConversionOptions());
+    }
+
+    public GeneratedCodecFactory(ConversionOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Generates and instantiates a codec bound to one plan and root class.
+     *
+     * @param plan     compiled schema plan
+     * @param rootType root POJO class
+     * @return codec instance, safe to share across threads
+     * @throws IllegalArgumentException if the classes cannot be driven by generated code
+     */
+    public GeneratedCodec create(CodecPlan plan, Class<?> rootType) {
+        return create(SchemaBinding.bind(plan, rootType));
+    }
+
+    /**
+     * Generates and instantiates a codec for an already resolved binding.
+     *
+     * @param binding plan bound to its root class
+     * @return codec instance, safe to share across threads
+     * @throws IllegalArgumentException if the classes cannot be driven by generated code
+     * @throws IllegalStateException    if emitting or defining the codec class fails
+     */
+    public GeneratedCodec create(SchemaBinding binding) {
+        CodecPlan plan = binding.getPlan();
+        List<SegmentPlan> segments = GeneratedCodec.segments(plan);
+        Map<SegmentPlan, Class<?>> types = new HashMap<>();
+        for (SegmentPlan segment : segments) {
+            Class<?> type = binding.segmentType(segment.getId());
+            if (type == null) {
+                throw new IllegalArgumentException("Unable to resolve class for segment " + segment.getName());
+            }
+            requireInstantiable(type);
+            requireVisible(type);
+            requireAccessors(segment, type);
+            types.put(segment, type);
+        }
+        try {
+            byte[] bytes = emit(plan, segments, types);
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodType constructor = MethodType.methodType(void.class, SchemaBinding.class, ConversionOptions.class);
+            return (GeneratedCodec) lookup.findConstructor(lookup.lookupClass(), constructor)
+                    .invoke(binding, options);
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to define codec for " + binding.getRootType().getName(), ex);
+        }
+    }
+
+    private void requireInstantiable(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " must be a public concrete class");
+        }
+        try {
+            type.getConstructor();
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException(type.getName() + " needs a public no-arg constructor");
+        }
+    }
+
+    private void requireVisible(Class<?> type) {
+        ClassLoader loader = GeneratedCodecFactory.class.getClassLoader();
+        try {
+            if (Class.forName(type.getName(), false, loader) == type) {
+                return;
+            }
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // reported below
+        }
+        throw new IllegalArgumentException(type.getName() + " is not visible from the codec's class loader");
+    }
+
+    private void requireAccessors(SegmentPlan segment, Class<?> type) {
+        PropertyAccessors accessors = PropertyAccessors.forClass(type);
+        for (Instruction instruction : segment.instructions()) {
+            PropertyAccessor accessor = accessors.find(instruction.propertyName());
+            if (accessor == null) {
+                continue;
+            }
+            if (accessor.isWritable() && accessor.setterMethod() == null) {
+                throw new IllegalArgumentException(type.getName() + "." + instruction.propertyName()
+                        + " has no public setter");
+            }
+            if (accessor.isReadable() && accessor.getterMethod() == null) {
+                throw new IllegalArgumentException(type.getName() + "." + instruction.propertyName()
+                        + " has no public getter");
+            }
+        }
+    }
+
+    private byte[] emit(CodecPlan plan, List<SegmentPlan> segments, Map<SegmentPlan, Class<?>> types) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        String name = Type.getInternalName(GeneratedCodecFactory.class).replace("GeneratedCodecFactory",
+                "GeneratedCodec$" + types.get(plan.getRoot()).getSimpleName());
+        writer.visit(Opcodes.V21, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null, SUPPORT, null);
+
+        String ctorDescriptor = "(" + Type.getDescriptor(SchemaBinding.class)
+                + Type.getDescriptor(ConversionOptions.class) + ")V";
+        MethodVisitor ctor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", ctorDescriptor, null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn(Opcodes.ALOAD, 0);
+        ctor.visitVarInsn(Opcodes.ALOAD, 1);
+        ctor.visitVarInsn(Opcodes.ALOAD, 2);
+        ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPPORT, "<init>", ctorDescriptor, false);
+        ctor.visitInsn(Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        String rootType = Type.getInternalName(types.get(plan.getRoot()));
+        String rootPath = plan.getRootPath();
+
+        MethodVisitor newRoot = writer.visitMethod(Opcodes.ACC_PROTECTED, "newRoot", "()" + OBJECT, null, null);
+        newRoot.visitCode();
+        newInstance(newRoot, rootType);
+        newRoot.visitInsn(Opcodes.ARETURN);
+        newRoot.visitMaxs(0, 0);
+        newRoot.visitEnd();
+
+        MethodVisitor readRoot = writer.visitMethod(Opcodes.ACC_PROTECTED, "readRoot",
+                "(" + OBJECT + BUFFER + RESULT + TRACE + ")V", null, null);
+        readRoot.visitCode();
+        readRoot.visitVarInsn(Opcodes.ALOAD, 0);
+        readRoot.visitVarInsn(Opcodes.ALOAD, 1);
+        readRoot.visitTypeInsn(Opcodes.CHECKCAST, rootType);
+        readRoot.visitVarInsn(Opcodes.ALOAD, 2);
+        readRoot.visitVarInsn(Opcodes.ALOAD, 3);
+        readRoot.visitVarInsn(Opcodes.ALOAD, 4);
+        readRoot.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "read0", readDescriptor(rootType), false);
+        readRoot.visitInsn(Opcodes.RETURN);
+        readRoot.visitMaxs(0, 0);
+        readRoot.visitEnd();
+
+        MethodVisitor writeRoot = writer.visitMethod(Opcodes.ACC_PROTECTED, "writeRoot",
+                "(" + OBJECT + OUTPUT + ")V", null, null);
+        writeRoot.visitCode();
+        writeRoot.visitVarInsn(Opcodes.ALOAD, 0);
+        writeRoot.visitVarInsn(Opcodes.ALOAD, 1);
+        writeRoot.visitTypeInsn(Opcodes.CHECKCAST, rootType);
+        writeRoot.visitVarInsn(Opcodes.ALOAD, 2);
+        writeRoot.visitLdcInsn(rootPath);
+        writeRoot.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "write0", writeDescriptor(rootType), false);
+        writeRoot.visitInsn(Opcodes.RETURN);
+        writeRoot.visitMaxs(0, 0);
+        writeRoot.visitEnd();
+
+        List<CodePage> codePages = GeneratedCodec.codePages(plan);
+        for (int index = 0; index < segments.size(); index++) {
+            emitRead(writer, name, index, segments, types, codePages);
+            emitWrite(writer, name, index, segments, types, codePages);
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private void emitRead(ClassWriter writer,
+                          String name,
+                          int index,
+                          List<SegmentPlan> segments,
+                          Map<SegmentPlan, Class<?>> types,
+                          List<CodePage> codePages) {
+        SegmentPlan segment = segments.get(index);
+        Class<?> owner = types.get(segment);
+        String ownerName = Type.getInternalName(owner);
+        MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PRIVATE, "read" + index, readDescriptor(ownerName),
+                null, null);
+        mv.visitCode();
+        int nextLocal = READ_PATH + 1;
+        for (Instruction instruction : segment.instructions()) {
+            PropertyAccessor accessor = PropertyAccessors.forClass(owner).find(instruction.propertyName());
+            Method setter = accessor != null ? accessor.setterMethod() : null;
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                nextLocal = emitReadSegment(mv, name, instruction, segments, types, ownerName, setter, nextLocal);
+                continue;
+            }
+            Class<?> target = setter != null ? setter.getParameterTypes()[0] : null;
+            if (instruction.kind().isDecimal()) {
+                emitReadDecimal(mv, name, instruction, ownerName, accessor, setter, nextLocal);
+                continue;
+            }
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+                boolean store = target == long.class || (target != null && target.isAssignableFrom(Long.class));
+                if (store) {
+                    mv.visitVarInsn(Opcodes.ALOAD, 1);
+                }
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitVarInsn(Opcodes.ALOAD, 3);
+                mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+                mv.visitLdcInsn(instruction.pathSegment());
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "readUnsigned",
+                        "(" + BUFFER + RESULT + TRACE + STRING + ")J", false);
+                if (store) {
+                    if (target != long.class) {
+                        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;",
+                                false);
+                    }
+                    invokeSetter(mv, ownerName, setter);
+                } else if (setter != null) {
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;",
+                            false);
+                    emitUnassignable(mv, instruction, accessor);
+                } else {
+                    mv.visitInsn(Opcodes.POP2);
+                }
+                continue;
+            }
+            boolean store = target != null && target.isAssignableFrom(String.class);
+            if (store) {
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            mv.visitLdcInsn(instruction.length());
+            mv.visitLdcInsn(codePages.indexOf(instruction.codePage()));
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+            mv.visitLdcInsn(instruction.pathSegment());
+            String reader = instruction.kind() == InstructionKind.UNSIGNED_TEXT ? "readUnsignedText" : "readText";
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, reader,
+                    "(" + BUFFER + "II" + RESULT + TRACE + STRING + ")" + STRING, false);
+            if (store) {
+                invokeSetter(mv, ownerName, setter);
+            } else if (setter != null) {
+                emitUnassignable(mv, instruction, accessor);
+            } else {
+                mv.visitInsn(Opcodes.POP);
+            }
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Reads a decimal as {@code Long} for integral scale-0 properties, otherwise as {@link BigDecimal};
+     * a null {@code Long} leaves a primitive property untouched, as in the interpreter.
+     */
+    private void emitReadDecimal(MethodVisitor mv,
+                                 String name,
+                                 Instruction instruction,
+                                 String ownerName,
+                                 PropertyAccessor accessor,
+                                 Method setter,
+                                 int tempLocal) {
+        boolean packed = instruction.kind() == InstructionKind.PACKED_DECIMAL;
+        Class<?> type = accessor != null ? accessor.getType() : null;
+        Class<?> target = setter != null ? setter.getParameterTypes()[0] : null;
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitLdcInsn(instruction.length());
+        if (instruction.scale() == 0 && target == long.class) {
+            mv.visitInsn(packed ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+            mv.visitLdcInsn(instruction.pathSegment());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "readDecimalLongValue",
+                    "(" + BUFFER + "IZ" + RESULT + TRACE + STRING + ")J", false);
+            mv.visitVarInsn(Opcodes.LSTORE, tempLocal);
+            Label skip = new Label();
+            mv.visitVarInsn(Opcodes.LLOAD, tempLocal);
+            mv.visitLdcInsn(CodecSupport.NO_VALUE);
+            mv.visitInsn(Opcodes.LCMP);
+            mv.visitJumpInsn(Opcodes.IFEQ, skip);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.LLOAD, tempLocal);
+            invokeSetter(mv, ownerName, setter);
+            mv.visitLabel(skip);
+            return;
+        }
+        if (instruction.scale() == 0 && (type == Long.class || type == long.class)) {
+            mv.visitInsn(packed ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+            mv.visitLdcInsn(instruction.pathSegment());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "readDecimalLong",
+                    "(" + BUFFER + "IZ" + RESULT + TRACE + STRING + ")Ljava/lang/Long;", false);
+            if (target != Long.class) {
+                if (setter != null) {
+                    emitUnassignable(mv, instruction, accessor);
+                } else {
+                    mv.visitInsn(Opcodes.POP);
+                }
+                return;
+            }
+            mv.visitVarInsn(Opcodes.ASTORE, tempLocal);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, tempLocal);
+            invokeSetter(mv, ownerName, setter);
+            return;
+        }
+        mv.visitLdcInsn(instruction.scale());
+        mv.visitInsn(packed ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+        mv.visitLdcInsn(instruction.pathSegment());
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "readDecimal",
+                "(" + BUFFER + "IIZ" + RESULT + TRACE + STRING + ")" + DECIMAL, false);
+        if (target != null && target.isAssignableFrom(BigDecimal.class)) {
+            mv.visitVarInsn(Opcodes.ASTORE, tempLocal);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, tempLocal);
+            invokeSetter(mv, ownerName, setter);
+        } else if (setter != null) {
+            emitUnassignable(mv, instruction, accessor);
+        } else {
+            mv.visitInsn(Opcodes.POP);
+        }
+    }
+
+    /**
+     * Consumes a decoded value the property's setter cannot take and reports it, as the interpreter does.
+     */
+    private void emitUnassignable(MethodVisitor mv, Instruction instruction, PropertyAccessor accessor) {
+        mv.visitLdcInsn(accessor.getType().getSimpleName());
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+        mv.visitLdcInsn(instruction.pathSegment());
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(CodecSupport.class), "unassignable",
+                "(" + OBJECT + STRING + RESULT + TRACE + STRING + ")V", false);
+    }
+
+    private int emitReadSegment(MethodVisitor mv,
+                                String name,
+                                Instruction instruction,
+                                List<SegmentPlan> segments,
+                                Map<SegmentPlan, Class<?>> types,
+                                String ownerName,
+                                Method setter,
+                                int nextLocal) {
+        SegmentPlan child = instruction.segment();
+        int childIndex = segments.indexOf(child);
+        String childType = Type.getInternalName(types.get(child));
+        int countLocal = nextLocal;
+        int entryLocal = nextLocal + 2;
+        mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+        mv.visitLdcInsn(instruction.pathSegment());
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, TRACE_PATH, "push", "(" + STRING + ")V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitLdcInsn(childIndex);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "readHeader", "(I" + BUFFER + RESULT + TRACE + ")J", false);
+        mv.visitVarInsn(Opcodes.LSTORE, countLocal);
+
+        if (!child.isRepeating()) {
+            Label absent = new Label();
+            mv.visitVarInsn(Opcodes.LLOAD, countLocal);
+            mv.visitInsn(Opcodes.LCONST_0);
+            mv.visitInsn(Opcodes.LCMP);
+            mv.visitJumpInsn(Opcodes.IFLE, absent);
+            newInstance(mv, childType);
+            mv.visitVarInsn(Opcodes.ASTORE, entryLocal);
+            readChild(mv, name, childIndex, childType, entryLocal, -1);
+            if (setter != null && setter.getParameterTypes()[0].isAssignableFrom(types.get(child))) {
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitVarInsn(Opcodes.ALOAD, entryLocal);
+                invokeSetter(mv, ownerName, setter);
+            }
+            mv.visitLabel(absent);
+            popPath(mv);
+            return entryLocal + 1;
+        }
+
+        int listLocal = entryLocal + 1;
+        int indexLocal = entryLocal + 2;
+        mv.visitTypeInsn(Opcodes.NEW, "java/util/ArrayList");
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+        mv.visitVarInsn(Opcodes.ASTORE, listLocal);
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ISTORE, indexLocal);
+        Label loop = new Label();
+        Label end = new Label();
+        mv.visitLabel(loop);
+        mv.visitVarInsn(Opcodes.ILOAD, indexLocal);
+        mv.visitInsn(Opcodes.I2L);
+        mv.visitVarInsn(Opcodes.LLOAD, countLocal);
+        mv.visitInsn(Opcodes.LCMP);
+        mv.visitJumpInsn(Opcodes.IFGE, end);
+        newInstance(mv, childType);
+        mv.visitVarInsn(Opcodes.ASTORE, entryLocal);
+        readChild(mv, name, childIndex, childType, entryLocal, indexLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, listLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, entryLocal);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "add", "(" + OBJECT + ")Z", true);
+        mv.visitInsn(Opcodes.POP);
+        mv.visitIincInsn(indexLocal, 1);
+        mv.visitJumpInsn(Opcodes.GOTO, loop);
+        mv.visitLabel(end);
+        popPath(mv);
+        if (setter != null && setter.getParameterTypes()[0].isAssignableFrom(ArrayList.class)) {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, listLocal);
+            invokeSetter(mv, ownerName, setter);
+        }
+        return indexLocal + 1;
+    }
+
+    private void readChild(MethodVisitor mv,
+                           String name,
+                           int childIndex,
+                           String childType,
+                           int entryLocal,
+                           int indexLocal) {
+        if (indexLocal >= 0) {
+            mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+            mv.visitVarInsn(Opcodes.ILOAD, indexLocal);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, TRACE_PATH, "index", "(I)V", false);
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, entryLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "read" + childIndex, readDescriptor(childType), false);
+    }
+
+    private void emitWrite(ClassWriter writer,
+                           String name,
+                           int index,
+                           List<SegmentPlan> segments,
+                           Map<SegmentPlan, Class<?>> types,
+                           List<CodePage> codePages) {
+        SegmentPlan segment = segments.get(index);
+        Class<?> owner = types.get(segment);
+        String ownerName = Type.getInternalName(owner);
+        MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PRIVATE, "write" + index, writeDescriptor(ownerName),
+                null, null);
+        mv.visitCode();
+        int nextLocal = WRITE_PATH + 1;
+        for (Instruction instruction : segment.instructions()) {
+            PropertyAccessor accessor = PropertyAccessors.forClass(owner).find(instruction.propertyName());
+            Method getter = accessor != null ? accessor.getterMethod() : null;
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                nextLocal = emitWriteSegment(mv, name, instruction, segments, types, ownerName, getter, nextLocal);
+                continue;
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            if (instruction.kind().isDecimal()) {
+                String valueDescriptor = OBJECT;
+                if (getter != null && isIntegral(getter.getReturnType())) {
+                    invokeGetter(mv, ownerName, getter);
+                    if (getter.getReturnType() != long.class) {
+                        mv.visitInsn(Opcodes.I2L);
+                    }
+                    valueDescriptor = "J";
+                } else if (getter != null) {
+                    invokeGetter(mv, ownerName, getter);
+                    box(mv, getter.getReturnType());
+                } else {
+                    mv.visitInsn(Opcodes.ACONST_NULL);
+                }
+                mv.visitLdcInsn(instruction.length());
+                mv.visitLdcInsn(instruction.scale());
+                mv.visitInsn(instruction.kind() == InstructionKind.PACKED_DECIMAL ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+                mv.visitLdcInsn(codePages.indexOf(instruction.codePage()));
+                mv.visitLdcInsn(instruction.name());
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "writeDecimal",
+                        "(" + valueDescriptor + "IIZI" + STRING + OUTPUT + ")V", false);
+                continue;
+            }
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT && getter != null
+                    && isIntegral(getter.getReturnType())) {
+                invokeGetter(mv, ownerName, getter);
+                if (getter.getReturnType() != long.class) {
+                    mv.visitInsn(Opcodes.I2L);
+                }
+                mv.visitLdcInsn(instruction.name());
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "writeUnsigned", "(JLjava/lang/String;" + OUTPUT + ")V",
+                        false);
+                continue;
+            }
+            if (getter != null) {
+                invokeGetter(mv, ownerName, getter);
+                box(mv, getter.getReturnType());
+            } else {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+            }
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+                mv.visitLdcInsn(instruction.name());
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "writeUnsigned",
+                        "(" + OBJECT + STRING + OUTPUT + ")V", false);
+            } else {
+                mv.visitLdcInsn(instruction.length());
+                mv.visitLdcInsn(codePages.indexOf(instruction.codePage()));
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "writeText", "(" + OBJECT + "II" + OUTPUT + ")V",
+                        false);
+            }
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private int emitWriteSegment(MethodVisitor mv,
+                                 String name,
+                                 Instruction instruction,
+                                 List<SegmentPlan> segments,
+                                 Map<SegmentPlan, Class<?>> types,
+                                 String ownerName,
+                                 Method getter,
+                                 int nextLocal) {
+        SegmentPlan child = instruction.segment();
+        int childIndex = segments.indexOf(child);
+        String childType = Type.getInternalName(types.get(child));
+        int valueLocal = nextLocal;
+        int pathLocal = nextLocal + 1;
+        if (getter != null) {
+            invokeGetter(mv, ownerName, getter);
+            box(mv, getter.getReturnType());
+        } else {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        }
+        mv.visitVarInsn(Opcodes.ASTORE, valueLocal);
+        childPath(mv, WRITE_PATH, instruction.pathSegment());
+        mv.visitVarInsn(Opcodes.ASTORE, pathLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitLdcInsn(childIndex);
+        mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitVarInsn(Opcodes.ALOAD, pathLocal);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "writeHeader", "(I" + OBJECT + OUTPUT + STRING + ")V", false);
+
+        Label end = new Label();
+        if (!child.isRepeating()) {
+            mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+            mv.visitJumpInsn(Opcodes.IFNULL, end);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, childType);
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            mv.visitVarInsn(Opcodes.ALOAD, pathLocal);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "write" + childIndex, writeDescriptor(childType), false);
+            mv.visitLabel(end);
+            return pathLocal + 1;
+        }
+
+        int listLocal = pathLocal + 1;
+        int indexLocal = pathLocal + 2;
+        mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+        mv.visitTypeInsn(Opcodes.INSTANCEOF, LIST);
+        mv.visitJumpInsn(Opcodes.IFEQ, end);
+        mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, LIST);
+        mv.visitVarInsn(Opcodes.ASTORE, listLocal);
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ISTORE, indexLocal);
+        Label loop = new Label();
+        mv.visitLabel(loop);
+        mv.visitVarInsn(Opcodes.ILOAD, indexLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, listLocal);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "size", "()I", true);
+        mv.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, listLocal);
+        mv.visitVarInsn(Opcodes.ILOAD, indexLocal);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "get", "(I)" + OBJECT, true);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, childType);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitVarInsn(Opcodes.ALOAD, pathLocal);
+        mv.visitVarInsn(Opcodes.ILOAD, indexLocal);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, SUPPORT, "item", "(" + STRING + "I)" + STRING, false);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "write" + childIndex, writeDescriptor(childType), false);
+        mv.visitIincInsn(indexLocal, 1);
+        mv.visitJumpInsn(Opcodes.GOTO, loop);
+        mv.visitLabel(end);
+        return indexLocal + 1;
+    }
+
+    private void childPath(MethodVisitor mv, int pathLocal, String pathSegment) {
+        mv.visitVarInsn(Opcodes.ALOAD, pathLocal);
+        mv.visitLdcInsn(pathSegment);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, SUPPORT, "child", "(" + STRING + STRING + ")" + STRING, false);
+    }
+
+    private void popPath(MethodVisitor mv) {
+        mv.visitVarInsn(Opcodes.ALOAD, READ_PATH);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, TRACE_PATH, "pop", "()V", false);
+    }
+
+    private void newInstance(MethodVisitor mv, String type) {
+        mv.visitTypeInsn(Opcodes.NEW, type);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, type, "<init>", "()V", false);
+    }
+
+    private void invokeSetter(MethodVisitor mv, String ownerName, Method setter) {
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ownerName, setter.getName(), Type.getMethodDescriptor(setter), false);
+        Class<?> returnType = setter.getReturnType();
+        if (returnType == long.class || returnType == double.class) {
+            mv.visitInsn(Opcodes.POP2);
+        } else if (returnType != void.class) {
+            mv.visitInsn(Opcodes.POP);
+        }
+    }
+
+    private void invokeGetter(MethodVisitor mv, String ownerName, Method getter) {
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ownerName, getter.getName(), Type.getMethodDescriptor(getter), false);
+    }
+
+    private boolean isIntegral(Class<?> type) {
+        return type == long.class || type == int.class || type == short.class || type == byte.class
+                || type == char.class;
+    }
+
+    private void box(MethodVisitor mv, Class<?> type) {
+        if (!type.isPrimitive()) {
+            return;
+        }
+        Type primitive = Type.getType(type);
+        Class<?> wrapper = MethodType.methodType(type).wrap().returnType();
+        String wrapperName = Type.getInternalName(wrapper);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapperName, "valueOf",
+                "(" + primitive.getDescriptor() + ")L" + wrapperName + ";", false);
+    }
+
+    private static String readDescriptor(String ownerName) {
+        return "(L" + ownerName + ";" + BUFFER + RESULT + TRACE + ")V";
+    }
+
+    private static String writeDescriptor(String ownerName) {
+        return "(L" + ownerName + ";" + OUTPUT + STRING + ")V";
+    }
+}
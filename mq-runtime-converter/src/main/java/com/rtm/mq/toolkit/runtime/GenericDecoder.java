@@ -0,0 +1,197 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decodes messages into {@link GenericMessage}s using only the compiled schema, for tooling that
+ * has no POJO classes. Field ids are resolved once per segment here; each decode makes one pass
+ * that records offsets and numbers in primitive arrays and leaves text undecoded.
+ * <p>
+ * Immutable and thread-safe.
+ */
+public final class GenericDecoder {
+    private final CodecPlan plan;
+    private final ConversionOptions options;
+    private final SegmentPlan[] segments;
+    private final Map<String, Integer>[] fieldIds;
+
+    /**
+     * Prepares a decoder for a compiled schema.
+     *
+     * @param plan    compiled schema
+     * @param options trace level, groupId mode and fail-fast setting
+     */
+    @SuppressWarnings("unchecked")
+    public GenericDecoder(CodecPlan plan, ConversionOptions options) {
+        this.plan = Objects.requireNonNull(plan, "plan");
+        this.options = Objects.requireNonNull(options, "options");
+        this.segments = new SegmentPlan[plan.getSegmentCount()];
+        this.fieldIds = new Map[segments.length];
+        register(plan.getRoot());
+    }
+
+    public CodecPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the id of a field or child segment within a segment, which is its instruction
+     * index and stays valid for every message decoded with this plan.
+     *
+     * @param segment segment id from {@link SegmentPlan#getId()}
+     * @param name    field name, or lowerCamel property name of a child segment
+     * @return field id
+     * @throws IllegalArgumentException if the segment has no such field
+     */
+    public int fieldId(int segment, String name) {
+        int id = indexOf(segment, name);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown field " + name + " in " + plan.segmentPath(segment));
+        }
+        return id;
+    }
+
+    int indexOf(int segment, String name) {
+        return fieldIds[segment].getOrDefault(name, -1);
+    }
+
+    SegmentPlan segment(int id) {
+        return segments[id];
+    }
+
+    /**
+     * Decodes a whole message. The result keeps a reference to {@code bytes}, which must not
+     * change while the message is in use.
+     *
+     * @param bytes message bytes
+     * @return decoded message with traces and issues
+     * @throws java.nio.BufferUnderflowException if the message is truncated
+     * @throws MessageFormatException            in fail-fast mode, at the first structural error
+     */
+    public ConversionResult<GenericMessage> decode(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(plan.getByteOrder());
+        ConversionResult<GenericMessage> result = new ConversionResult<>(null);
+        Walk walk = new Walk(buffer, result, TracePath.start(options, plan.getRootPath()));
+        walk.occurrence(plan.getRoot(), walk.entries(1));
+        return result.withValue(new GenericMessage(this, bytes, walk.bases, walk.offsets, walk.values));
+    }
+
+    private void register(SegmentPlan segment) {
+        segments[segment.getId()] = segment;
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < segment.getInstructionCount(); i++) {
+            Instruction instruction = segment.getInstruction(i);
+            ids.putIfAbsent(instruction.propertyName(), i);
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                register(instruction.segment());
+            }
+        }
+        fieldIds[segment.getId()] = Map.copyOf(ids);
+    }
+
+    /**
+     * Per-call cursor. Each occurrence owns one slot per instruction starting at its base: field
+     * slots hold the field offset and its number, segment slots the first child entry and the
+     * occurrence count. Occurrences of one group get consecutive entries.
+     */
+    private final class Walk {
+        private final ByteBuffer buffer;
+        private final ConversionResult<?> result;
+        private final TracePath path;
+        private int[] bases = new int[16];
+        private int entryCount;
+        private int[] offsets = new int[64];
+        private long[] values = new long[64];
+        private int slotCount;
+
+        private Walk(ByteBuffer buffer, ConversionResult<?> result, TracePath path) {
+            this.buffer = buffer;
+            this.result = result;
+            this.path = path;
+        }
+
+        private int entries(int count) {
+            int first = entryCount;
+            entryCount += count;
+            if (entryCount > bases.length) {
+                bases = Arrays.copyOf(bases, Math.max(entryCount, bases.length * 2));
+            }
+            return first;
+        }
+
+        private void occurrence(SegmentPlan segment, int entry) {
+            Instruction[] instructions = segment.instructions();
+            int base = slotCount;
+            slotCount += instructions.length;
+            if (slotCount > offsets.length) {
+                int capacity = Math.max(slotCount, offsets.length * 2);
+                offsets = Arrays.copyOf(offsets, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            bases[entry] = base;
+            for (int i = 0; i < instructions.length; i++) {
+                Instruction instruction = instructions[i];
+                if (instruction.kind() == InstructionKind.SEGMENT) {
+                    path.push(instruction.pathSegment());
+                    group(instruction.segment(), base + i);
+                    path.pop();
+                } else {
+                    field(instruction, base + i);
+                }
+            }
+        }
+
+        private void group(SegmentPlan segment, int slot) {
+            long count = WireFormat.readHeader(segment, buffer, result, path, options.getGroupIdMode());
+            if (segment.getMinSize() > 0 && count > buffer.remaining() / segment.getMinSize()) {
+                throw new BufferUnderflowException();
+            }
+            int first = entries((int) count);
+            offsets[slot] = first;
+            values[slot] = count;
+            for (int i = 0; i < count; i++) {
+                if (segment.isRepeating()) {
+                    path.index(i);
+                }
+                occurrence(segment, first + i);
+            }
+        }
+
+        private void field(Instruction instruction, int slot) {
+            String leaf = instruction.pathSegment();
+            int start = buffer.position();
+            offsets[slot] = start;
+            switch (instruction.kind()) {
+                case UNSIGNED_INT -> values[slot] = WireFormat.readUnsigned(buffer, result, path, leaf);
+                case PACKED_DECIMAL, ZONED_DECIMAL -> values[slot] = decimal(instruction);
+                default -> {
+                    WireFormat.skip(buffer, instruction.length());
+                    CodecSupport.trace(result, path, leaf, start, instruction.length());
+                    if (instruction.kind() == InstructionKind.UNSIGNED_TEXT) {
+                        CodecSupport.issue(result, path, leaf, "WARN", "Expected 4 bytes for unsigned integer");
+                    }
+                }
+            }
+        }
+
+        /**
+         * Validates a decimal and returns its unscaled value, or for fields too wide for a long
+         * 0 when present; blank and invalid fields return {@link CodecSupport#NO_VALUE}.
+         */
+        private long decimal(Instruction instruction) {
+            boolean packed = instruction.kind() == InstructionKind.PACKED_DECIMAL;
+            String leaf = instruction.pathSegment();
+            if (GenericMessage.fitsLong(instruction)) {
+                return WireFormat.readDecimalLongValue(buffer, instruction.length(), packed, result, path, leaf);
+            }
+            return WireFormat.readDecimal(buffer, instruction.length(), instruction.scale(), packed, result, path,
+                    leaf) != null ? 0L : CodecSupport.NO_VALUE;
+        }
+    }
+}
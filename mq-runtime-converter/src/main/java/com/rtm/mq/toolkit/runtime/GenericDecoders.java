@@ -0,0 +1,29 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.rtm.mq.toolkit.ir.MessageSchema;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoders behind the default {@link MessageCodec#unmarshalGeneric}, compiled with default
+ * options once per schemaId so codecs that do not override it still reuse one plan.
+ */
+final class GenericDecoders {
+    private static final Map<String, GenericDecoder> DECODERS = new ConcurrentHashMap<>();
+
+    private GenericDecoders() {
+    }
+
+    static GenericDecoder forSchema(MessageSchema schema) {
+        if (schema.getSchemaId() == null) {
+            return create(schema);
+        }
+        return DECODERS.computeIfAbsent(schema.getSchemaId(), key -> create(schema));
+    }
+
+    private static GenericDecoder create(MessageSchema schema) {
+        ConversionOptions options = new ConversionOptions();
+        return new GenericDecoder(CodecPlan.compile(schema, options.getProtocolConfig()), options);
+    }
+}
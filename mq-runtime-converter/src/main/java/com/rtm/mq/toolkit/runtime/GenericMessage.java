@@ -0,0 +1,321 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Message decoded by a {@link GenericDecoder} without POJO classes. Field offsets and numeric
+ * values sit in primitive arrays indexed by occurrence and field id; text and wide decimals are
+ * decoded from the retained message bytes each time they are read, and nothing per field is
+ * allocated up front.
+ * <p>
+ * {@link #asMap()} exposes the message as nested maps keyed like generated POJO properties:
+ * field names, and lowerCamel segment names holding a map, or a list of maps when repeating.
+ * Segment and map views are cheap read-only objects created on access. A message is immutable
+ * and may be shared once decoded.
+ */
+public final class GenericMessage {
+    private final GenericDecoder decoder;
+    private final byte[] data;
+    private final int[] bases;
+    private final int[] offsets;
+    private final long[] values;
+
+    GenericMessage(GenericDecoder decoder, byte[] data, int[] bases, int[] offsets, long[] values) {
+        this.decoder = decoder;
+        this.data = data;
+        this.bases = bases;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    public CodecPlan getPlan() {
+        return decoder.getPlan();
+    }
+
+    /**
+     * Returns the root segment occurrence.
+     */
+    public Segment root() {
+        return new Segment(decoder.getPlan().getRoot(), 0, 0);
+    }
+
+    /**
+     * Returns a read-only map view of the root segment.
+     */
+    public Map<String, Object> asMap() {
+        return root().asMap();
+    }
+
+    static boolean fitsLong(Instruction instruction) {
+        return Decimals.digits(instruction.kind() == InstructionKind.PACKED_DECIMAL, instruction.length())
+                <= Decimals.MAX_LONG_DIGITS;
+    }
+
+    /**
+     * One occurrence of a segment. Field ids are instruction indices, resolved by name with
+     * {@link #fieldId(String)} or once per schema with {@link GenericDecoder#fieldId(int, String)}.
+     */
+    public final class Segment {
+        private final SegmentPlan plan;
+        private final int index;
+        private final int base;
+
+        private Segment(SegmentPlan plan, int index, int entry) {
+            this.plan = plan;
+            this.index = index;
+            this.base = bases[entry];
+        }
+
+        public SegmentPlan getPlan() {
+            return plan;
+        }
+
+        /**
+         * Returns the occurrence index within the parent's group, 0 for single segments.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the id of a field, or of a child segment by its lowerCamel property name.
+         *
+         * @throws IllegalArgumentException if the segment has no such field
+         */
+        public int fieldId(String name) {
+            return decoder.fieldId(plan.getId(), name);
+        }
+
+        /**
+         * Returns a field as {@code String}, {@code Long} or {@link BigDecimal}, a child segment
+         * as a {@code Segment} or a list of them when repeating; blank and invalid values and absent
+         * single segments are null.
+         */
+        public Object get(int id) {
+            Instruction instruction = plan.getInstruction(id);
+            return switch (instruction.kind()) {
+                case SEGMENT -> instruction.segment().isRepeating() ? children(id)
+                        : count(id) > 0 ? child(id, 0) : null;
+                case UNSIGNED_INT -> values[base + id];
+                case PACKED_DECIMAL, ZONED_DECIMAL -> getDecimal(id);
+                default -> getString(id);
+            };
+        }
+
+        public Object get(String name) {
+            return get(fieldId(name));
+        }
+
+        /**
+         * Decodes a text field; blank fields read as null.
+         */
+        public String getString(int id) {
+            Instruction instruction = field(id);
+            return instruction.codePage().decode(data, offsets[base + id], instruction.length());
+        }
+
+        /**
+         * Returns a uint32 or a scale-0 decimal without boxing.
+         *
+         * @return value, or {@link CodecSupport#NO_VALUE} for blank or invalid decimals
+         * @throws IllegalArgumentException if the field is neither
+         */
+        public long getLong(int id) {
+            Instruction instruction = field(id);
+            if (instruction.kind() == InstructionKind.UNSIGNED_INT
+                    || instruction.kind().isDecimal() && instruction.scale() == 0 && fitsLong(instruction)) {
+                return values[base + id];
+            }
+            if (instruction.kind().isDecimal() && instruction.scale() == 0) {
+                BigDecimal value = getDecimal(id);
+                return value != null ? value.longValueExact() : CodecSupport.NO_VALUE;
+            }
+            throw new IllegalArgumentException("Field " + instruction.name() + " is not an integer");
+        }
+
+        /**
+         * Returns a packed or zoned decimal with the schema scale; blank and invalid fields read as null.
+         *
+         * @throws IllegalArgumentException if the field is not a decimal
+         */
+        public BigDecimal getDecimal(int id) {
+            Instruction instruction = field(id);
+            if (!instruction.kind().isDecimal()) {
+                throw new IllegalArgumentException("Field " + instruction.name() + " is not a decimal");
+            }
+            long value = values[base + id];
+            if (value == CodecSupport.NO_VALUE) {
+                return null;
+            }
+            if (fitsLong(instruction)) {
+                return BigDecimal.valueOf(value, instruction.scale());
+            }
+            return Decimals.decode(data, offsets[base + id], instruction.length(), instruction.scale(),
+                    instruction.kind() == InstructionKind.PACKED_DECIMAL);
+        }
+
+        /**
+         * Returns the absolute index of a field's first byte in the message.
+         */
+        public int offset(int id) {
+            field(id);
+            return offsets[base + id];
+        }
+
+        /**
+         * Returns the number of occurrences of a child segment; single segments have one, or none
+         * when absent.
+         */
+        public int count(int id) {
+            segment(id);
+            return (int) values[base + id];
+        }
+
+        /**
+         * Returns one occurrence of a child segment.
+         *
+         * @throws IndexOutOfBoundsException if {@code index} is not below {@link #count(int)}
+         */
+        public Segment child(int id, int index) {
+            Instruction instruction = segment(id);
+            int count = (int) values[base + id];
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + count
+                        + " occurrences of " + instruction.name());
+            }
+            return new Segment(instruction.segment(), index, offsets[base + id] + index);
+        }
+
+        /**
+         * Returns the occurrences of a child segment as a list view.
+         */
+        public List<Segment> children(int id) {
+            segment(id);
+            int count = (int) values[base + id];
+            return new AbstractList<>() {
+                @Override
+                public Segment get(int index) {
+                    return child(id, index);
+                }
+
+                @Override
+                public int size() {
+                    return count;
+                }
+            };
+        }
+
+        /**
+         * Returns a read-only map view of this occurrence; values are decoded on each read.
+         */
+        public Map<String, Object> asMap() {
+            return new MapView(this);
+        }
+
+        private Object value(int id) {
+            Instruction instruction = plan.getInstruction(id);
+            if (instruction.kind() != InstructionKind.SEGMENT) {
+                return get(id);
+            }
+            if (!instruction.segment().isRepeating()) {
+                return count(id) > 0 ? child(id, 0).asMap() : null;
+            }
+            List<Segment> children = children(id);
+            return new AbstractList<Map<String, Object>>() {
+                @Override
+                public Map<String, Object> get(int index) {
+                    return children.get(index).asMap();
+                }
+
+                @Override
+                public int size() {
+                    return children.size();
+                }
+            };
+        }
+
+        private Instruction field(int id) {
+            Instruction instruction = plan.getInstruction(id);
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                throw new IllegalArgumentException(instruction.name() + " is a segment, not a field");
+            }
+            return instruction;
+        }
+
+        private Instruction segment(int id) {
+            Instruction instruction = plan.getInstruction(id);
+            if (instruction.kind() != InstructionKind.SEGMENT) {
+                throw new IllegalArgumentException(instruction.name() + " is a field, not a segment");
+            }
+            return instruction;
+        }
+    }
+
+    private final class MapView extends AbstractMap<String, Object> {
+        private final Segment segment;
+
+        private MapView(Segment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int id = id(key);
+            return id >= 0 ? segment.value(id) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return id(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return segment.plan.getInstructionCount();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (next >= size()) {
+                                throw new NoSuchElementException();
+                            }
+                            int id = next++;
+                            return new SimpleImmutableEntry<>(segment.plan.getInstruction(id).propertyName(),
+                                    segment.value(id));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return MapView.this.size();
+                }
+            };
+        }
+
+        private int id(Object key) {
+            return key instanceof String name ? decoder.indexOf(segment.plan.getId(), name) : -1;
+        }
+    }
+}
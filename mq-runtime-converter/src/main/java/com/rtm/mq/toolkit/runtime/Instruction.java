@@ -0,0 +1,25 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Single compiled step of a segment plan.
+ *
+ * @param kind         wire encoding
+ * @param name         schema element name
+ * @param propertyName POJO property name
+ * @param length       field length in bytes, 0 for segments
+ * @param scale        decimal places of packed/zoned decimal fields, 0 otherwise
+ * @param converter    converter declared in the schema, may be null
+ * @param codePage     text encoding for field instructions, null for segments
+ * @param pathSegment  trace path fragment appended to the parent path
+ * @param segment      nested segment plan for {@link InstructionKind#SEGMENT}
+ */
+public record Instruction(InstructionKind kind,
+                          String name,
+                          String propertyName,
+                          int length,
+                          int scale,
+                          String converter,
+                          CodePage codePage,
+                          String pathSegment,
+                          SegmentPlan segment) {
+}
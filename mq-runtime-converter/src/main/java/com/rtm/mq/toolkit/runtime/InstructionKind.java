@@ -0,0 +1,35 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Wire encoding of a compiled plan instruction.
+ */
+public enum InstructionKind {
+    /**
+     * Space padded text field.
+     */
+    STRING,
+    /**
+     * Binary uint32 field.
+     */
+    UNSIGNED_INT,
+    /**
+     * Unsigned datatype whose length is not 4 bytes, kept as text.
+     */
+    UNSIGNED_TEXT,
+    /**
+     * Packed decimal (COMP-3), two digits per byte plus a sign nibble.
+     */
+    PACKED_DECIMAL,
+    /**
+     * Zoned decimal, one digit per byte with the sign in the last zone.
+     */
+    ZONED_DECIMAL,
+    /**
+     * Nested segment with its own protocol header.
+     */
+    SEGMENT;
+
+    public boolean isDecimal() {
+        return this == PACKED_DECIMAL || this == ZONED_DECIMAL;
+    }
+}
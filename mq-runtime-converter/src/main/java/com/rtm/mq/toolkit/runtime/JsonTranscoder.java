@@ -0,0 +1,379 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.rtm.mq.toolkit.ir.FieldNode;
+import com.rtm.mq.toolkit.ir.MessageSchema;
+import com.rtm.mq.toolkit.ir.NameUtils;
+import com.rtm.mq.toolkit.ir.SchemaElement;
+import com.rtm.mq.toolkit.ir.SegmentNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Transcodes between fixed-length messages and JSON without POJOs: {@link #toJson} drives a
+ * {@link JsonGenerator} straight from the message bytes, and {@link #fromJson} writes message
+ * bytes from a {@link JsonParser}.
+ * <p>
+ * Property names follow the OpenAPI generator: field names as in the schema, protocol fields
+ * omitted, and child segments under their lowerCamel name as an object, null when absent, or an
+ * array when repeating. uint32 fields and decimals are JSON numbers, text is a string and blank or invalid
+ * values are null. Immutable and thread-safe.
+ */
+public final class JsonTranscoder {
+    private final CodecPlan plan;
+    private final ConversionOptions options;
+    private final SerializedString[][] names;
+    private final Map<String, Integer>[] ids;
+
+    /**
+     * Prepares a transcoder for a schema and its compiled plan.
+     *
+     * @param schema  schema definition, used for protocol fields the plan does not mark
+     * @param plan    plan compiled from {@code schema}
+     * @param options trace level, groupId mode and fail-fast setting for {@link #toJson}
+     */
+    @SuppressWarnings("unchecked")
+    public JsonTranscoder(MessageSchema schema, CodecPlan plan, ConversionOptions options) {
+        Objects.requireNonNull(schema, "schema");
+        this.plan = Objects.requireNonNull(plan, "plan");
+        this.options = Objects.requireNonNull(options, "options");
+        if (!Objects.equals(plan.getSchemaId(), schema.getSchemaId())) {
+            throw new IllegalArgumentException("Plan compiled for schema " + plan.getSchemaId()
+                    + " cannot transcode " + schema.getSchemaId());
+        }
+        this.names = new SerializedString[plan.getSegmentCount()][];
+        this.ids = new Map[names.length];
+        register(schema.getRoot(), plan.getRoot());
+    }
+
+    public CodecPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Writes a message as one JSON object. The generator is neither flushed nor closed.
+     *
+     * @param bytes     message bytes
+     * @param generator target generator
+     * @return traces and issues of the decoded fields; the value is always null
+     * @throws IOException              if the generator fails
+     * @throws BufferUnderflowException if the message is truncated
+     * @throws MessageFormatException   in fail-fast mode, at the first structural error
+     */
+    public ConversionResult<Void> toJson(byte[] bytes, JsonGenerator generator) throws IOException {
+        Objects.requireNonNull(bytes, "bytes");
+        Objects.requireNonNull(generator, "generator");
+        ConversionResult<Void> result = new ConversionResult<>(null);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(plan.getByteOrder());
+        writeObject(plan.getRoot(), buffer, generator, result, TracePath.start(options, plan.getRootPath()));
+        return result;
+    }
+
+    /**
+     * Reads one JSON object, starting at the parser's current token or the next one, and encodes
+     * it as a message. Properties may come in any order; unknown properties are skipped and
+     * missing ones are written as blanks or zeros, as for null POJO properties.
+     *
+     * @param parser source parser, left at the object's closing brace
+     * @return fixed-length message bytes
+     * @throws IOException              if the JSON is malformed
+     * @throws IllegalArgumentException if a value does not fit its field or a required segment is missing
+     */
+    public byte[] fromJson(JsonParser parser) throws IOException {
+        Objects.requireNonNull(parser, "parser");
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Expected JSON object at " + plan.getRootPath());
+        }
+        Object[] root = readObject(plan.getRoot(), parser, TracePath.start(TraceLevel.FULL, plan.getRootPath()));
+        int fixedSize = plan.getFixedSize();
+        ByteBuffer output = ByteBuffer.allocate(fixedSize >= 0 ? fixedSize : sizeOf(plan.getRoot(), root));
+        writeSegmentElements(plan.getRoot(), root, output);
+        return output.array();
+    }
+
+    /**
+     * Names every instruction like {@code OpenApiGenerator}; protocol fields get no name.
+     */
+    private void register(SegmentNode node, SegmentPlan segment) {
+        SerializedString[] segmentNames = new SerializedString[segment.getInstructionCount()];
+        Map<String, Integer> segmentIds = new HashMap<>();
+        int index = 0;
+        for (SchemaElement element : node.getElements()) {
+            if (element instanceof FieldNode field) {
+                if (field.getLengthBytes() == null) {
+                    continue;
+                }
+                if (!field.isProtocol()) {
+                    segmentNames[index] = new SerializedString(field.getName());
+                    segmentIds.putIfAbsent(field.getName(), index);
+                }
+                index++;
+            } else if (element instanceof SegmentNode child) {
+                String name = NameUtils.toLowerCamel(child.getName());
+                segmentNames[index] = new SerializedString(name);
+                segmentIds.putIfAbsent(name, index);
+                register(child, segment.getInstruction(index++).segment());
+            }
+        }
+        names[segment.getId()] = segmentNames;
+        ids[segment.getId()] = Map.copyOf(segmentIds);
+    }
+
+    private void writeObject(SegmentPlan segment,
+                             ByteBuffer buffer,
+                             JsonGenerator generator,
+                             ConversionResult<?> result,
+                             TracePath path) throws IOException {
+        SerializedString[] segmentNames = names[segment.getId()];
+        Instruction[] instructions = segment.instructions();
+        generator.writeStartObject();
+        for (int i = 0; i < instructions.length; i++) {
+            Instruction instruction = instructions[i];
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                generator.writeFieldName(segmentNames[i]);
+                path.push(instruction.pathSegment());
+                writeGroup(instruction.segment(), buffer, generator, result, path);
+                path.pop();
+            } else if (segmentNames[i] == null) {
+                readField(instruction, buffer, null, result, path);
+            } else {
+                generator.writeFieldName(segmentNames[i]);
+                readField(instruction, buffer, generator, result, path);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeGroup(SegmentPlan segment,
+                            ByteBuffer buffer,
+                            JsonGenerator generator,
+                            ConversionResult<?> result,
+                            TracePath path) throws IOException {
+        long count = WireFormat.readHeader(segment, buffer, result, path, options.getGroupIdMode());
+        if (!segment.isRepeating()) {
+            if (count == 0) {
+                generator.writeNull();
+            } else {
+                writeObject(segment, buffer, generator, result, path);
+            }
+            return;
+        }
+        if (segment.getMinSize() > 0 && count > buffer.remaining() / segment.getMinSize()) {
+            throw new BufferUnderflowException();
+        }
+        generator.writeStartArray();
+        for (int i = 0; i < count; i++) {
+            path.index(i);
+            writeObject(segment, buffer, generator, result, path);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Reads one field and writes its value, or only traces it when {@code generator} is null.
+     */
+    private void readField(Instruction instruction,
+                           ByteBuffer buffer,
+                           JsonGenerator generator,
+                           ConversionResult<?> result,
+                           TracePath path) throws IOException {
+        String leaf = instruction.pathSegment();
+        switch (instruction.kind()) {
+            case UNSIGNED_INT -> {
+                long value = WireFormat.readUnsigned(buffer, result, path, leaf);
+                if (generator != null) {
+                    generator.writeNumber(value);
+                }
+            }
+            case PACKED_DECIMAL, ZONED_DECIMAL -> {
+                boolean packed = instruction.kind() == InstructionKind.PACKED_DECIMAL;
+                if (GenericMessage.fitsLong(instruction)) {
+                    long value = WireFormat.readDecimalLongValue(buffer, instruction.length(), packed, result,
+                            path, leaf);
+                    if (generator == null) {
+                        return;
+                    }
+                    if (value == CodecSupport.NO_VALUE) {
+                        generator.writeNull();
+                    } else if (instruction.scale() == 0) {
+                        generator.writeNumber(value);
+                    } else {
+                        generator.writeNumber(BigDecimal.valueOf(value, instruction.scale()));
+                    }
+                } else {
+                    BigDecimal value = WireFormat.readDecimal(buffer, instruction.length(), instruction.scale(),
+                            packed, result, path, leaf);
+                    if (generator != null) {
+                        generator.writeNumber(value);
+                    }
+                }
+            }
+            default -> {
+                String value = instruction.kind() == InstructionKind.UNSIGNED_TEXT
+                        ? WireFormat.readUnsignedText(buffer, instruction.length(), instruction.codePage(), result,
+                        path, leaf)
+                        : WireFormat.readText(buffer, instruction.length(), instruction.codePage(), result, path, leaf);
+                if (generator != null) {
+                    generator.writeString(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the object the parser is positioned on into one slot per instruction: field values,
+     * an {@code Object[]} for a single child segment or a list of them for a repeating one.
+     * The path is only materialised for error messages.
+     */
+    private Object[] readObject(SegmentPlan segment, JsonParser parser, TracePath path) throws IOException {
+        Object[] slots = new Object[segment.getInstructionCount()];
+        Map<String, Integer> segmentIds = ids[segment.getId()];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Integer id = segmentIds.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (id == null) {
+                parser.skipChildren();
+                continue;
+            }
+            Instruction instruction = segment.getInstruction(id);
+            if (token == JsonToken.VALUE_NULL) {
+                slots[id] = null;
+            } else if (instruction.kind() == InstructionKind.SEGMENT) {
+                path.push(instruction.pathSegment());
+                slots[id] = readGroup(instruction.segment(), parser, token, path);
+                path.pop();
+            } else {
+                slots[id] = readValue(instruction, parser, token, path);
+            }
+        }
+        for (int i = 0; i < slots.length; i++) {
+            Instruction instruction = segment.getInstruction(i);
+            if (slots[i] == null && instruction.kind() == InstructionKind.SEGMENT
+                    && instruction.segment().getMinOccurs() > 0) {
+                throw new IllegalArgumentException("Missing required "
+                        + (instruction.segment().isRepeating() ? "list segment" : "segment") + " at "
+                        + path.resolve(instruction.pathSegment()));
+            }
+        }
+        return slots;
+    }
+
+    private Object readGroup(SegmentPlan segment, JsonParser parser, JsonToken token, TracePath path)
+            throws IOException {
+        if (!segment.isRepeating()) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected JSON object at " + path);
+            }
+            return readObject(segment, parser, path);
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected JSON array at " + path);
+        }
+        List<Object[]> items = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            path.index(items.size());
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected JSON object at " + path);
+            }
+            items.add(readObject(segment, parser, path));
+        }
+        return items;
+    }
+
+    private Object readValue(Instruction instruction, JsonParser parser, JsonToken token, TracePath path)
+            throws IOException {
+        if (!token.isScalarValue()) {
+            throw new IllegalArgumentException("Expected a value for " + path.resolve(instruction.pathSegment()));
+        }
+        if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getLongValue();
+            }
+            try {
+                return token == JsonToken.VALUE_NUMBER_FLOAT
+                        ? parser.getDecimalValue().longValueExact()
+                        : Long.parseLong(parser.getText().trim());
+            } catch (NumberFormatException | ArithmeticException ex) {
+                throw new IllegalArgumentException("Invalid number for " + path.resolve(instruction.pathSegment())
+                        + ": " + parser.getText());
+            }
+        }
+        if (instruction.kind().isDecimal()) {
+            if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return parser.getLongValue();
+            }
+            if (token.isNumeric()) {
+                return parser.getDecimalValue();
+            }
+        }
+        return parser.getText();
+    }
+
+    private int sizeOf(SegmentPlan segment, Object[] slots) {
+        if (segment.getFixedSize() >= 0) {
+            return segment.getFixedSize();
+        }
+        int size = segment.getBodyLength();
+        for (int i = 0; i < slots.length; i++) {
+            Instruction instruction = segment.getInstruction(i);
+            if (instruction.kind() != InstructionKind.SEGMENT) {
+                continue;
+            }
+            SegmentPlan child = instruction.segment();
+            size += child.getHeaderLength();
+            if (slots[i] instanceof List<?> items) {
+                for (Object item : items) {
+                    size += sizeOf(child, (Object[]) item);
+                }
+            } else if (slots[i] instanceof Object[] item) {
+                size += sizeOf(child, item);
+            }
+        }
+        return size;
+    }
+
+    private void writeSegmentElements(SegmentPlan segment, Object[] slots, ByteBuffer output) {
+        for (int i = 0; i < slots.length; i++) {
+            Instruction instruction = segment.getInstruction(i);
+            Object value = slots[i];
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                writeSegment(instruction.segment(), value, output);
+            } else if (instruction.kind().isDecimal()) {
+                WireFormat.writeDecimal(value, instruction.length(), instruction.scale(),
+                        instruction.kind() == InstructionKind.PACKED_DECIMAL, instruction.codePage(), output,
+                        instruction.name());
+            } else if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+                WireFormat.writeUnsigned(value == null ? 0L : (Long) value, plan.getByteOrder(), output,
+                        instruction.name());
+            } else {
+                WireFormat.writeText((String) value, instruction.length(), instruction.codePage(), output);
+            }
+        }
+    }
+
+    private void writeSegment(SegmentPlan segment, Object value, ByteBuffer output) {
+        if (value instanceof List<?> items) {
+            WireFormat.writeHeader(segment, items.size(), plan.getByteOrder(), output);
+            for (Object item : items) {
+                writeSegmentElements(segment, (Object[]) item, output);
+            }
+        } else {
+            WireFormat.writeHeader(segment, value != null ? 1 : 0, plan.getByteOrder(), output);
+            if (value != null) {
+                writeSegmentElements(segment, (Object[]) value, output);
+            }
+        }
+    }
+}
@@ -2,6 +2,12 @@ package com.rtm.mq.toolkit.runtime;
 
 import com.rtm.mq.toolkit.ir.MessageSchema;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
 /**
  * Pluggable message codec interface for marshal/unmarshal.
  */
@@ -9,4 +15,143 @@ public interface MessageCodec {
     byte[] marshal(Object pojo, MessageSchema schema);
 
     <T> ConversionResult<T> unmarshal(byte[] bytes, MessageSchema schema, Class<T> type);
+
+    /**
+     * Unmarshals one message starting at the buffer's position, which is advanced past the bytes
+     * read. The buffer's byte order is ignored and left unchanged, and trace offsets are relative
+     * to the message start. Off-heap memory such as a {@code MemorySegment} can be passed through
+     * {@code segment.asByteBuffer()}.
+     *
+     * @param buffer source buffer
+     * @param schema schema definition
+     * @param type   root class
+     * @param <T>    type of root object
+     * @return conversion result with trace metadata
+     */
+    default <T> ConversionResult<T> unmarshal(ByteBuffer buffer, MessageSchema schema, Class<T> type) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        ConversionResult<T> result = unmarshal(bytes, schema, type);
+        buffer.position(buffer.limit());
+        return result;
+    }
+
+    /**
+     * Decodes a message driven by the schema alone, for tooling without POJO classes. Offsets and
+     * numbers are kept in primitive arrays and text is decoded on access; see {@link GenericMessage}.
+     * The default decodes with default options and compiles the schema once per schemaId; codecs
+     * with their own plan or options override it.
+     *
+     * @param bytes  message bytes, which must not change while the message is in use
+     * @param schema schema definition
+     * @return generic message with trace metadata
+     */
+    default ConversionResult<GenericMessage> unmarshalGeneric(byte[] bytes, MessageSchema schema) {
+        Objects.requireNonNull(bytes, "bytes");
+        Objects.requireNonNull(schema, "schema");
+        return GenericDecoders.forSchema(schema).decode(bytes);
+    }
+
+    /**
+     * Returns the exact number of bytes {@link #marshal} would produce.
+     *
+     * @param pojo   root object
+     * @param schema schema definition
+     * @return encoded size in bytes
+     */
+    default int encodedSize(Object pojo, MessageSchema schema) {
+        return marshal(pojo, schema).length;
+    }
+
+    /**
+     * Marshals into a caller-supplied buffer starting at its position, which is advanced
+     * by the bytes written. The buffer's byte order is ignored.
+     *
+     * @param pojo   root object
+     * @param schema schema definition
+     * @param buffer target buffer
+     * @return bytes written
+     * @throws java.nio.BufferOverflowException if the message does not fit; nothing is written
+     */
+    default int marshalTo(Object pojo, MessageSchema schema, ByteBuffer buffer) {
+        byte[] bytes = marshal(pojo, schema);
+        buffer.put(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Marshals into a caller-supplied array starting at {@code offset}.
+     *
+     * @param pojo   root object
+     * @param schema schema definition
+     * @param target target array
+     * @param offset first index to write
+     * @return bytes written
+     * @throws java.nio.BufferOverflowException if the message does not fit; nothing is written
+     */
+    default int marshalTo(Object pojo, MessageSchema schema, byte[] target, int offset) {
+        return marshalTo(pojo, schema, ByteBuffer.wrap(target, offset, target.length - offset));
+    }
+
+    /**
+     * Marshals a batch on a fork/join pool. Results are in input order and a failing input is
+     * reported in its own item without stopping the others.
+     *
+     * @param pojos  root objects
+     * @param schema schema definition
+     * @param pool   pool to run on
+     * @return one item per input
+     */
+    default List<BatchItem<byte[]>> marshalAll(List<?> pojos, MessageSchema schema, ForkJoinPool pool) {
+        return Batches.run(pojos, pojo -> marshal(pojo, schema), pool);
+    }
+
+    default List<BatchItem<byte[]>> marshalAll(List<?> pojos, MessageSchema schema) {
+        return marshalAll(pojos, schema, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Collects the stream and marshals it as a batch.
+     *
+     * @see #marshalAll(List, MessageSchema, ForkJoinPool)
+     */
+    default List<BatchItem<byte[]>> marshalAll(Stream<?> pojos, MessageSchema schema, ForkJoinPool pool) {
+        return marshalAll(pojos.toList(), schema, pool);
+    }
+
+    /**
+     * Unmarshals a batch on a fork/join pool. Results are in input order and a failing message is
+     * reported in its own item without stopping the others; conversion issues stay in each result.
+     *
+     * @param messages message bytes
+     * @param schema   schema definition
+     * @param type     root class
+     * @param pool     pool to run on
+     * @param <T>      type of root object
+     * @return one item per input
+     */
+    default <T> List<BatchItem<ConversionResult<T>>> unmarshalAll(List<byte[]> messages,
+                                                                  MessageSchema schema,
+                                                                  Class<T> type,
+                                                                  ForkJoinPool pool) {
+        return Batches.run(messages, bytes -> unmarshal(bytes, schema, type), pool);
+    }
+
+    default <T> List<BatchItem<ConversionResult<T>>> unmarshalAll(List<byte[]> messages,
+                                                                  MessageSchema schema,
+                                                                  Class<T> type) {
+        return unmarshalAll(messages, schema, type, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Collects the stream and unmarshals it as a batch.
+     *
+     * @see #unmarshalAll(List, MessageSchema, Class, ForkJoinPool)
+     */
+    default <T> List<BatchItem<ConversionResult<T>>> unmarshalAll(Stream<byte[]> messages,
+                                                                  MessageSchema schema,
+                                                                  Class<T> type,
+                                                                  ForkJoinPool pool) {
+        return unmarshalAll(messages.toList(), schema, type, pool);
+    }
 }
@@ -1,28 +1,34 @@
 package com.rtm.mq.toolkit.runtime;
 
-import com.rtm.mq.toolkit.ir.FieldNode;
 import com.rtm.mq.toolkit.ir.MessageSchema;
-import com.rtm.mq.toolkit.ir.NameUtils;
-import com.rtm.mq.toolkit.ir.Occurrence;
-import com.rtm.mq.toolkit.ir.SchemaElement;
-import com.rtm.mq.toolkit.ir.SegmentNode;
-
-import java.io.ByteArrayOutputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Schema-driven marshal/unmarshal for fixed-length messages.
+ * Schemas are compiled once into a {@link CodecPlan} cached per schemaId, and bound to each root
+ * class once into a {@link SchemaBinding} cached per (schemaId, root class).
  */
 public final class MessageConverter implements MessageCodec {
     private final ConversionOptions options;
+    private final Map<String, CodecPlan> plans = new ConcurrentHashMap<>();
+    private final Map<BindingKey, SchemaBinding> bindings = new ConcurrentHashMap<>();
+    private final Map<String, GenericDecoder> decoders = new ConcurrentHashMap<>();
+    private final Map<String, JsonTranscoder> transcoders = new ConcurrentHashMap<>();
 
     public MessageConverter() {
         this(new ConversionOptions());
@@ -32,6 +38,69 @@ public final class MessageConverter implements MessageCodec {
         this.options = options;
     }
 
+    /**
+     * Returns the compiled plan for a schema, compiling it on first use.
+     *
+     * @param schema schema definition
+     * @return cached plan shared across threads
+     */
+    public CodecPlan plan(MessageSchema schema) {
+        Objects.requireNonNull(schema, "schema");
+        if (schema.getSchemaId() == null) {
+            return CodecPlan.compile(schema, options.getProtocolConfig());
+        }
+        return plans.computeIfAbsent(schema.getSchemaId(),
+                key -> CodecPlan.compile(schema, options.getProtocolConfig()));
+    }
+
+    /**
+     * Returns the binding of a schema to a root class, resolving it on first use. Call
+     * {@link SchemaBinding#requireComplete()} on it at startup to reject classes that do not
+     * match the schema before the first message arrives.
+     *
+     * @param schema schema definition
+     * @param type   root class
+     * @return cached binding shared across threads
+     */
+    public SchemaBinding binding(MessageSchema schema, Class<?> type) {
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(type, "type");
+        if (schema.getSchemaId() == null) {
+            return SchemaBinding.bind(plan(schema), type);
+        }
+        return bindings.computeIfAbsent(new BindingKey(schema.getSchemaId(), type),
+                key -> SchemaBinding.bind(plan(schema), type));
+    }
+
+    /**
+     * Returns the schema-only decoder for a schema, preparing it on first use.
+     *
+     * @param schema schema definition
+     * @return cached decoder shared across threads
+     */
+    public GenericDecoder genericDecoder(MessageSchema schema) {
+        Objects.requireNonNull(schema, "schema");
+        if (schema.getSchemaId() == null) {
+            return new GenericDecoder(plan(schema), options);
+        }
+        return decoders.computeIfAbsent(schema.getSchemaId(), key -> new GenericDecoder(plan(schema), options));
+    }
+
+    /**
+     * Returns the JSON transcoder for a schema, preparing it on first use.
+     *
+     * @param schema schema definition
+     * @return cached transcoder shared across threads
+     */
+    public JsonTranscoder jsonTranscoder(MessageSchema schema) {
+        Objects.requireNonNull(schema, "schema");
+        if (schema.getSchemaId() == null) {
+            return new JsonTranscoder(schema, plan(schema), options);
+        }
+        return transcoders.computeIfAbsent(schema.getSchemaId(),
+                key -> new JsonTranscoder(schema, plan(schema), options));
+    }
+
     /**
      * Marshals a POJO to bytes using schema definition.
      *
@@ -42,9 +111,111 @@ public final class MessageConverter implements MessageCodec {
     public byte[] marshal(Object pojo, MessageSchema schema) {
         Objects.requireNonNull(pojo, "pojo");
         Objects.requireNonNull(schema, "schema");
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        writeSegmentElements(schema.getRoot(), pojo, output, "/" + schema.getRoot().getName());
-        return output.toByteArray();
+        SchemaBinding binding = binding(schema, pojo.getClass());
+        byte[] output = new byte[sizeOf(binding, pojo)];
+        write(binding, pojo, ByteBuffer.wrap(output));
+        return output;
+    }
+
+    /**
+     * Returns the encoded size; constant for schemas without repeating or optional segments.
+     *
+     * @param pojo   root object
+     * @param schema schema definition
+     * @return encoded size in bytes
+     */
+    @Override
+    public int encodedSize(Object pojo, MessageSchema schema) {
+        Objects.requireNonNull(pojo, "pojo");
+        Objects.requireNonNull(schema, "schema");
+        return sizeOf(binding(schema, pojo.getClass()), pojo);
+    }
+
+    @Override
+    public int marshalTo(Object pojo, MessageSchema schema, ByteBuffer buffer) {
+        Objects.requireNonNull(pojo, "pojo");
+        Objects.requireNonNull(schema, "schema");
+        SchemaBinding binding = binding(schema, pojo.getClass());
+        int size = sizeOf(binding, pojo);
+        CodecSupport.requireRemaining(buffer, size);
+        write(binding, pojo, buffer);
+        return size;
+    }
+
+    /**
+     * Marshals a message whose repeating segment is supplied as an iterator, writing it to a
+     * channel in bounded chunks so neither the items nor the message are held in memory.
+     * The segment's list property on the POJO is ignored.
+     * <p>
+     * With a count up front the header is written immediately and the iterator must yield exactly
+     * that many items; otherwise the channel must be a {@link SeekableByteChannel} and the count is
+     * back-patched once the items are written. The message is not rolled back on failure.
+     *
+     * @param pojo        root object
+     * @param schema      schema definition
+     * @param segmentPath repeating segment such as {@code /Root/Txn}; enclosing segments must not repeat
+     * @param items       segment occurrences
+     * @param count       number of items, or -1 to back-patch
+     * @param channel     target channel
+     * @return bytes written
+     * @throws IOException              if the channel fails
+     * @throws IllegalStateException    if the iterator does not yield {@code count} items
+     * @throws IllegalArgumentException if the count is unknown and the channel is not seekable
+     */
+    public long marshalStreaming(Object pojo,
+                                 MessageSchema schema,
+                                 String segmentPath,
+                                 Iterator<?> items,
+                                 long count,
+                                 WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(pojo, "pojo");
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(segmentPath, "segmentPath");
+        Objects.requireNonNull(items, "items");
+        Objects.requireNonNull(channel, "channel");
+        if (count < 0 && !(channel instanceof SeekableByteChannel)) {
+            throw new IllegalArgumentException("Occurrence count is required for a non-seekable channel");
+        }
+        SchemaBinding binding = binding(schema, pojo.getClass());
+        CodecPlan plan = binding.getPlan();
+        ChannelOutput output = new ChannelOutput(channel);
+        writeStreaming(plan, binding.root(), pojo, output, plan.getRootPath(), streamRoute(plan, segmentPath), 0,
+                items, count);
+        output.flush();
+        return output.written;
+    }
+
+    /**
+     * Marshals a message whose repeating segment is supplied as a stream; the count is taken from
+     * a sized stream and back-patched otherwise.
+     *
+     * @see #marshalStreaming(Object, MessageSchema, String, Iterator, long, WritableByteChannel)
+     */
+    public long marshalStreaming(Object pojo,
+                                 MessageSchema schema,
+                                 String segmentPath,
+                                 Stream<?> items,
+                                 WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(items, "items");
+        Spliterator<?> spliterator = items.spliterator();
+        return marshalStreaming(pojo, schema, segmentPath, Spliterators.iterator(spliterator),
+                spliterator.getExactSizeIfKnown(), channel);
+    }
+
+    /**
+     * Marshals a message whose repeating segment is supplied as an iterator to an output stream,
+     * which cannot be back-patched, so the count is required.
+     *
+     * @see #marshalStreaming(Object, MessageSchema, String, Iterator, long, WritableByteChannel)
+     */
+    public long marshalStreaming(Object pojo,
+                                 MessageSchema schema,
+                                 String segmentPath,
+                                 Iterator<?> items,
+                                 long count,
+                                 OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        return marshalStreaming(pojo, schema, segmentPath, items, count, Channels.newChannel(out));
     }
 
     /**
@@ -60,355 +231,769 @@ public final class MessageConverter implements MessageCodec {
         Objects.requireNonNull(bytes, "bytes");
         Objects.requireNonNull(schema, "schema");
         Objects.requireNonNull(type, "type");
+        return read(binding(schema, type), ByteBuffer.wrap(bytes), type);
+    }
+
+    @Override
+    public <T> ConversionResult<T> unmarshal(ByteBuffer buffer, MessageSchema schema, Class<T> type) {
+        Objects.requireNonNull(buffer, "buffer");
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(type, "type");
+        ByteBuffer input = buffer.slice();
+        ConversionResult<T> result = read(binding(schema, type), input, type);
+        buffer.position(buffer.position() + input.position());
+        return result;
+    }
+
+    @Override
+    public ConversionResult<GenericMessage> unmarshalGeneric(byte[] bytes, MessageSchema schema) {
+        Objects.requireNonNull(bytes, "bytes");
+        return genericDecoder(schema).decode(bytes);
+    }
+
+    /**
+     * Compiles a projection against this converter's plan for a schema, so it decodes with the
+     * same layout as {@link #unmarshal(byte[], MessageSchema, Class)}.
+     *
+     * @param schema schema definition
+     * @param paths  schema paths starting with the root segment
+     * @return projection for {@link #unmarshal(byte[], MessageSchema, Class, Projection)}
+     * @throws IllegalArgumentException if a path does not name a field or segment of the schema
+     */
+    public Projection projection(MessageSchema schema, String... paths) {
+        return Projection.compile(plan(schema), paths);
+    }
+
+    /**
+     * Unmarshals only the fields selected by a projection; other properties keep their defaults.
+     * Unselected fields are skipped without decoding, unselected segments by reading just their
+     * occurrence counts, and bytes after the last selected field are not examined.
+     *
+     * @param bytes      message bytes
+     * @param schema     schema definition
+     * @param type       root class
+     * @param projection paths to decode, from {@link #projection} or compiled against {@link #plan}
+     * @param <T>        type of root object
+     * @return conversion result with traces for the decoded fields only
+     * @throws IllegalArgumentException if the projection was compiled against another plan
+     */
+    public <T> ConversionResult<T> unmarshal(byte[] bytes, MessageSchema schema, Class<T> type, Projection projection) {
+        Objects.requireNonNull(bytes, "bytes");
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(projection, "projection");
+        CodecPlan plan = projection.getPlan();
+        SchemaBinding binding;
+        if (schema.getSchemaId() == null) {
+            binding = SchemaBinding.bind(plan, type);
+        } else if (plan == plan(schema)) {
+            binding = binding(schema, type);
+        } else {
+            throw new IllegalArgumentException("Projection was not compiled against this converter's plan for "
+                    + schema.getSchemaId() + "; use projection(schema, paths)");
+        }
+        SchemaBinding.Segment segment = binding.root();
+        ConversionResult<Object> result = new ConversionResult<>(segment.newTarget());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(plan.getByteOrder());
+        TracePath path = TracePath.start(options, plan.getRootPath());
+        Projection.Node root = projection.root();
+        readProjected(root, segment, result.value(), buffer, result, path, root.last() + 1);
+        return result.withValue(type.cast(segment.complete(result.value())));
+    }
+
+    /**
+     * Unmarshals a message but leaves one repeating segment to be decoded lazily while iterating
+     * the returned {@link StreamedMessage}. Segments after it are still populated; reaching them
+     * costs a walk over the streamed occurrences' headers, or none when their size is fixed.
+     *
+     * @param bytes       message bytes, which must not change while items are iterated
+     * @param schema      schema definition
+     * @param type        root class
+     * @param segmentPath repeating segment such as {@code /Root/Txn}; enclosing segments must not repeat
+     * @param itemType    class of the streamed items
+     * @param <T>         type of root object
+     * @param <E>         type of streamed items
+     * @return eagerly decoded root plus an iterable over the streamed segment, each item with its
+     *         own traces and issues
+     */
+    public <T, E> StreamedMessage<T, E> unmarshalStreaming(byte[] bytes,
+                                                           MessageSchema schema,
+                                                           Class<T> type,
+                                                           String segmentPath,
+                                                           Class<E> itemType) {
+        Objects.requireNonNull(bytes, "bytes");
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(segmentPath, "segmentPath");
+        Objects.requireNonNull(itemType, "itemType");
+
+        SchemaBinding binding = binding(schema, type);
+        CodecPlan plan = binding.getPlan();
+        Instruction[] route = streamRoute(plan, segmentPath);
+        ConversionResult<Object> partial = new ConversionResult<>(binding.root().newTarget());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(plan.getByteOrder());
+        TracePath path = TracePath.start(options, plan.getRootPath());
+        StreamStart start = new StreamStart();
+        readStreaming(binding.root(), partial.value(), buffer, partial, path, route, 0, start);
+        ConversionResult<T> result = partial.withValue(type.cast(binding.root().complete(partial.value())));
+
+        SchemaBinding.Segment streamed = binding.segment(route[route.length - 1].segment());
+        Class<?> itemClass = streamed.requireType();
+        if (!itemType.isAssignableFrom(itemClass)) {
+            throw new IllegalArgumentException("Segment " + segmentPath + " decodes to " + itemClass.getName()
+                    + ", not " + itemType.getName());
+        }
+        if (start.count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many occurrences of " + segmentPath + ": " + start.count);
+        }
+        ByteBuffer items = ByteBuffer.wrap(bytes).order(plan.getByteOrder()).position(start.offset);
+        return new StreamedMessage<>(result, items, (int) start.count, () -> {
+            TracePath itemPath = TracePath.start(options, plan.getRootPath());
+            for (Instruction instruction : route) {
+                itemPath.push(instruction.pathSegment());
+            }
+            return itemPath;
+        }, (input, itemPath) -> {
+            ConversionResult<Object> item = new ConversionResult<>(streamed.newTarget());
+            readSegmentElements(streamed, item.value(), input, item, itemPath);
+            return item.withValue(itemType.cast(streamed.complete(item.value())));
+        });
+    }
 
-        ConversionResult<T> result = new ConversionResult<>(instantiate(type));
-        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(resolveByteOrder());
-        readSegmentElements(schema.getRoot(), result.value(), buffer, result, "/" + schema.getRoot().getName());
+    /**
+     * Unmarshals into an existing root, overwriting every field and reusing its segment objects:
+     * repeating-segment lists are grown or truncated in place and keep their element instances.
+     * A consumer that decodes each message into the same graph allocates little beyond decoded
+     * text and decimals. Lists that are not {@link ArrayList}s are replaced by one, and occurrences
+     * of immutable segments are replaced by new instances.
+     *
+     * @param bytes  message bytes
+     * @param schema schema definition
+     * @param root   root object to overwrite
+     * @param <T>    type of root object
+     * @return conversion result holding {@code root}
+     */
+    public <T> ConversionResult<T> unmarshalInto(byte[] bytes, MessageSchema schema, T root) {
+        Objects.requireNonNull(bytes, "bytes");
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(root, "root");
+        SchemaBinding binding = binding(schema, root.getClass());
+        if (binding.root().isImmutable()) {
+            throw new IllegalArgumentException("Cannot unmarshal into immutable " + root.getClass().getName());
+        }
+        return read(binding, ByteBuffer.wrap(bytes), root);
+    }
+
+    private <T> ConversionResult<T> read(SchemaBinding binding, ByteBuffer input, Class<T> type) {
+        SchemaBinding.Segment root = binding.root();
+        ConversionResult<Object> result = read(binding, input, root.newTarget());
+        return result.withValue(type.cast(root.complete(result.value())));
+    }
+
+    /**
+     * Decodes into a root instance, or into its argument array when the root is immutable.
+     */
+    private <T> ConversionResult<T> read(SchemaBinding binding, ByteBuffer input, T target) {
+        CodecPlan plan = binding.getPlan();
+        ConversionResult<T> result = new ConversionResult<>(target);
+        input.order(plan.getByteOrder());
+        TracePath path = TracePath.start(options, plan.getRootPath());
+        readSegmentElements(binding.root(), result.value(), input, result, path);
         return result;
     }
 
-    private void writeSegmentElements(SegmentNode segment, Object target, ByteArrayOutputStream output, String path) {
-        for (SchemaElement element : segment.getElements()) {
-            if (element instanceof FieldNode field) {
-                writeField(field, readProperty(target, field.getName()), output);
-            } else if (element instanceof SegmentNode child) {
-                writeSegment(child, target, output, path + "/" + child.getName());
+    /**
+     * Computes the encoded size of a segment occurrence, excluding its header.
+     *
+     * @param segment bound segment
+     * @param target  segment value, may be null
+     * @return size in bytes
+     */
+    static int sizeOf(SchemaBinding.Segment segment, Object target) {
+        SegmentPlan plan = segment.plan;
+        if (plan.getFixedSize() >= 0) {
+            return plan.getFixedSize();
+        }
+        int size = plan.getBodyLength();
+        Instruction[] instructions = plan.instructions();
+        for (int i = 0; i < instructions.length; i++) {
+            if (instructions[i].kind() == InstructionKind.SEGMENT) {
+                size += sizeOf(segment, i, target);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Computes the encoded size of the nested segment at instruction {@code index} including its header.
+     */
+    private static int sizeOf(SchemaBinding.Segment parent, int index, Object target) {
+        SchemaBinding.Segment child = parent.children[index];
+        Object value = readProperty(target, parent.accessors[index]);
+        int size = child.plan.getHeaderLength();
+        if (child.plan.isRepeating()) {
+            if (value instanceof List<?> list) {
+                for (Object entry : list) {
+                    size += sizeOf(child, entry);
+                }
             }
+        } else if (value != null) {
+            size += sizeOf(child, value);
         }
+        return size;
     }
 
-    private void writeSegment(SegmentNode segment, Object parent, ByteArrayOutputStream output, String path) {
-        Object value = readProperty(parent, NameUtils.toLowerCamel(segment.getName()));
-        Occurrence occurrence = segment.getOccurrence() != null ? segment.getOccurrence() : new Occurrence(1, 1);
-        int count = determineCount(value, occurrence, path);
-        writeGroupId(segment, output);
-        writeOccurrenceCount(count, output);
+    private static int sizeOf(SchemaBinding binding, Object pojo) {
+        int fixedSize = binding.getPlan().getFixedSize();
+        return fixedSize >= 0 ? fixedSize : sizeOf(binding.root(), pojo);
+    }
+
+    private void write(SchemaBinding binding, Object pojo, ByteBuffer output) {
+        CodecPlan plan = binding.getPlan();
+        writeSegmentElements(plan, binding.root(), pojo, output, plan.getRootPath());
+    }
+
+    private void writeSegmentElements(CodecPlan plan,
+                                      SchemaBinding.Segment segment,
+                                      Object target,
+                                      ByteBuffer output,
+                                      String path) {
+        Instruction[] instructions = segment.plan.instructions();
+        for (int i = 0; i < instructions.length; i++) {
+            Instruction instruction = instructions[i];
+            PropertyAccessor accessor = segment.accessors[i];
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                writeSegment(plan, segment, i, target, output, path + instruction.pathSegment());
+            } else if (!writeLongField(plan, instruction, accessor, target, output)) {
+                writeField(plan, instruction, readProperty(target, accessor), output);
+            }
+        }
+    }
 
-        if (occurrence.isRepeating()) {
+    private void writeSegment(CodecPlan plan,
+                              SchemaBinding.Segment parent,
+                              int index,
+                              Object target,
+                              ByteBuffer output,
+                              String path) {
+        SchemaBinding.Segment segment = parent.children[index];
+        Object value = readProperty(target, parent.accessors[index]);
+        WireFormat.writeHeader(segment.plan, value, plan.getByteOrder(), output, path);
+
+        if (segment.plan.isRepeating()) {
             if (value instanceof List<?> list) {
                 for (int i = 0; i < list.size(); i++) {
                     Object entry = list.get(i);
-                    writeSegmentElements(segment, entry, output, path + "[" + i + "]");
+                    writeSegmentElements(plan, segment, entry, output, path + "[" + i + "]");
                 }
             }
         } else if (value != null) {
-            writeSegmentElements(segment, value, output, path);
+            writeSegmentElements(plan, segment, value, output, path);
         }
     }
 
-    private void readSegmentElements(SegmentNode segment,
+    private void readSegmentElements(SchemaBinding.Segment segment,
                                      Object target,
                                      ByteBuffer buffer,
                                      ConversionResult<?> result,
-                                     String path) {
-        for (SchemaElement element : segment.getElements()) {
-            if (element instanceof FieldNode field) {
-                Object value = readField(field, buffer, result, path + "/" + field.getName());
-                writeProperty(target, field.getName(), value);
-            } else if (element instanceof SegmentNode child) {
-                readSegment(child, target, buffer, result, path + "/" + child.getName());
+                                     TracePath path) {
+        Instruction[] instructions = segment.plan.instructions();
+        for (int i = 0; i < instructions.length; i++) {
+            Instruction instruction = instructions[i];
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                path.push(instruction.pathSegment());
+                readSegment(segment, i, target, buffer, result, path, null);
+                path.pop();
+            } else {
+                readField(instruction, segment.decoders[i], target, buffer, result, path);
             }
         }
     }
 
-    private void readSegment(SegmentNode segment,
-                             Object parent,
+    /**
+     * Reads the nested segment at instruction {@code index}; a projection node restricts which
+     * fields of each occurrence are decoded.
+     */
+    private void readSegment(SchemaBinding.Segment parent,
+                             int index,
+                             Object target,
                              ByteBuffer buffer,
                              ConversionResult<?> result,
-                             String path) {
-        String groupIdField = options.getProtocolConfig().getGroupIdFieldName();
-        String occurrenceField = options.getProtocolConfig().getOccurrenceFieldName();
-        String groupId = readGroupId(segment, buffer, result, path + "/" + groupIdField);
-        if (segment.getProtocol() != null && segment.getProtocol().getGroupIdValue() != null) {
-            String expected = segment.getProtocol().getGroupIdValue();
-            if (!expected.equals(groupId)) {
-                String message = "Expected groupId " + expected + " but found " + groupId;
-                if (options.getGroupIdMode() == GroupIdMode.STRICT) {
-                    result.issues().add(new ConversionIssue("ERROR", path, message));
+                             TracePath path,
+                             Projection.Node projection) {
+        SchemaBinding.Segment segment = parent.children[index];
+        PropertyAccessor decoder = parent.decoders[index];
+        long count = WireFormat.readHeader(segment.plan, buffer, result, path, options.getGroupIdMode());
+
+        if (segment.plan.isRepeating()) {
+            List<Object> list = reusableList(readProperty(target, decoder));
+            int reused = list.size();
+            Object[] arguments = null;
+            for (int i = 0; i < count; i++) {
+                path.index(i);
+                Object entry;
+                if (segment.isImmutable()) {
+                    if (arguments == null) {
+                        arguments = (Object[]) segment.newTarget();
+                    } else {
+                        segment.reset(arguments);
+                    }
+                    readBody(segment, projection, arguments, buffer, result, path);
+                    entry = segment.complete(arguments);
+                } else {
+                    entry = i < reused ? list.get(i) : null;
+                    if (entry == null) {
+                        entry = segment.newTarget();
+                    }
+                    readBody(segment, projection, entry, buffer, result, path);
+                }
+                if (i < reused) {
+                    list.set(i, entry);
                 } else {
-                    result.issues().add(new ConversionIssue("WARN", path, message));
+                    list.add(entry);
                 }
             }
+            if (reused > count) {
+                list.subList((int) count, reused).clear();
+            }
+            writeProperty(target, decoder, list);
+        } else if (count == 0) {
+            writeProperty(target, decoder, null);
+        } else {
+            Object entry = segment.isImmutable() ? null : readProperty(target, decoder);
+            if (entry == null) {
+                entry = segment.newTarget();
+            }
+            readBody(segment, projection, entry, buffer, result, path);
+            writeProperty(target, decoder, segment.complete(entry));
         }
-        long count = readOccurrenceCount(segment, buffer, result, path + "/" + occurrenceField);
-        Occurrence occurrence = segment.getOccurrence() != null ? segment.getOccurrence() : new Occurrence(1, 1);
-        if (!occurrence.isRepeating() && count != 1) {
-            result.issues().add(new ConversionIssue("WARN", path, "Expected occurenceCount 1 but found " + count));
-        }
+    }
 
-        if (occurrence.isRepeating()) {
-            List<Object> list = new ArrayList<>();
-            for (int i = 0; i < count; i++) {
-                Object entry = instantiate(resolveSegmentClass(parent, segment));
-                readSegmentElements(segment, entry, buffer, result, path + "[" + i + "]");
-                list.add(entry);
+    /**
+     * Writes a segment occurrence like {@link #writeSegmentElements}, except that the segment at
+     * the end of {@code route} takes its occurrences from {@code items}.
+     */
+    private void writeStreaming(CodecPlan plan,
+                                SchemaBinding.Segment segment,
+                                Object target,
+                                ChannelOutput output,
+                                String path,
+                                Instruction[] route,
+                                int depth,
+                                Iterator<?> items,
+                                long count) throws IOException {
+        Instruction[] instructions = segment.plan.instructions();
+        for (int i = 0; i < instructions.length; i++) {
+            Instruction instruction = instructions[i];
+            PropertyAccessor accessor = segment.accessors[i];
+            if (instruction != route[depth]) {
+                if (instruction.kind() == InstructionKind.SEGMENT) {
+                    writeSegment(plan, segment, i, target, output.reserve(sizeOf(segment, i, target)),
+                            path + instruction.pathSegment());
+                } else {
+                    ByteBuffer buffer = output.reserve(instruction.length());
+                    if (!writeLongField(plan, instruction, accessor, target, buffer)) {
+                        writeField(plan, instruction, readProperty(target, accessor), buffer);
+                    }
+                }
+                continue;
+            }
+            SchemaBinding.Segment bound = segment.children[i];
+            SegmentPlan child = bound.plan;
+            String childPath = path + instruction.pathSegment();
+            if (depth < route.length - 1) {
+                Object value = readProperty(target, accessor);
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing segment at " + childPath);
+                }
+                WireFormat.writeHeader(child, 1, plan.getByteOrder(), output.reserve(child.getHeaderLength()));
+                writeStreaming(plan, bound, value, output, childPath, route, depth + 1, items, count);
+                continue;
+            }
+            ByteBuffer header = output.reserve(child.getHeaderLength());
+            long countPosition = output.position() + child.getGroupIdLength();
+            WireFormat.writeHeader(child, Math.max(count, 0), plan.getByteOrder(), header);
+            long written = 0;
+            while (items.hasNext()) {
+                Object item = Objects.requireNonNull(items.next(), "item");
+                if (written == count) {
+                    throw new IllegalStateException("More than " + count + " items for " + childPath);
+                }
+                writeSegmentElements(plan, bound, item, output.reserve(sizeOf(bound, item)),
+                        childPath + "[" + written + "]");
+                written++;
+            }
+            if (count >= 0 && written != count) {
+                throw new IllegalStateException("Expected " + count + " items for " + childPath + " but got " + written);
+            }
+            if (written < child.getMinOccurs()) {
+                throw new IllegalArgumentException("Missing required list segment at " + childPath);
+            }
+            if (count < 0) {
+                ByteBuffer patched = ByteBuffer.allocate(child.getOccurrenceLength());
+                WireFormat.writeOccurrenceCount(child, written, plan.getByteOrder(), patched);
+                output.patch(countPosition, patched.flip());
             }
-            writeProperty(parent, NameUtils.toLowerCamel(segment.getName()), list);
-        } else {
-            Object entry = instantiate(resolveSegmentClass(parent, segment));
-            readSegmentElements(segment, entry, buffer, result, path);
-            writeProperty(parent, NameUtils.toLowerCamel(segment.getName()), entry);
         }
     }
 
-    private String readGroupId(SegmentNode segment, ByteBuffer buffer, ConversionResult<?> result, String path) {
-        int start = buffer.position();
-        int length = resolveGroupIdLength(segment);
-        byte[] data = new byte[length];
-        buffer.get(data);
-        result.traces().add(new FieldTrace(path, start, data.length));
-        return decodeString(data);
+    /**
+     * Reads a segment occurrence like {@link #readSegmentElements}, except that the segment at the
+     * end of {@code route} only has its header read and its occurrences skipped.
+     */
+    private void readStreaming(SchemaBinding.Segment segment,
+                               Object target,
+                               ByteBuffer buffer,
+                               ConversionResult<?> result,
+                               TracePath path,
+                               Instruction[] route,
+                               int depth,
+                               StreamStart start) {
+        Instruction[] instructions = segment.plan.instructions();
+        for (int i = 0; i < instructions.length; i++) {
+            Instruction instruction = instructions[i];
+            if (instruction != route[depth]) {
+                if (instruction.kind() == InstructionKind.SEGMENT) {
+                    path.push(instruction.pathSegment());
+                    readSegment(segment, i, target, buffer, result, path, null);
+                    path.pop();
+                } else {
+                    readField(instruction, segment.decoders[i], target, buffer, result, path);
+                }
+                continue;
+            }
+            SchemaBinding.Segment child = segment.children[i];
+            path.push(instruction.pathSegment());
+            long count = WireFormat.readHeader(child.plan, buffer, result, path, options.getGroupIdMode());
+            if (depth == route.length - 1) {
+                start.offset = buffer.position();
+                start.count = count;
+                WireFormat.skipBodies(child.plan, count, buffer, result, path);
+            } else if (count > 0) {
+                Object entry = child.newTarget();
+                readStreaming(child, entry, buffer, result, path, route, depth + 1, start);
+                writeProperty(target, segment.decoders[i], child.complete(entry));
+            }
+            path.pop();
+        }
     }
 
-    private void writeGroupId(SegmentNode segment, ByteArrayOutputStream output) {
-        String value = segment.getProtocol() != null ? segment.getProtocol().getGroupIdValue() : null;
-        writeString(value, resolveGroupIdLength(segment), output);
+    private static Instruction[] streamRoute(CodecPlan plan, String segmentPath) {
+        String rootPath = plan.getRootPath();
+        if (!segmentPath.startsWith(rootPath + "/")) {
+            throw new IllegalArgumentException("Path " + segmentPath + " is not under " + rootPath);
+        }
+        String[] names = segmentPath.substring(rootPath.length() + 1).split("/");
+        Instruction[] route = new Instruction[names.length];
+        SegmentPlan segment = plan.getRoot();
+        for (int i = 0; i < names.length; i++) {
+            Instruction found = null;
+            for (Instruction instruction : segment.instructions()) {
+                if (instruction.kind() == InstructionKind.SEGMENT && instruction.name().equals(names[i])) {
+                    found = instruction;
+                }
+            }
+            if (found == null) {
+                throw new IllegalArgumentException("Unknown segment path " + segmentPath);
+            }
+            boolean last = i == names.length - 1;
+            if (found.segment().isRepeating() != last) {
+                throw new IllegalArgumentException(last
+                        ? "Segment " + segmentPath + " does not repeat"
+                        : "Segment " + found.name() + " in " + segmentPath + " repeats");
+            }
+            route[i] = found;
+            segment = found.segment();
+        }
+        return route;
     }
 
-    private long readOccurrenceCount(SegmentNode segment,
-                                     ByteBuffer buffer,
-                                     ConversionResult<?> result,
-                                     String path) {
-        int start = buffer.position();
-        int length = resolveOccurrenceLength(segment);
-        byte[] data = new byte[length];
-        buffer.get(data);
-        result.traces().add(new FieldTrace(path, start, length));
-        if (length == 4) {
-            return Integer.toUnsignedLong(ByteBuffer.wrap(data).order(resolveByteOrder()).getInt());
-        }
-        String text = decodeString(data);
-        if (text == null || text.isBlank()) {
-            return 0L;
-        }
-        try {
-            return Long.parseLong(text.trim());
-        } catch (NumberFormatException ex) {
-            result.issues().add(new ConversionIssue("WARN", path, "Invalid occurrence value: " + text));
-            return 0L;
-        }
-    }
-
-    private void writeOccurrenceCount(long value, ByteArrayOutputStream output) {
-        if (value < 0 || value > 0xFFFF_FFFFL) {
-            throw new IllegalArgumentException("OccurrenceCount out of range: " + value);
-        }
-        int length = resolveOccurrenceLength(null);
-        if (length == 4) {
-            ByteBuffer buffer = ByteBuffer.allocate(4).order(resolveByteOrder());
-            buffer.putInt((int) value);
-            output.writeBytes(buffer.array());
-            return;
+    @SuppressWarnings("unchecked")
+    private static List<Object> reusableList(Object current) {
+        if (current instanceof ArrayList<?> list) {
+            return (List<Object>) list;
         }
-        writeString(String.valueOf(value), length, output);
+        return current instanceof List<?> list ? new ArrayList<>(list) : new ArrayList<>();
     }
 
-    private Object readField(FieldNode field,
-                             ByteBuffer buffer,
-                             ConversionResult<?> result,
-                             String path) {
-        if (field.getLengthBytes() == null) {
-            return null;
-        }
-        int start = buffer.position();
-        byte[] data = new byte[field.getLengthBytes()];
-        buffer.get(data);
-        result.traces().add(new FieldTrace(path, start, data.length));
-
-        if (isBinaryUnsigned(field)) {
-            if (data.length != 4) {
-                result.issues().add(new ConversionIssue("WARN", path, "Expected 4 bytes for unsigned integer"));
-                return decodeString(data);
-            }
-            return Integer.toUnsignedLong(ByteBuffer.wrap(data).order(resolveByteOrder()).getInt());
+    private void readBody(SchemaBinding.Segment segment,
+                          Projection.Node projection,
+                          Object target,
+                          ByteBuffer buffer,
+                          ConversionResult<?> result,
+                          TracePath path) {
+        if (projection == null) {
+            readSegmentElements(segment, target, buffer, result, path);
+        } else {
+            readProjected(projection, segment, target, buffer, result, path, segment.plan.getInstructionCount());
         }
-        return decodeString(data);
     }
 
-    private void writeField(FieldNode field, Object value, ByteArrayOutputStream output) {
-        if (field.getLengthBytes() == null) {
+    /**
+     * Reads the first {@code end} instructions of a segment occurrence, decoding only what the
+     * projection node selects; a fully selected node reads the whole occurrence.
+     */
+    private void readProjected(Projection.Node node,
+                               SchemaBinding.Segment segment,
+                               Object target,
+                               ByteBuffer buffer,
+                               ConversionResult<?> result,
+                               TracePath path,
+                               int end) {
+        Instruction[] instructions = node.segment.instructions();
+        if (node.all) {
+            readSegmentElements(segment, target, buffer, result, path);
             return;
         }
-        int length = field.getLengthBytes();
-        if (isBinaryUnsigned(field) && length == 4) {
-            long number = value == null ? 0L : ((Number) value).longValue();
-            if (number < 0 || number > 0xFFFF_FFFFL) {
-                throw new IllegalArgumentException("Unsigned int out of range for " + field.getName());
+        for (int i = 0; i < end; i++) {
+            Instruction instruction = instructions[i];
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                path.push(instruction.pathSegment());
+                if (node.children[i] != null) {
+                    readSegment(segment, i, target, buffer, result, path, node.children[i]);
+                } else {
+                    WireFormat.skipSegment(instruction.segment(), buffer, result, path);
+                }
+                path.pop();
+            } else if (!node.fields[i]) {
+                WireFormat.skip(buffer, instruction.length());
+            } else {
+                readField(instruction, segment.decoders[i], target, buffer, result, path);
             }
-            ByteBuffer buffer = ByteBuffer.allocate(4).order(resolveByteOrder());
-            buffer.putInt((int) number);
-            output.writeBytes(buffer.array());
-            return;
         }
-        String text = value == null ? null : String.valueOf(value);
-        writeString(text, length, output);
     }
 
-    private boolean isBinaryUnsigned(FieldNode field) {
-        String datatype = field.getDatatype() != null ? field.getDatatype().toLowerCase() : "";
-        return datatype.contains("unsigned") || datatype.contains("integer") || datatype.contains("long");
+    private void readField(Instruction instruction,
+                           PropertyAccessor accessor,
+                           Object target,
+                           ByteBuffer buffer,
+                           ConversionResult<?> result,
+                           TracePath path) {
+        if (!readLongField(instruction, accessor, target, buffer, result, path)) {
+            Object value = instruction.kind().isDecimal()
+                    ? readDecimal(instruction, accessor, target, buffer, result, path)
+                    : readField(instruction, buffer, result, path);
+            if (target != null && accessor != null && !accessor.accepts(value)) {
+                CodecSupport.unassignable(value, accessor.getType().getSimpleName(), result, path,
+                        instruction.pathSegment());
+            } else {
+                writeProperty(target, accessor, value);
+            }
+        }
     }
 
-    private int resolveGroupIdLength(SegmentNode segment) {
-        if (segment != null && segment.getProtocol() != null && segment.getProtocol().getGroupId() != null
-                && segment.getProtocol().getGroupId().getLengthBytes() != null) {
-            return segment.getProtocol().getGroupId().getLengthBytes();
-        }
-        return options.getProtocolConfig().getGroupIdLength();
+    private Object readField(Instruction instruction,
+                             ByteBuffer buffer,
+                             ConversionResult<?> result,
+                             TracePath path) {
+        String leaf = instruction.pathSegment();
+        return switch (instruction.kind()) {
+            case UNSIGNED_INT -> WireFormat.readUnsigned(buffer, result, path, leaf);
+            case UNSIGNED_TEXT -> WireFormat.readUnsignedText(buffer, instruction.length(), instruction.codePage(),
+                    result, path, leaf);
+            default -> WireFormat.readText(buffer, instruction.length(), instruction.codePage(), result, path, leaf);
+        };
     }
 
-    private int resolveOccurrenceLength(SegmentNode segment) {
-        if (segment != null && segment.getProtocol() != null && segment.getProtocol().getOccurrenceCount() != null
-                && segment.getProtocol().getOccurrenceCount().getLengthBytes() != null) {
-            return segment.getProtocol().getOccurrenceCount().getLengthBytes();
+    /**
+     * Reads a uint32 or scale-0 decimal straight into a primitive {@code long} property; blank or
+     * invalid decimals leave it unset.
+     *
+     * @return false if the property is not a primitive long and the field was not consumed
+     */
+    private boolean readLongField(Instruction instruction,
+                                  PropertyAccessor bound,
+                                  Object target,
+                                  ByteBuffer buffer,
+                                  ConversionResult<?> result,
+                                  TracePath path) {
+        boolean decimal = instruction.kind().isDecimal() && instruction.scale() == 0;
+        if (instruction.kind() != InstructionKind.UNSIGNED_INT && !decimal) {
+            return false;
+        }
+        PropertyAccessor accessor = longAccessor(target, bound);
+        if (accessor == null) {
+            return false;
+        }
+        if (!decimal) {
+            accessor.setLong(target, WireFormat.readUnsigned(buffer, result, path, instruction.pathSegment()));
+            return true;
+        }
+        long value = WireFormat.readDecimalLongValue(buffer, instruction.length(),
+                instruction.kind() == InstructionKind.PACKED_DECIMAL, result, path, instruction.pathSegment());
+        if (value != CodecSupport.NO_VALUE) {
+            accessor.setLong(target, value);
+        } else {
+            accessor.clearLong(target);
         }
-        return options.getProtocolConfig().getOccurrenceLength();
+        return true;
     }
 
-    private ByteOrder resolveByteOrder() {
-        String order = options.getProtocolConfig().getByteOrder();
-        if (order != null && order.equalsIgnoreCase("LITTLE_ENDIAN")) {
-            return ByteOrder.LITTLE_ENDIAN;
+    /**
+     * Reads a packed/zoned decimal as {@link BigDecimal}, or straight to {@code Long} when the
+     * property is a {@code Long} and the scale is 0.
+     */
+    private Object readDecimal(Instruction instruction,
+                               PropertyAccessor accessor,
+                               Object target,
+                               ByteBuffer buffer,
+                               ConversionResult<?> result,
+                               TracePath path) {
+        boolean packed = instruction.kind() == InstructionKind.PACKED_DECIMAL;
+        if (instruction.scale() == 0 && target != null) {
+            if (accessor != null && accessor.getType() == Long.class) {
+                return WireFormat.readDecimalLong(buffer, instruction.length(), packed, result, path,
+                        instruction.pathSegment());
+            }
         }
-        return ByteOrder.BIG_ENDIAN;
+        return WireFormat.readDecimal(buffer, instruction.length(), instruction.scale(), packed, result, path,
+                instruction.pathSegment());
     }
 
-    private String decodeString(byte[] data) {
-        String raw = new String(data, StandardCharsets.US_ASCII);
-        if (raw.trim().isEmpty()) {
-            return null;
+    private void writeField(CodecPlan plan, Instruction instruction, Object value, ByteBuffer output) {
+        if (instruction.kind().isDecimal()) {
+            WireFormat.writeDecimal(value, instruction.length(), instruction.scale(),
+                    instruction.kind() == InstructionKind.PACKED_DECIMAL, instruction.codePage(), output,
+                    instruction.name());
+            return;
         }
-        int end = raw.length();
-        while (end > 0 && raw.charAt(end - 1) == ' ') {
-            end--;
+        if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+            long number = value == null ? 0L : ((Number) value).longValue();
+            WireFormat.writeUnsigned(number, plan.getByteOrder(), output, instruction.name());
+            return;
         }
-        return raw.substring(0, end);
+        String text = value == null ? null : String.valueOf(value);
+        WireFormat.writeText(text, instruction.length(), instruction.codePage(), output);
     }
 
-    private void writeString(String value, int length, ByteArrayOutputStream output) {
-        String text = value == null ? "" : value;
-        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
-        if (bytes.length > length) {
-            throw new IllegalArgumentException("Value too long for field length " + length);
+    /**
+     * Writes a uint32 or decimal field from a primitive {@code long} property without boxing.
+     *
+     * @return false if the property is not a primitive long and nothing was written
+     */
+    private boolean writeLongField(CodecPlan plan,
+                                   Instruction instruction,
+                                   PropertyAccessor bound,
+                                   Object target,
+                                   ByteBuffer output) {
+        if (instruction.kind() != InstructionKind.UNSIGNED_INT && !instruction.kind().isDecimal()) {
+            return false;
+        }
+        PropertyAccessor accessor = longAccessor(target, bound);
+        if (accessor == null) {
+            return false;
+        }
+        long value = accessor.getLong(target);
+        if (instruction.kind() == InstructionKind.UNSIGNED_INT) {
+            WireFormat.writeUnsigned(value, plan.getByteOrder(), output, instruction.name());
+        } else {
+            WireFormat.writeDecimal(value, instruction.length(), instruction.scale(),
+                    instruction.kind() == InstructionKind.PACKED_DECIMAL, instruction.codePage(), output,
+                    instruction.name());
         }
-        byte[] padded = Arrays.copyOf(bytes, length);
-        Arrays.fill(padded, bytes.length, length, (byte) ' ');
-        output.writeBytes(padded);
+        return true;
     }
 
-    private int determineCount(Object value, Occurrence occurrence, String path) {
-        if (occurrence.isRepeating()) {
-            if (value == null) {
-                if (occurrence.getMinOccurs() > 0) {
-                    throw new IllegalArgumentException("Missing required list segment at " + path);
-                }
-                return 0;
-            }
-            if (!(value instanceof List<?> list)) {
-                throw new IllegalArgumentException("Expected list for repeating segment at " + path);
-            }
-            return list.size();
-        }
-        if (value == null) {
-            if (occurrence.getMinOccurs() > 0) {
-                throw new IllegalArgumentException("Missing required segment at " + path);
-            }
-            return 0;
-        }
-        return 1;
+    private static PropertyAccessor longAccessor(Object target, PropertyAccessor accessor) {
+        return target != null && accessor != null && accessor.isLong() ? accessor : null;
     }
 
-    private Object readProperty(Object target, String fieldName) {
-        if (target == null || fieldName == null) {
-            return null;
-        }
-        Method getter = findGetter(target.getClass(), fieldName);
-        if (getter != null) {
-            try {
-                return getter.invoke(target);
-            } catch (Exception ignored) {
-            }
-        }
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Exception ignored) {
-            return null;
-        }
+    private static Object readProperty(Object target, PropertyAccessor accessor) {
+        return target != null && accessor != null ? accessor.get(target) : null;
     }
 
-    private void writeProperty(Object target, String fieldName, Object value) {
-        if (target == null || fieldName == null) {
-            return;
+    private static void writeProperty(Object target, PropertyAccessor accessor, Object value) {
+        if (target != null && accessor != null && accessor.accepts(value)) {
+            accessor.set(target, value);
         }
-        Method setter = findSetter(target.getClass(), fieldName, value);
-        if (setter != null) {
-            try {
-                setter.invoke(target, value);
-                return;
-            } catch (Exception ignored) {
-                return;
+    }
+
+    /**
+     * Chunk buffer in front of a channel; fields and whole segment occurrences are encoded into it
+     * and it is drained whenever the next one does not fit.
+     */
+    private static final class ChannelOutput {
+        private static final int CHUNK_SIZE = 8192;
+
+        private final WritableByteChannel channel;
+        private final List<Patch> patches = new ArrayList<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        private long written;
+
+        private ChannelOutput(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Returns the buffer with room for {@code size} more bytes at its position.
+         */
+        private ByteBuffer reserve(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                drain();
+                if (buffer.capacity() < size) {
+                    buffer = ByteBuffer.allocate(size);
+                }
             }
+            return buffer;
         }
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(target, value);
-        } catch (Exception ignored) {
-        }
-    }
 
-    private Method findGetter(Class<?> type, String fieldName) {
-        String methodName = "get" + NameUtils.toUpperCamel(fieldName);
-        try {
-            return type.getMethod(methodName);
-        } catch (NoSuchMethodException ex) {
-            return null;
+        /**
+         * Returns the message offset of the next byte to be written.
+         */
+        private long position() {
+            return written + buffer.position();
         }
-    }
 
-    private Method findSetter(Class<?> type, String fieldName, Object value) {
-        String methodName = "set" + NameUtils.toUpperCamel(fieldName);
-        Method[] methods = type.getMethods();
-        for (Method method : methods) {
-            if (method.getName().equals(methodName) && method.getParameterCount() == 1) {
-                if (value == null || method.getParameterTypes()[0].isAssignableFrom(value.getClass())) {
-                    return method;
-                }
+        /**
+         * Rewrites bytes already written; patches still in the buffer are applied in place, the
+         * others once the buffer is flushed.
+         */
+        private void patch(long position, ByteBuffer bytes) {
+            if (position >= written) {
+                buffer.put((int) (position - written), bytes, 0, bytes.remaining());
+            } else {
+                patches.add(new Patch(position, bytes));
             }
         }
-        return null;
-    }
 
-    private Class<?> resolveSegmentClass(Object parent, SegmentNode segment) {
-        if (parent != null) {
-            String basePackage = parent.getClass().getPackageName();
-            try {
-                return Class.forName(basePackage + "." + segment.getName());
-            } catch (ClassNotFoundException ignored) {
+        private void flush() throws IOException {
+            drain();
+            if (patches.isEmpty()) {
+                return;
             }
-            try {
-                Field field = parent.getClass().getDeclaredField(NameUtils.toLowerCamel(segment.getName()));
-                Class<?> type = field.getType();
-                if (!List.class.isAssignableFrom(type)) {
-                    return type;
+            SeekableByteChannel seekable = (SeekableByteChannel) channel;
+            long end = seekable.position();
+            long start = end - written;
+            for (Patch patch : patches) {
+                seekable.position(start + patch.position());
+                while (patch.bytes().hasRemaining()) {
+                    seekable.write(patch.bytes());
                 }
-            } catch (NoSuchFieldException ignored) {
             }
-            Method getter = findGetter(parent.getClass(), NameUtils.toLowerCamel(segment.getName()));
-            if (getter != null && !List.class.isAssignableFrom(getter.getReturnType())) {
-                return getter.getReturnType();
+            seekable.position(end);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            written += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
             }
+            buffer.clear();
         }
-        throw new IllegalStateException("Unable to resolve class for segment " + segment.getName());
     }
 
-    private <T> T instantiate(Class<T> type) {
-        try {
-            return type.getDeclaredConstructor().newInstance();
-        } catch (Exception ex) {
-            throw new IllegalStateException("Failed to instantiate " + type.getName(), ex);
-        }
+    private record Patch(long position, ByteBuffer bytes) {
+    }
+
+    /**
+     * Where the streamed segment's occurrences begin, found while reading the rest of the message.
+     */
+    private static final class StreamStart {
+        private int offset;
+        private long count;
+    }
+
+    private record BindingKey(String schemaId, Class<?> type) {
     }
 }
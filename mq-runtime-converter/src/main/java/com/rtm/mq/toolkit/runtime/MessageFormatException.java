@@ -0,0 +1,40 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Structural error raised by fail-fast unmarshalling. It has no stack trace and builds its
+ * message only when asked, so rejecting a malformed message costs little more than the read.
+ * The path id is the segment's {@link SegmentPlan#getId() id}; resolve it with
+ * {@link CodecPlan#segmentPath(int)}.
+ */
+public final class MessageFormatException extends RuntimeException {
+    private final String reason;
+    private final int offset;
+    private final int pathId;
+
+    public MessageFormatException(String reason, int offset, int pathId) {
+        super(null, null, false, false);
+        this.reason = reason;
+        this.offset = offset;
+        this.pathId = pathId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the offset of the segment header where decoding stopped.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getPathId() {
+        return pathId;
+    }
+
+    @Override
+    public String getMessage() {
+        return reason + " at offset " + offset + " in segment " + pathId;
+    }
+}
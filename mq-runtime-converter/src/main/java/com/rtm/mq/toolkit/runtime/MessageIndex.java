@@ -0,0 +1,105 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Offsets of every segment occurrence in one message, produced by {@link MessageIndexer}.
+ * Entries are in wire order and stored in a single {@code int[]}; the root occurrence is entry 0.
+ * Segments with no occurrences have no entries.
+ */
+public final class MessageIndex {
+    static final int STRIDE = 6;
+    static final int SEGMENT = 0;
+    static final int PARENT = 1;
+    static final int OCCURRENCE = 2;
+    static final int COUNT = 3;
+    static final int START = 4;
+    static final int END = 5;
+
+    private final int[] data;
+    private final int size;
+
+    MessageIndex(int[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of indexed occurrences.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the segment id of an entry, as numbered by {@link MessageIndexer#segmentId(String)}.
+     */
+    public int segment(int entry) {
+        return get(entry, SEGMENT);
+    }
+
+    /**
+     * Returns the entry of the enclosing occurrence, or -1 for the root.
+     */
+    public int parent(int entry) {
+        return get(entry, PARENT);
+    }
+
+    /**
+     * Returns the zero-based occurrence index within the entry's segment header.
+     */
+    public int occurrence(int entry) {
+        return get(entry, OCCURRENCE);
+    }
+
+    /**
+     * Returns the occurrence count declared by the entry's segment header; 1 for the root and for
+     * single segments.
+     */
+    public int count(int entry) {
+        return get(entry, COUNT);
+    }
+
+    /**
+     * Returns the offset of the entry's first field; the header of occurrence 0 sits just before it.
+     */
+    public int start(int entry) {
+        return get(entry, START);
+    }
+
+    /**
+     * Returns the offset just past the entry, nested segments included.
+     */
+    public int end(int entry) {
+        return get(entry, END);
+    }
+
+    /**
+     * Finds the next occurrence of a segment.
+     *
+     * @param segment segment id
+     * @param from    first entry to examine
+     * @return entry, or -1 if there is none
+     */
+    public int next(int segment, int from) {
+        for (int entry = Math.max(from, 0); entry < size; entry++) {
+            if (data[entry * STRIDE + SEGMENT] == segment) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of the raw index, six ints per entry: segment, parent,
+     * occurrence, count, start and end.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size * STRIDE);
+    }
+
+    private int get(int entry, int field) {
+        return data[Objects.checkIndex(entry, size) * STRIDE + field];
+    }
+}
@@ -0,0 +1,254 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds a {@link MessageIndex} by reading only segment headers: field bytes are skipped by
+ * length and never decoded, so indexing costs one pass over the headers. GroupIds are checked
+ * only in {@link GroupIdMode#STRICT} mode, so messages decoded with WARN can be indexed too.
+ * <p>
+ * Segments are numbered in schema order starting with the root at 0. Immutable and thread-safe.
+ */
+public final class MessageIndexer {
+    private final CodecPlan plan;
+    private final GroupIdMode groupIdMode;
+    private final SegmentPlan[] segments;
+    private final String[] paths;
+    private final byte[][] groupIds;
+    private final int[][] steps;
+
+    /**
+     * Prepares an indexer for a compiled schema with default options.
+     *
+     * @param plan compiled schema
+     */
+    public MessageIndexer(CodecPlan plan) {
+        this(plan, new ConversionOptions());
+    }
+
+    /**
+     * Prepares an indexer for a compiled schema.
+     *
+     * @param plan    compiled schema
+     * @param options options supplying the groupId mode
+     */
+    public MessageIndexer(CodecPlan plan, ConversionOptions options) {
+        this.plan = Objects.requireNonNull(plan, "plan");
+        this.groupIdMode = options.getGroupIdMode();
+        List<SegmentPlan> segmentList = new ArrayList<>();
+        List<String> pathList = new ArrayList<>();
+        List<int[]> stepList = new ArrayList<>();
+        number(plan.getRoot(), plan.getRootPath(), segmentList, pathList, stepList);
+        this.segments = segmentList.toArray(new SegmentPlan[0]);
+        this.paths = pathList.toArray(new String[0]);
+        this.steps = stepList.toArray(new int[0][]);
+        this.groupIds = new byte[segments.length][];
+        for (int i = 1; i < segments.length; i++) {
+            groupIds[i] = encodedGroupId(segments[i]);
+        }
+    }
+
+    public CodecPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the number of segments in the schema.
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Returns the id of a segment path such as {@code /Root/Txn}.
+     *
+     * @param path segment path without occurrence indices
+     * @return segment id
+     * @throws IllegalArgumentException if the path names no segment
+     */
+    public int segmentId(String path) {
+        for (int i = 0; i < paths.length; i++) {
+            if (paths[i].equals(path)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown segment path " + path);
+    }
+
+    public String segmentPath(int segment) {
+        return paths[segment];
+    }
+
+    public SegmentPlan segmentPlan(int segment) {
+        return segments[segment];
+    }
+
+    /**
+     * Indexes a whole message.
+     *
+     * @param bytes message bytes
+     * @return index with offsets relative to {@code bytes}
+     * @throws MessageFormatException   if a groupId in STRICT mode or an occurrence count is invalid
+     * @throws BufferUnderflowException if the message is truncated
+     */
+    public MessageIndex index(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+        return index(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Indexes the message between the buffer's position and limit without moving the position.
+     * Offsets are absolute buffer indices.
+     *
+     * @param buffer message buffer
+     * @return index
+     * @throws MessageFormatException   if a groupId in STRICT mode or an occurrence count is invalid
+     * @throws BufferUnderflowException if the message is truncated
+     */
+    public MessageIndex index(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        Walk walk = new Walk(buffer, plan.getByteOrder());
+        walk.occurrence(0, -1, 0, 1, buffer.position());
+        return new MessageIndex(walk.data, walk.size);
+    }
+
+    private static void number(SegmentPlan segment,
+                               String path,
+                               List<SegmentPlan> segmentList,
+                               List<String> pathList,
+                               List<int[]> stepList) {
+        int id = segmentList.size();
+        segmentList.add(segment);
+        pathList.add(path);
+        stepList.add(null);
+        int[] steps = new int[segment.getInstructionCount()];
+        int size = 0;
+        int run = 0;
+        for (int i = 0; i < segment.getInstructionCount(); i++) {
+            Instruction instruction = segment.getInstruction(i);
+            if (instruction.kind() != InstructionKind.SEGMENT) {
+                run += instruction.length();
+                continue;
+            }
+            if (run > 0) {
+                steps[size++] = run;
+                run = 0;
+            }
+            steps[size++] = -segmentList.size();
+            number(instruction.segment(), path + instruction.pathSegment(), segmentList, pathList, stepList);
+        }
+        if (run > 0) {
+            steps[size++] = run;
+        }
+        stepList.set(id, Arrays.copyOf(steps, size));
+    }
+
+    private static byte[] encodedGroupId(SegmentPlan segment) {
+        String value = segment.getGroupIdValue();
+        if (value == null || value.length() > segment.getGroupIdLength()) {
+            return null;
+        }
+        byte[] bytes = new byte[segment.getGroupIdLength()];
+        segment.getCodePage().encode(ByteBuffer.wrap(bytes), 0, value, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Per-call cursor; field steps are positive byte counts and segment steps are
+     * {@code -(segmentId)}.
+     */
+    private final class Walk {
+        private final ByteBuffer buffer;
+        private final ByteOrder byteOrder;
+        private int[] data = new int[MessageIndex.STRIDE * 16];
+        private int size;
+
+        private Walk(ByteBuffer buffer, ByteOrder byteOrder) {
+            this.buffer = buffer;
+            this.byteOrder = byteOrder;
+        }
+
+        private int occurrence(int segment, int parent, int index, int count, int start) {
+            int entry = size++;
+            if (size * MessageIndex.STRIDE > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            int base = entry * MessageIndex.STRIDE;
+            data[base + MessageIndex.SEGMENT] = segment;
+            data[base + MessageIndex.PARENT] = parent;
+            data[base + MessageIndex.OCCURRENCE] = index;
+            data[base + MessageIndex.COUNT] = count;
+            data[base + MessageIndex.START] = start;
+            int offset = start;
+            for (int step : steps[segment]) {
+                offset = step > 0 ? skip(offset, step) : group(-step, entry, offset);
+            }
+            data[base + MessageIndex.END] = offset;
+            return offset;
+        }
+
+        private int group(int segment, int parent, int offset) {
+            SegmentPlan plan = segments[segment];
+            int countOffset = skip(offset, plan.getGroupIdLength());
+            if (groupIdMode == GroupIdMode.STRICT) {
+                checkGroupId(segment, offset);
+            }
+            int next = skip(countOffset, plan.getOccurrenceLength());
+            int count = count(plan, offset, countOffset);
+            if (!plan.isRepeating()) {
+                count = Math.min(count, 1);
+            }
+            for (int i = 0; i < count; i++) {
+                next = occurrence(segment, parent, i, count, next);
+            }
+            return next;
+        }
+
+        private void checkGroupId(int segment, int offset) {
+            byte[] expected = groupIds[segment];
+            if (expected == null) {
+                return;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (buffer.get(offset + i) != expected[i]) {
+                    throw new MessageFormatException("Unexpected groupId", offset, segments[segment].getId());
+                }
+            }
+        }
+
+        private int count(SegmentPlan plan, int header, int offset) {
+            long count;
+            if (plan.getOccurrenceLength() == 4) {
+                int value = buffer.getInt(offset);
+                count = Integer.toUnsignedLong(buffer.order() == byteOrder ? value : Integer.reverseBytes(value));
+            } else {
+                String text = plan.getCodePage().decode(buffer, offset, plan.getOccurrenceLength());
+                try {
+                    count = text == null ? 0L : Long.parseLong(text.trim());
+                } catch (NumberFormatException ex) {
+                    count = -1L;
+                }
+            }
+            if (count < 0) {
+                throw new MessageFormatException("Invalid occurrence count", header, plan.getId());
+            }
+            if (count > buffer.limit() - offset) {
+                throw new MessageFormatException("Occurrence count exceeds message length", header, plan.getId());
+            }
+            return (int) count;
+        }
+
+        private int skip(int offset, int length) {
+            if (length > buffer.limit() - offset) {
+                throw new BufferUnderflowException();
+            }
+            return offset + length;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Base class for flyweight views emitted by the view generator. A view points at one segment
+ * occurrence inside a {@code byte[]} or {@link ByteBuffer} and decodes fields only when a getter
+ * is called; re-pointing it at another message allocates nothing.
+ * <p>
+ * Views keep no trace and raise no conversion issues: invalid decimals throw
+ * {@link NumberFormatException} and unreadable occurrence counts read as zero. A view is not
+ * thread-safe.
+ */
+public abstract class MessageView {
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int offset;
+    private byte[] scratch;
+
+    /**
+     * Returns the absolute index of the first byte of this occurrence, after its segment header.
+     */
+    public final int offset() {
+        return offset;
+    }
+
+    /**
+     * Returns the encoded size of this occurrence, excluding its segment header.
+     */
+    public abstract int encodedSize();
+
+    protected final void point(byte[] data, int offset) {
+        this.array = Objects.requireNonNull(data, "data");
+        this.buffer = null;
+        this.offset = offset;
+    }
+
+    /**
+     * Points at a buffer; heap buffers are read through their backing array.
+     */
+    protected final void point(ByteBuffer buffer, int offset) {
+        Objects.requireNonNull(buffer, "buffer");
+        if (buffer.hasArray()) {
+            point(buffer.array(), buffer.arrayOffset() + offset);
+        } else {
+            this.array = null;
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Points a child view at an absolute index in the same storage.
+     */
+    protected final <V extends MessageView> V child(V view, int offset) {
+        MessageView target = view;
+        target.array = array;
+        target.buffer = buffer;
+        target.offset = offset;
+        return view;
+    }
+
+    protected final String text(int index, int length, CodePage codePage) {
+        if (array != null) {
+            return codePage.decode(array, index, length);
+        }
+        return codePage.decode(buffer, index, length);
+    }
+
+    /**
+     * Reads a uint32 in the protocol byte order, independent of the buffer's own order.
+     */
+    protected final long unsigned(int index, ByteOrder byteOrder) {
+        int value;
+        if (array != null) {
+            value = (array[index] & 0xFF) << 24
+                    | (array[index + 1] & 0xFF) << 16
+                    | (array[index + 2] & 0xFF) << 8
+                    | (array[index + 3] & 0xFF);
+            if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+                value = Integer.reverseBytes(value);
+            }
+        } else {
+            value = buffer.getInt(index);
+            if (buffer.order() != byteOrder) {
+                value = Integer.reverseBytes(value);
+            }
+        }
+        return Integer.toUnsignedLong(value);
+    }
+
+    /**
+     * Reads a packed or zoned decimal; blank fields read as null.
+     *
+     * @throws NumberFormatException if a digit or sign nibble is invalid
+     */
+    protected final BigDecimal decimal(int index, int length, int scale, boolean packed) {
+        if (array != null) {
+            return Decimals.decode(array, index, length, scale, packed);
+        }
+        if (scratch == null || scratch.length < length) {
+            scratch = new byte[length];
+        }
+        buffer.get(index, scratch, 0, length);
+        return Decimals.decode(scratch, 0, length, scale, packed);
+    }
+
+    /**
+     * Reads a segment occurrence count, binary when 4 bytes long and text otherwise. Negative text
+     * counts and binary counts above {@code Integer.MAX_VALUE} are unreadable and read as zero.
+     */
+    protected final int occurrences(int index, int length, ByteOrder byteOrder, CodePage codePage) {
+        long count;
+        if (length == 4) {
+            count = unsigned(index, byteOrder);
+        } else {
+            String text = text(index, length, codePage);
+            if (text == null) {
+                return 0;
+            }
+            try {
+                count = Integer.parseInt(text.trim());
+            } catch (NumberFormatException ex) {
+                return 0;
+            }
+        }
+        return count < 0 || count > Integer.MAX_VALUE ? 0 : (int) count;
+    }
+}
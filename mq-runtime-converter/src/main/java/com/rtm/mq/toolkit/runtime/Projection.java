@@ -0,0 +1,120 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Set of schema paths compiled against a {@link CodecPlan} so that unmarshal decodes only the
+ * selected fields and skips everything else by offset arithmetic.
+ * <p>
+ * Paths use the trace syntax without occurrence indices, e.g. {@code /Root/ReqHeader/txnCode};
+ * a segment path selects the whole segment. Immutable and thread-safe.
+ */
+public final class Projection {
+    private final CodecPlan plan;
+    private final List<String> paths;
+    private final Node root;
+
+    private Projection(CodecPlan plan, List<String> paths, Node root) {
+        this.plan = plan;
+        this.paths = paths;
+        this.root = root;
+    }
+
+    /**
+     * Compiles paths against a plan.
+     *
+     * @param plan  compiled schema
+     * @param paths schema paths starting with the root segment
+     * @return projection
+     * @throws IllegalArgumentException if a path does not name a field or segment of the plan
+     */
+    public static Projection compile(CodecPlan plan, Collection<String> paths) {
+        Objects.requireNonNull(plan, "plan");
+        Objects.requireNonNull(paths, "paths");
+        Node root = new Node(plan.getRoot());
+        for (String path : paths) {
+            select(plan, root, Objects.requireNonNull(path, "path"));
+        }
+        return new Projection(plan, List.copyOf(paths), root);
+    }
+
+    public static Projection compile(CodecPlan plan, String... paths) {
+        return compile(plan, Arrays.asList(paths));
+    }
+
+    public CodecPlan getPlan() {
+        return plan;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    Node root() {
+        return root;
+    }
+
+    private static void select(CodecPlan plan, Node root, String path) {
+        if (!path.equals(plan.getRootPath()) && !path.startsWith(plan.getRootPath() + "/")) {
+            throw new IllegalArgumentException("Path " + path + " is not under " + plan.getRootPath());
+        }
+        String[] names = path.substring(plan.getRootPath().length()).split("/");
+        Node node = root;
+        for (int i = 1; i < names.length && !node.all; i++) {
+            int index = node.indexOf(names[i]);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown path " + path);
+            }
+            Instruction instruction = node.segment.getInstruction(index);
+            node.last = Math.max(node.last, index);
+            if (instruction.kind() != InstructionKind.SEGMENT) {
+                if (i != names.length - 1) {
+                    throw new IllegalArgumentException("Field " + names[i] + " has no children in path " + path);
+                }
+                node.fields[index] = true;
+                return;
+            }
+            if (node.children[index] == null) {
+                node.children[index] = new Node(instruction.segment());
+            }
+            node = node.children[index];
+        }
+        node.all = true;
+    }
+
+    /**
+     * Selection within one segment; fields and children are indexed by instruction.
+     */
+    static final class Node {
+        final SegmentPlan segment;
+        final boolean[] fields;
+        final Node[] children;
+        boolean all;
+        int last = -1;
+
+        private Node(SegmentPlan segment) {
+            this.segment = segment;
+            this.fields = new boolean[segment.getInstructionCount()];
+            this.children = new Node[segment.getInstructionCount()];
+        }
+
+        /**
+         * Returns the highest instruction index that is selected or leads to a selection.
+         */
+        int last() {
+            return all ? fields.length - 1 : last;
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < segment.getInstructionCount(); i++) {
+                if (segment.getInstruction(i).name().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Resolved read/write access to a single POJO property.
+ * Getters and setters are bound once through {@link LambdaMetafactory}, falling back to
+ * {@link MethodHandle}s for fields or classes the metafactory cannot reach. Primitive {@code long}
+ * properties additionally get {@link #getLong}/{@link #setLong} bindings that never box.
+ */
+public final class PropertyAccessor {
+    private final String name;
+    private final Class<?> type;
+    private final Class<?> boxedType;
+    private final Type genericType;
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+    private final ToLongFunction<Object> longGetter;
+    private final ObjLongConsumer<Object> longSetter;
+    private final Consumer<Object> clearer;
+    private final Method getterMethod;
+    private final Method setterMethod;
+
+    private PropertyAccessor(String name,
+                             Class<?> type,
+                             Type genericType,
+                             Function<Object, Object> getter,
+                             BiConsumer<Object, Object> setter,
+                             ToLongFunction<Object> longGetter,
+                             ObjLongConsumer<Object> longSetter,
+                             Consumer<Object> clearer,
+                             Method getterMethod,
+                             Method setterMethod) {
+        this.name = name;
+        this.type = type;
+        this.boxedType = MethodType.methodType(type).wrap().returnType();
+        this.genericType = genericType;
+        this.getter = getter;
+        this.setter = setter;
+        this.longGetter = longGetter;
+        this.longSetter = longSetter;
+        this.clearer = clearer;
+        this.getterMethod = getterMethod;
+        this.setterMethod = setterMethod;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Declared property type, taken from the getter, setter or field in that order.
+     *
+     * @return raw property type
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    public boolean isReadable() {
+        return getter != null;
+    }
+
+    public boolean isWritable() {
+        return setter != null;
+    }
+
+    public Object get(Object target) {
+        return getter != null ? getter.apply(target) : null;
+    }
+
+    public void set(Object target, Object value) {
+        if (setter != null) {
+            setter.accept(target, value);
+        }
+    }
+
+    /**
+     * Returns true for primitive {@code long} properties, which {@link #getLong}/{@link #setLong}
+     * access without boxing.
+     */
+    public boolean isLong() {
+        return type == long.class;
+    }
+
+    /**
+     * Reads a primitive {@code long} property; other properties are unboxed, with null read as 0.
+     */
+    public long getLong(Object target) {
+        if (longGetter != null) {
+            return longGetter.applyAsLong(target);
+        }
+        Object value = get(target);
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Writes a primitive {@code long} property; other properties receive a boxed {@code Long}.
+     */
+    public void setLong(Object target, long value) {
+        if (longSetter != null) {
+            longSetter.accept(target, value);
+        } else {
+            set(target, value);
+        }
+    }
+
+    /**
+     * Marks a primitive {@code long} property absent through its {@code clear<Name>()} method,
+     * or writes 0 when the class has none.
+     */
+    public void clearLong(Object target) {
+        if (clearer != null) {
+            clearer.accept(target);
+        } else {
+            setLong(target, 0L);
+        }
+    }
+
+    /**
+     * Checks whether a value can be assigned without a conversion error.
+     *
+     * @param value candidate value
+     * @return true when {@link #set(Object, Object)} will accept it
+     */
+    public boolean accepts(Object value) {
+        if (value == null) {
+            return !type.isPrimitive();
+        }
+        return boxedType.isInstance(value);
+    }
+
+    /**
+     * Public getter backing this accessor, or null when it reads a field.
+     */
+    Method getterMethod() {
+        return getterMethod;
+    }
+
+    /**
+     * Public setter backing this accessor, or null when it writes a field.
+     */
+    Method setterMethod() {
+        return setterMethod;
+    }
+
+    static PropertyAccessor unresolved(String name) {
+        return new PropertyAccessor(name, Object.class, Object.class, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Creates an accessor for one slot of a constructor argument array; the target passed to it
+     * is the {@code Object[]} rather than a POJO. Primitive slots are boxed.
+     *
+     * @param name        property name
+     * @param type        constructor parameter type
+     * @param genericType constructor parameter generic type
+     * @param slot        parameter index
+     * @return accessor reading and writing {@code arguments[slot]}
+     */
+    static PropertyAccessor slot(String name, Class<?> type, Type genericType, int slot) {
+        Function<Object, Object> read = target -> ((Object[]) target)[slot];
+        BiConsumer<Object, Object> write = (target, value) -> ((Object[]) target)[slot] = value;
+        ToLongFunction<Object> readLong = null;
+        ObjLongConsumer<Object> writeLong = null;
+        Consumer<Object> reset = null;
+        if (type == long.class) {
+            readLong = target -> (Long) ((Object[]) target)[slot];
+            writeLong = (target, value) -> ((Object[]) target)[slot] = value;
+            reset = target -> ((Object[]) target)[slot] = 0L;
+        }
+        return new PropertyAccessor(name, type, genericType, read, write, readLong, writeLong, reset, null, null);
+    }
+
+    static PropertyAccessor resolve(Class<?> owner,
+                                    String name,
+                                    Method getter,
+                                    Method setter,
+                                    Field field,
+                                    Method clear) {
+        Class<?> type;
+        Type genericType;
+        if (getter != null) {
+            type = getter.getReturnType();
+            genericType = getter.getGenericReturnType();
+        } else if (setter != null) {
+            type = setter.getParameterTypes()[0];
+            genericType = setter.getGenericParameterTypes()[0];
+        } else {
+            type = field.getType();
+            genericType = field.getGenericType();
+        }
+        MethodHandles.Lookup lookup = lookupFor(owner);
+        Function<Object, Object> read = getter != null
+                ? bindGetter(lookup, getter)
+                : field != null ? bindFieldGetter(field) : null;
+        BiConsumer<Object, Object> write = setter != null
+                ? bindSetter(lookup, setter)
+                : field != null && !Modifier.isFinal(field.getModifiers()) ? bindFieldSetter(field) : null;
+        ToLongFunction<Object> readLong = null;
+        ObjLongConsumer<Object> writeLong = null;
+        Consumer<Object> reset = null;
+        if (type == long.class) {
+            readLong = getter != null ? bindLongGetter(lookup, getter)
+                    : read != null ? bindLongFieldGetter(field) : null;
+            writeLong = setter != null && setter.getParameterTypes()[0] == long.class
+                    ? bindLongSetter(lookup, setter)
+                    : setter == null && write != null ? bindLongFieldSetter(field) : null;
+            reset = clear != null ? invokerClearer(unreflect(lookup, clear)) : null;
+        }
+        return new PropertyAccessor(name, type, genericType, read, write, readLong, writeLong, reset, getter,
+                setter);
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> owner) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        } catch (IllegalAccessException ex) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> bindGetter(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle handle = unreflect(lookup, method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            return invokerGetter(handle);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> bindSetter(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle handle = unreflect(lookup, method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup,
+                    "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            return invokerSetter(handle);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ToLongFunction<Object> bindLongGetter(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle handle = unreflect(lookup, method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup,
+                    "applyAsLong",
+                    MethodType.methodType(ToLongFunction.class),
+                    MethodType.methodType(long.class, Object.class),
+                    handle,
+                    handle.type());
+            return (ToLongFunction<Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            return longInvokerGetter(handle);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjLongConsumer<Object> bindLongSetter(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle handle = unreflect(lookup, method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup,
+                    "accept",
+                    MethodType.methodType(ObjLongConsumer.class),
+                    MethodType.methodType(void.class, Object.class, long.class),
+                    handle,
+                    handle.type().changeReturnType(void.class));
+            return (ObjLongConsumer<Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            return longInvokerSetter(handle);
+        }
+    }
+
+    private static ToLongFunction<Object> bindLongFieldGetter(Field field) {
+        try {
+            return longInvokerGetter(MethodHandles.lookup().unreflectGetter(field));
+        } catch (RuntimeException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static ObjLongConsumer<Object> bindLongFieldSetter(Field field) {
+        try {
+            return longInvokerSetter(MethodHandles.lookup().unreflectSetter(field));
+        } catch (RuntimeException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> bindFieldGetter(Field field) {
+        try {
+            field.setAccessible(true);
+            return invokerGetter(MethodHandles.lookup().unreflectGetter(field));
+        } catch (RuntimeException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static BiConsumer<Object, Object> bindFieldSetter(Field field) {
+        try {
+            field.setAccessible(true);
+            return invokerSetter(MethodHandles.lookup().unreflectSetter(field));
+        } catch (RuntimeException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException ex) {
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            } catch (RuntimeException | IllegalAccessException nested) {
+                throw new IllegalStateException("Cannot access " + method, nested);
+            }
+        }
+    }
+
+    private static Function<Object, Object> invokerGetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return generic.invokeExact(target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    private static ToLongFunction<Object> longInvokerGetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(long.class, Object.class));
+        return target -> {
+            try {
+                return (long) generic.invokeExact(target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    private static ObjLongConsumer<Object> longInvokerSetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, long.class));
+        return (target, value) -> {
+            try {
+                generic.invokeExact(target, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    private static Consumer<Object> invokerClearer(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class));
+        return target -> {
+            try {
+                generic.invokeExact(target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> invokerSetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, value) -> {
+            try {
+                generic.invokeExact(target, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+}
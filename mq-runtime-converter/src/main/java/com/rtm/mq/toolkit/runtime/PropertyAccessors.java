@@ -0,0 +1,116 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.rtm.mq.toolkit.ir.NameUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-class registry of {@link PropertyAccessor}s shared by the runtime and diff modules.
+ * Each property is resolved once per class; lookups afterwards are a map read. Record components
+ * are read through their accessor methods.
+ */
+public final class PropertyAccessors {
+    private static final ClassValue<PropertyAccessors> REGISTRY = new ClassValue<>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors(type);
+        }
+    };
+    private static final PropertyAccessor MISSING = PropertyAccessor.unresolved("");
+
+    private final Class<?> type;
+    private final Map<String, PropertyAccessor> accessors = new ConcurrentHashMap<>();
+
+    private PropertyAccessors(Class<?> type) {
+        this.type = type;
+    }
+
+    public static PropertyAccessors forClass(Class<?> type) {
+        return REGISTRY.get(type);
+    }
+
+    /**
+     * Finds the accessor for a property using getter/setter naming, then field fallback.
+     *
+     * @param propertyName schema property name
+     * @return accessor, or null if the class has no matching getter, setter or field
+     */
+    public PropertyAccessor find(String propertyName) {
+        PropertyAccessor accessor = accessors.computeIfAbsent(propertyName, this::resolve);
+        return accessor == MISSING ? null : accessor;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    private PropertyAccessor resolve(String propertyName) {
+        String suffix = NameUtils.toUpperCamel(propertyName);
+        Method getter = findGetter("get" + suffix);
+        if (getter == null && type.isRecord()) {
+            getter = findGetter(propertyName);
+        }
+        Field field = findField(propertyName);
+        Method setter = findSetter("set" + suffix, getter != null ? getter.getReturnType()
+                : field != null ? field.getType() : null);
+        if (getter == null && setter == null && field == null) {
+            return MISSING;
+        }
+        return PropertyAccessor.resolve(type, propertyName, getter, setter, field, findClear("clear" + suffix));
+    }
+
+    private Method findGetter(String methodName) {
+        try {
+            Method method = type.getMethod(methodName);
+            return method.getReturnType() != void.class ? method : null;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds a no-argument {@code void} method, such as the {@code clear<Name>()} generated for
+     * nullable primitive properties.
+     */
+    private Method findClear(String methodName) {
+        try {
+            Method method = type.getMethod(methodName);
+            return method.getReturnType() == void.class && !Modifier.isStatic(method.getModifiers()) ? method : null;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private Method findSetter(String methodName, Class<?> preferredType) {
+        Method candidate = null;
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                if (preferredType == null || method.getParameterTypes()[0] == preferredType) {
+                    return method;
+                }
+                if (candidate == null) {
+                    candidate = method;
+                }
+            }
+        }
+        return candidate;
+    }
+
+    private Field findField(String fieldName) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(fieldName);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        return null;
+    }
+}
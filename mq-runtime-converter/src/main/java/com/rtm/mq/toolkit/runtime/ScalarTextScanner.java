@@ -0,0 +1,32 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.util.Arrays;
+
+/**
+ * Plain loop implementation; always available.
+ */
+final class ScalarTextScanner implements TextScanner {
+    @Override
+    public int trimEnd(byte[] data, int from, int to, byte pad) {
+        int end = to;
+        while (end > from && data[end - 1] == pad) {
+            end--;
+        }
+        return end;
+    }
+
+    @Override
+    public boolean isAscii(byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fill(byte[] data, int from, int to, byte pad) {
+        Arrays.fill(data, from, to, pad);
+    }
+}
@@ -0,0 +1,443 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link CodecPlan} resolved against a root class: the class of every segment, the element class
+ * of every repeating segment and the accessor of every field and segment property are looked up
+ * once, so codecs never search for classes or properties while converting a message.
+ * <p>
+ * Records, and classes without a no-arg constructor, are bound to a constructor instead of
+ * setters: the canonical constructor for records, otherwise a public constructor whose parameter
+ * names are schema properties, which needs classes compiled with {@code -parameters}. Parameters
+ * are never matched by position. Decoding fills an argument array and creates the object with one
+ * {@link MethodHandle} call.
+ * <p>
+ * Binding is as lenient as conversion: a property the class lacks is skipped, and a segment whose
+ * class cannot be resolved only fails once a message contains it. Each such gap is listed by
+ * {@link #getMismatches()}; call {@link #requireComplete()} to reject them at startup instead.
+ * Immutable and thread-safe.
+ */
+public final class SchemaBinding {
+    private final CodecPlan plan;
+    private final Class<?> rootType;
+    private final Segment[] segments;
+    private final List<String> mismatches;
+
+    private SchemaBinding(CodecPlan plan, Class<?> rootType, Segment[] segments, List<String> mismatches) {
+        this.plan = plan;
+        this.rootType = rootType;
+        this.segments = segments;
+        this.mismatches = mismatches;
+    }
+
+    /**
+     * Resolves every segment class and property of a plan against a root class.
+     *
+     * @param plan     compiled schema
+     * @param rootType class of the root segment
+     * @return binding, never failing on mismatches
+     */
+    public static SchemaBinding bind(CodecPlan plan, Class<?> rootType) {
+        Objects.requireNonNull(plan, "plan");
+        Objects.requireNonNull(rootType, "rootType");
+        Segment[] segments = new Segment[plan.getSegmentCount()];
+        List<String> mismatches = new ArrayList<>();
+        bind(plan.getRoot(), plan.getRootPath(), rootType, segments, mismatches);
+        return new SchemaBinding(plan, rootType, segments, List.copyOf(mismatches));
+    }
+
+    public CodecPlan getPlan() {
+        return plan;
+    }
+
+    public Class<?> getRootType() {
+        return rootType;
+    }
+
+    /**
+     * Returns one message per missing or incompatible property and unresolvable segment class.
+     *
+     * @return mismatches in schema order, empty when every element is bound
+     */
+    public List<String> getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * Fails if any schema element is not bound.
+     *
+     * @return this binding
+     * @throws IllegalArgumentException listing every mismatch
+     */
+    public SchemaBinding requireComplete() {
+        if (!mismatches.isEmpty()) {
+            throw new IllegalArgumentException("Schema " + plan.getSchemaId() + " does not match "
+                    + rootType.getName() + ": " + String.join("; ", mismatches));
+        }
+        return this;
+    }
+
+    /**
+     * Returns the class bound to a segment.
+     *
+     * @param segmentId segment id from {@link SegmentPlan#getId()}
+     * @return class, or null when it could not be resolved
+     */
+    public Class<?> segmentType(int segmentId) {
+        return segments[segmentId].type;
+    }
+
+    Segment root() {
+        return segments[0];
+    }
+
+    Segment segment(SegmentPlan segment) {
+        return segments[segment.getId()];
+    }
+
+    private static Segment bind(SegmentPlan segment,
+                                String path,
+                                Class<?> type,
+                                Segment[] segments,
+                                List<String> mismatches) {
+        int count = segment.getInstructionCount();
+        Constructor<?> constructor = type != null && !type.isRecord() ? noArgConstructor(type) : null;
+        Constructor<?> creator = null;
+        PropertyAccessor[] decoders = new PropertyAccessor[count];
+        if (type == null) {
+            mismatches.add("Unable to resolve class for segment " + path);
+        } else if (constructor == null) {
+            creator = findCreator(type, segment, decoders);
+            if (creator == null) {
+                mismatches.add(type.getName() + " has no no-arg or property constructor for " + path
+                        + "; compile with -parameters or use a record");
+            }
+        }
+        Segment bound = new Segment(segment, type, constructor, creator != null ? creatorHandle(creator) : null,
+                creator != null ? defaults(creator) : null, new PropertyAccessor[count],
+                creator != null ? decoders : null, new Segment[count]);
+        segments[segment.getId()] = bound;
+        for (int i = 0; i < count; i++) {
+            Instruction instruction = segment.getInstruction(i);
+            PropertyAccessor accessor = type != null
+                    ? PropertyAccessors.forClass(type).find(instruction.propertyName())
+                    : null;
+            String childPath = path + instruction.pathSegment();
+            if (type != null) {
+                check(type, instruction, accessor, creator != null ? decoders[i] : null, childPath, mismatches);
+            }
+            bound.accessors[i] = accessor;
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                PropertyAccessor declared = accessor != null ? accessor : bound.decoders[i];
+                Class<?> childType = type != null ? resolveSegmentClass(type, instruction, declared) : null;
+                bound.children[i] = bind(instruction.segment(), childPath, childType, segments, mismatches);
+                if (declared != null && childType != null) {
+                    checkSegmentProperty(type, instruction, declared, childType, childPath, mismatches);
+                }
+            }
+        }
+        return bound;
+    }
+
+    private static Constructor<?> noArgConstructor(Class<?> type) {
+        try {
+            return type.getDeclaredConstructor();
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the constructor of a record or immutable class and fills {@code decoders} with an
+     * argument-slot accessor per instruction it takes.
+     *
+     * @return constructor, or null when none matches the schema
+     */
+    private static Constructor<?> findCreator(Class<?> type, SegmentPlan segment, PropertyAccessor[] decoders) {
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            String[] names = new String[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                names[i] = components[i].getName();
+            }
+            try {
+                Constructor<?> canonical = type.getDeclaredConstructor(types);
+                mapSlots(canonical, names, segment, decoders);
+                return canonical;
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+        Constructor<?> best = null;
+        String[] bestNames = null;
+        for (Constructor<?> candidate : type.getConstructors()) {
+            Parameter[] parameters = candidate.getParameters();
+            if (parameters.length == 0 || !parameters[0].isNamePresent()) {
+                continue;
+            }
+            String[] names = new String[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                names[i] = parameters[i].getName();
+            }
+            if (allProperties(names, segment) && (best == null || names.length > bestNames.length)) {
+                best = candidate;
+                bestNames = names;
+            }
+        }
+        if (best != null) {
+            mapSlots(best, bestNames, segment, decoders);
+        }
+        return best;
+    }
+
+    private static boolean allProperties(String[] names, SegmentPlan segment) {
+        for (String name : names) {
+            boolean found = false;
+            for (int i = 0; i < segment.getInstructionCount() && !found; i++) {
+                found = segment.getInstruction(i).propertyName().equals(name);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Binds each instruction whose property is named by a parameter to that argument slot.
+     */
+    private static void mapSlots(Constructor<?> constructor,
+                                String[] names,
+                                SegmentPlan segment,
+                                PropertyAccessor[] decoders) {
+        for (int slot = 0; slot < names.length; slot++) {
+            for (int i = 0; i < segment.getInstructionCount(); i++) {
+                if (segment.getInstruction(i).propertyName().equals(names[slot])) {
+                    decoders[i] = PropertyAccessor.slot(names[slot], constructor.getParameterTypes()[slot],
+                            constructor.getGenericParameterTypes()[slot], slot);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adapts a constructor to {@code (Object[])Object}, unboxing primitive arguments.
+     */
+    private static MethodHandle creatorHandle(Constructor<?> constructor) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.privateLookupIn(constructor.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectConstructor(constructor);
+        } catch (IllegalAccessException ex) {
+            try {
+                constructor.setAccessible(true);
+                handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            } catch (RuntimeException | IllegalAccessException nested) {
+                throw new IllegalStateException("Cannot access " + constructor, nested);
+            }
+        }
+        return handle.asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * Returns the arguments used for parameters no field sets: null, or zero for primitives.
+     */
+    private static Object[] defaults(Constructor<?> constructor) {
+        Class<?>[] types = constructor.getParameterTypes();
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isPrimitive()) {
+                values[i] = Array.get(Array.newInstance(types[i], 1), 0);
+            }
+        }
+        return values;
+    }
+
+    private static Class<?> resolveSegmentClass(Class<?> owner, Instruction instruction, PropertyAccessor accessor) {
+        try {
+            return Class.forName(owner.getPackageName() + "." + instruction.name(), false, owner.getClassLoader());
+        } catch (ClassNotFoundException ignored) {
+        }
+        Class<?> candidate = null;
+        if (accessor != null) {
+            if (!List.class.isAssignableFrom(accessor.getType())) {
+                candidate = accessor.getType();
+            } else if (accessor.getGenericType() instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+                candidate = element;
+            }
+        }
+        return candidate != null && isSegmentClass(candidate) ? candidate : null;
+    }
+
+    /**
+     * Rejects property types that cannot hold a segment, such as {@code String} or {@code Object}.
+     */
+    private static boolean isSegmentClass(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.getName().startsWith("java.");
+    }
+
+    /**
+     * Checks a property; {@code decoder} is its constructor slot when the class is immutable.
+     */
+    private static void check(Class<?> owner,
+                              Instruction instruction,
+                              PropertyAccessor accessor,
+                              PropertyAccessor decoder,
+                              String path,
+                              List<String> mismatches) {
+        if (accessor == null && decoder == null) {
+            mismatches.add(owner.getName() + " has no property " + instruction.propertyName() + " for " + path);
+            return;
+        }
+        boolean readable = accessor != null && accessor.isReadable();
+        boolean writable = decoder != null || accessor != null && accessor.isWritable();
+        if (!readable || !writable) {
+            mismatches.add(owner.getName() + "." + instruction.propertyName() + " is not "
+                    + (readable ? "writable" : "readable") + " for " + path);
+        }
+        Class<?> type = decoder != null ? decoder.getType() : accessor.getType();
+        if (instruction.kind() != InstructionKind.SEGMENT && !acceptsValue(instruction, type)) {
+            mismatches.add(owner.getName() + "." + instruction.propertyName() + " of type "
+                    + type.getName() + " cannot hold " + instruction.kind() + " " + path);
+        }
+    }
+
+    private static void checkSegmentProperty(Class<?> owner,
+                                             Instruction instruction,
+                                             PropertyAccessor accessor,
+                                             Class<?> childType,
+                                             String path,
+                                             List<String> mismatches) {
+        boolean compatible = instruction.segment().isRepeating()
+                ? accessor.getType().isAssignableFrom(ArrayList.class)
+                : accessor.getType().isAssignableFrom(childType);
+        if (!compatible) {
+            mismatches.add(owner.getName() + "." + instruction.propertyName() + " of type "
+                    + accessor.getType().getName() + " cannot hold "
+                    + (instruction.segment().isRepeating() ? "a list of " : "") + childType.getName() + " " + path);
+        }
+    }
+
+    /**
+     * Mirrors the values unmarshal produces: text as {@code String}, uint32 as {@code long}, and
+     * decimals as {@code BigDecimal} or, at scale 0, {@code long}.
+     */
+    private static boolean acceptsValue(Instruction instruction, Class<?> type) {
+        return switch (instruction.kind()) {
+            case UNSIGNED_INT -> type == long.class || type.isAssignableFrom(Long.class);
+            case PACKED_DECIMAL, ZONED_DECIMAL -> type.isAssignableFrom(BigDecimal.class)
+                    || instruction.scale() == 0 && (type == long.class || type == Long.class);
+            default -> type.isAssignableFrom(String.class);
+        };
+    }
+
+    /**
+     * Resolved segment: its class and, per instruction index, the property accessor and the bound
+     * child segment. Missing properties have a null accessor. Immutable segments also have a
+     * decoder per instruction that writes the matching constructor argument; mutable segments
+     * decode through their accessors.
+     */
+    static final class Segment {
+        final SegmentPlan plan;
+        final Class<?> type;
+        final PropertyAccessor[] accessors;
+        final PropertyAccessor[] decoders;
+        final Segment[] children;
+        private final Constructor<?> constructor;
+        private final MethodHandle creator;
+        private final Object[] defaults;
+
+        private Segment(SegmentPlan plan,
+                        Class<?> type,
+                        Constructor<?> constructor,
+                        MethodHandle creator,
+                        Object[] defaults,
+                        PropertyAccessor[] accessors,
+                        PropertyAccessor[] decoders,
+                        Segment[] children) {
+            this.plan = plan;
+            this.type = type;
+            this.constructor = constructor;
+            this.creator = creator;
+            this.defaults = defaults;
+            this.accessors = accessors;
+            this.decoders = decoders != null ? decoders : accessors;
+            this.children = children;
+        }
+
+        Class<?> requireType() {
+            if (type == null) {
+                throw new IllegalStateException("Unable to resolve class for segment " + plan.getName());
+            }
+            return type;
+        }
+
+        /**
+         * Returns true when occurrences are created by a constructor call after decoding.
+         */
+        boolean isImmutable() {
+            return creator != null;
+        }
+
+        /**
+         * Returns the object fields are decoded into: a new instance, or for immutable segments a
+         * new argument array to pass to {@link #complete}.
+         */
+        Object newTarget() {
+            return creator != null ? defaults.clone() : instantiate();
+        }
+
+        /**
+         * Restores an argument array to its defaults so it can be decoded into again.
+         */
+        void reset(Object[] arguments) {
+            System.arraycopy(defaults, 0, arguments, 0, defaults.length);
+        }
+
+        /**
+         * Returns the decoded occurrence, invoking the constructor when the target is an argument array.
+         */
+        Object complete(Object target) {
+            if (creator == null) {
+                return target;
+            }
+            try {
+                return creator.invokeExact((Object[]) target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to instantiate " + type.getName(), ex);
+            }
+        }
+
+        private Object instantiate() {
+            Class<?> resolved = requireType();
+            if (constructor == null) {
+                throw new IllegalStateException(resolved.getName() + " has no no-arg or property constructor"
+                        + "; compile with -parameters or use a record");
+            }
+            try {
+                return constructor.newInstance();
+            } catch (Exception ex) {
+                throw new IllegalStateException("Failed to instantiate " + resolved.getName(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Compiled segment layout with resolved protocol header and flat instruction array.
+ */
+public final class SegmentPlan {
+    private final int id;
+    private final String name;
+    private final String groupIdValue;
+    private final int groupIdLength;
+    private final int occurrenceLength;
+    private final boolean repeating;
+    private final int minOccurs;
+    private final String groupIdPathSegment;
+    private final String occurrencePathSegment;
+    private final CodePage codePage;
+    private final Instruction[] instructions;
+    private final int bodyLength;
+    private final int fixedSize;
+    private final int minSize;
+
+    SegmentPlan(int id,
+                String name,
+                String groupIdValue,
+                int groupIdLength,
+                int occurrenceLength,
+                boolean repeating,
+                int minOccurs,
+                String groupIdPathSegment,
+                String occurrencePathSegment,
+                CodePage codePage,
+                Instruction[] instructions) {
+        this.id = id;
+        this.name = name;
+        this.groupIdValue = groupIdValue;
+        this.groupIdLength = groupIdLength;
+        this.occurrenceLength = occurrenceLength;
+        this.repeating = repeating;
+        this.minOccurs = minOccurs;
+        this.groupIdPathSegment = groupIdPathSegment;
+        this.occurrencePathSegment = occurrencePathSegment;
+        this.codePage = codePage;
+        this.instructions = instructions;
+        this.bodyLength = bodyLength(instructions);
+        this.fixedSize = fixedSize(bodyLength, instructions);
+        this.minSize = minSize(bodyLength, instructions);
+    }
+
+    /**
+     * Returns the segment's position in a pre-order walk of the plan, the root being 0.
+     *
+     * @return segment id, unique within the plan
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getGroupIdValue() {
+        return groupIdValue;
+    }
+
+    public int getGroupIdLength() {
+        return groupIdLength;
+    }
+
+    public int getOccurrenceLength() {
+        return occurrenceLength;
+    }
+
+    public boolean isRepeating() {
+        return repeating;
+    }
+
+    public int getMinOccurs() {
+        return minOccurs;
+    }
+
+    public String getGroupIdPathSegment() {
+        return groupIdPathSegment;
+    }
+
+    public String getOccurrencePathSegment() {
+        return occurrencePathSegment;
+    }
+
+    /**
+     * Returns the encoding of the text protocol header fields.
+     *
+     * @return header code page
+     */
+    public CodePage getCodePage() {
+        return codePage;
+    }
+
+    /**
+     * Returns the shared instruction array; callers must not modify it.
+     *
+     * @return instructions in wire order
+     */
+    Instruction[] instructions() {
+        return instructions;
+    }
+
+    public int getHeaderLength() {
+        return groupIdLength + occurrenceLength;
+    }
+
+    /**
+     * Returns the bytes taken by this segment's own fields, excluding nested segments.
+     *
+     * @return field bytes per occurrence
+     */
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * Returns the encoded size of one occurrence (without its header) when it cannot vary,
+     * i.e. every nested segment is single and required.
+     *
+     * @return constant size, or -1 when the size depends on the data
+     */
+    public int getFixedSize() {
+        return fixedSize;
+    }
+
+    /**
+     * Returns the smallest encoded size of one occurrence (without its header): own fields, every
+     * nested header, and the minimum occurrences of nested segments.
+     *
+     * @return lower bound in bytes
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getInstructionCount() {
+        return instructions.length;
+    }
+
+    public Instruction getInstruction(int index) {
+        return instructions[index];
+    }
+
+    private static int bodyLength(Instruction[] instructions) {
+        int length = 0;
+        for (Instruction instruction : instructions) {
+            length += instruction.length();
+        }
+        return length;
+    }
+
+    private static int fixedSize(int bodyLength, Instruction[] instructions) {
+        int size = bodyLength;
+        for (Instruction instruction : instructions) {
+            if (instruction.kind() != InstructionKind.SEGMENT) {
+                continue;
+            }
+            SegmentPlan child = instruction.segment();
+            if (child.isRepeating() || child.getMinOccurs() < 1 || child.getFixedSize() < 0) {
+                return -1;
+            }
+            size += child.getHeaderLength() + child.getFixedSize();
+        }
+        return size;
+    }
+
+    private static int minSize(int bodyLength, Instruction[] instructions) {
+        long size = bodyLength;
+        for (Instruction instruction : instructions) {
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                SegmentPlan child = instruction.segment();
+                size += child.getHeaderLength() + (long) Math.max(child.getMinOccurs(), 0) * child.getMinSize();
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.rtm.mq.toolkit.runtime;
+
+import com.rtm.mq.toolkit.ir.MessageSchema;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec that generates a dedicated hidden class per (schemaId, root class) on first use and
+ * falls back to the plan interpreter when the POJOs cannot be driven by generated code, including
+ * POJOs loaded by a class loader the generated class cannot see. Failures to emit or define the
+ * class are bugs rather than unsupported shapes and propagate as {@link IllegalStateException}.
+ */
+public final class SpecializedMessageCodec implements MessageCodec {
+    private final MessageConverter interpreter;
+    private final GeneratedCodecFactory factory;
+    private final Map<CodecKey, MessageCodec> codecs = new ConcurrentHashMap<>();
+
+    public SpecializedMessageCodec() {
+        this(new ConversionOptions());
+    }
+
+    public SpecializedMessageCodec(ConversionOptions options) {
+        this.interpreter = new MessageConverter(options);
+        this.factory = new GeneratedCodecFactory(options);
+    }
+
+    @Override
+    public byte[] marshal(Object pojo, MessageSchema schema) {
+        Objects.requireNonNull(pojo, "pojo");
+        Objects.requireNonNull(schema, "schema");
+        return codecFor(schema, pojo.getClass()).marshal(pojo, schema);
+    }
+
+    @Override
+    public int encodedSize(Object pojo, MessageSchema schema) {
+        Objects.requireNonNull(pojo, "pojo");
+        Objects.requireNonNull(schema, "schema");
+        return codecFor(schema, pojo.getClass()).encodedSize(pojo, schema);
+    }
+
+    @Override
+    public int marshalTo(Object pojo, MessageSchema schema, ByteBuffer buffer) {
+        Objects.requireNonNull(pojo, "pojo");
+        Objects.requireNonNull(schema, "schema");
+        return codecFor(schema, pojo.getClass()).marshalTo(pojo, schema, buffer);
+    }
+
+    @Override
+    public <T> ConversionResult<T> unmarshal(byte[] bytes, MessageSchema schema, Class<T> type) {
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(type, "type");
+        return codecFor(schema, type).unmarshal(bytes, schema, type);
+    }
+
+    @Override
+    public <T> ConversionResult<T> unmarshal(ByteBuffer buffer, MessageSchema schema, Class<T> type) {
+        Objects.requireNonNull(schema, "schema");
+        Objects.requireNonNull(type, "type");
+        return codecFor(schema, type).unmarshal(buffer, schema, type);
+    }
+
+    @Override
+    public ConversionResult<GenericMessage> unmarshalGeneric(byte[] bytes, MessageSchema schema) {
+        return interpreter.unmarshalGeneric(bytes, schema);
+    }
+
+    /**
+     * Returns the codec serving a schema and root class, generating it on first use.
+     *
+     * @param schema schema definition
+     * @param type   root class
+     * @return generated codec, or the interpreter when generation is not possible
+     */
+    public MessageCodec codecFor(MessageSchema schema, Class<?> type) {
+        if (schema.getSchemaId() == null) {
+            return interpreter;
+        }
+        return codecs.computeIfAbsent(new CodecKey(schema.getSchemaId(), type), key -> generate(schema, type));
+    }
+
+    private MessageCodec generate(MessageSchema schema, Class<?> type) {
+        try {
+            return factory.create(interpreter.binding(schema, type));
+        } catch (IllegalArgumentException ex) {
+            return interpreter;
+        }
+    }
+
+    private record CodecKey(String schemaId, Class<?> type) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Message unmarshalled with one repeating segment left undecoded; its occurrences are decoded
+ * one at a time while iterating, so memory stays flat however many the message holds.
+ * <p>
+ * The root and every other segment are populated up front, while the streamed segment's list
+ * property is left unset. Each streamed item is decoded into its own {@link ConversionResult},
+ * so item traces and issues never accumulate on {@link #result()} and iterating again does not
+ * repeat them; {@link #results()} exposes them, while iterating the message yields bare items.
+ * Each iterator reads independently; neither iterators nor results are thread-safe.
+ *
+ * @param <T> root type
+ * @param <E> item type
+ */
+public final class StreamedMessage<T, E> implements Iterable<E> {
+    private final ConversionResult<T> result;
+    private final ByteBuffer items;
+    private final int count;
+    private final Supplier<TracePath> paths;
+    private final BiFunction<ByteBuffer, TracePath, ConversionResult<E>> decoder;
+
+    StreamedMessage(ConversionResult<T> result,
+                    ByteBuffer items,
+                    int count,
+                    Supplier<TracePath> paths,
+                    BiFunction<ByteBuffer, TracePath, ConversionResult<E>> decoder) {
+        this.result = result;
+        this.items = items;
+        this.count = count;
+        this.paths = paths;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Returns the root with all eagerly decoded segments and their traces and issues.
+     */
+    public ConversionResult<T> result() {
+        return result;
+    }
+
+    /**
+     * Returns the occurrence count declared by the streamed segment's header.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the streamed items with the traces and issues of each, decoded lazily.
+     */
+    public Iterable<ConversionResult<E>> results() {
+        return this::resultIterator;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<ConversionResult<E>> results = resultIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return results.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return results.next().value();
+            }
+        };
+    }
+
+    private Iterator<ConversionResult<E>> resultIterator() {
+        ByteBuffer buffer = items.duplicate().order(items.order());
+        TracePath path = paths.get();
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public ConversionResult<E> next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                path.index(index++);
+                return decoder.apply(buffer, path);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(iterator(), count,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Returns a sequential stream of lazily decoded items.
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
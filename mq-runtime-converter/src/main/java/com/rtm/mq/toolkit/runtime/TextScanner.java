@@ -0,0 +1,21 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Byte-range primitives behind padded text fields; the pad byte is the code page's space.
+ */
+interface TextScanner {
+    /**
+     * Returns the exclusive end of {@code [from, to)} once trailing pad bytes are dropped.
+     */
+    int trimEnd(byte[] data, int from, int to, byte pad);
+
+    /**
+     * Returns true when no byte in {@code [from, to)} has the high bit set.
+     */
+    boolean isAscii(byte[] data, int from, int to);
+
+    /**
+     * Fills {@code [from, to)} with the pad byte.
+     */
+    void fill(byte[] data, int from, int to, byte pad);
+}
@@ -0,0 +1,33 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * Picks the {@link TextScanner} once per JVM: the vector implementation when
+ * {@code jdk.incubator.vector} is resolved and {@code -Dmq.runtime.vector=false} is not set,
+ * otherwise the scalar one. The vector class is loaded by name because it is compiled in its own
+ * step, the only one that sees the incubator module.
+ */
+final class TextScanners {
+    static final String VECTOR_PROPERTY = "mq.runtime.vector";
+    private static final String VECTOR_SCANNER = "com.rtm.mq.toolkit.runtime.VectorTextScanner";
+
+    private static final TextScanner SCANNER = select();
+
+    private TextScanners() {
+    }
+
+    static TextScanner scanner() {
+        return SCANNER;
+    }
+
+    private static TextScanner select() {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new ScalarTextScanner();
+        }
+        try {
+            return (TextScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return new ScalarTextScanner();
+        }
+    }
+}
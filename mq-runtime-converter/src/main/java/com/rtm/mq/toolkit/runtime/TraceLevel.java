@@ -0,0 +1,19 @@
+package com.rtm.mq.toolkit.runtime;
+
+/**
+ * What unmarshal records in a {@link ConversionResult}.
+ */
+public enum TraceLevel {
+    /**
+     * Records nothing; no trace objects or path strings are created.
+     */
+    NONE,
+    /**
+     * Records conversion issues only; paths are built when an issue is raised.
+     */
+    ERRORS_ONLY,
+    /**
+     * Records a {@link FieldTrace} for every field plus all issues, as needed by the diff tool.
+     */
+    FULL
+}
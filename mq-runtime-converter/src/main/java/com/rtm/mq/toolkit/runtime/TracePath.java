@@ -0,0 +1,129 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.util.Arrays;
+
+/**
+ * Mutable path cursor used while unmarshalling; segments push constant fragments and repeating
+ * segments set an index, and a path string is only built when a trace or issue is recorded.
+ * Not thread-safe; one instance serves one unmarshal call.
+ */
+public final class TracePath {
+    private static final TracePath DISABLED = new TracePath(TraceLevel.NONE, false);
+    private static final TracePath DISABLED_FAIL_FAST = new TracePath(TraceLevel.NONE, true);
+
+    private final TraceLevel level;
+    private final boolean failFast;
+    private String[] fragments;
+    private int[] indices;
+    private int depth;
+
+    private TracePath(TraceLevel level, boolean failFast) {
+        this.level = level;
+        this.failFast = failFast;
+        if (level != TraceLevel.NONE) {
+            this.fragments = new String[8];
+            this.indices = new int[8];
+        }
+    }
+
+    /**
+     * Starts a path at the root segment.
+     *
+     * @param level    trace level, null means {@link TraceLevel#FULL}
+     * @param rootPath root fragment such as {@code /Root}
+     * @return new cursor, or a shared inert cursor for {@link TraceLevel#NONE}
+     */
+    public static TracePath start(TraceLevel level, String rootPath) {
+        return start(level, rootPath, false);
+    }
+
+    /**
+     * Starts a path that also carries the fail-fast setting of the call.
+     *
+     * @param level    trace level, null means {@link TraceLevel#FULL}
+     * @param rootPath root fragment such as {@code /Root}
+     * @param failFast whether structural errors throw {@link MessageFormatException}
+     * @return new cursor, or a shared inert cursor for {@link TraceLevel#NONE}
+     */
+    public static TracePath start(TraceLevel level, String rootPath, boolean failFast) {
+        if (level == TraceLevel.NONE) {
+            return failFast ? DISABLED_FAIL_FAST : DISABLED;
+        }
+        TracePath path = new TracePath(level != null ? level : TraceLevel.FULL, failFast);
+        path.push(rootPath);
+        return path;
+    }
+
+    static TracePath start(ConversionOptions options, String rootPath) {
+        return start(options.getTraceLevel(), rootPath, options.isFailFast());
+    }
+
+    public boolean tracesFields() {
+        return level == TraceLevel.FULL;
+    }
+
+    public boolean recordsIssues() {
+        return level != TraceLevel.NONE;
+    }
+
+    public boolean failsFast() {
+        return failFast;
+    }
+
+    public void push(String fragment) {
+        if (fragments == null) {
+            return;
+        }
+        if (depth == fragments.length) {
+            fragments = Arrays.copyOf(fragments, depth * 2);
+            indices = Arrays.copyOf(indices, depth * 2);
+        }
+        fragments[depth] = fragment;
+        indices[depth] = -1;
+        depth++;
+    }
+
+    /**
+     * Sets the occurrence index of the innermost segment.
+     *
+     * @param index zero-based occurrence
+     */
+    public void index(int index) {
+        if (fragments == null) {
+            return;
+        }
+        indices[depth - 1] = index;
+    }
+
+    public void pop() {
+        if (fragments == null) {
+            return;
+        }
+        depth--;
+    }
+
+    /**
+     * Builds the path of the current segment followed by {@code leaf}.
+     *
+     * @param leaf trailing fragment such as {@code /field}, may be null
+     * @return materialised path
+     */
+    public String resolve(String leaf) {
+        StringBuilder builder = new StringBuilder(64);
+        for (int i = 0; i < depth; i++) {
+            builder.append(fragments[i]);
+            if (indices[i] >= 0) {
+                builder.append('[').append(indices[i]).append(']');
+            }
+        }
+        if (leaf != null) {
+            builder.append(leaf);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return resolve(null);
+    }
+}
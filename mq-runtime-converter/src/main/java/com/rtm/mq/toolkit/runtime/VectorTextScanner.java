@@ -0,0 +1,60 @@
+package com.rtm.mq.toolkit.runtime;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation on {@code jdk.incubator.vector}; only loadable when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}. Ranges shorter than one vector use the scalar loop.
+ */
+final class VectorTextScanner implements TextScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int trimEnd(byte[] data, int from, int to, byte pad) {
+        int step = SPECIES.length();
+        int end = to;
+        while (end - from >= step) {
+            VectorMask<Byte> text = ByteVector.fromArray(SPECIES, data, end - step)
+                    .compare(VectorOperators.NE, pad);
+            if (text.anyTrue()) {
+                return end - step + text.lastTrue() + 1;
+            }
+            end -= step;
+        }
+        while (end > from && data[end - 1] == pad) {
+            end--;
+        }
+        return end;
+    }
+
+    @Override
+    public boolean isAscii(byte[] data, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            if (ByteVector.fromArray(SPECIES, data, i).compare(VectorOperators.LT, (byte) 0).anyTrue()) {
+                return false;
+            }
+        }
+        for (; i < to; i++) {
+            if (data[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fill(byte[] data, int from, int to, byte pad) {
+        ByteVector pads = ByteVector.broadcast(SPECIES, pad);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            pads.intoArray(data, i);
+        }
+        for (; i < to; i++) {
+            data[i] = pad;
+        }
+    }
+}
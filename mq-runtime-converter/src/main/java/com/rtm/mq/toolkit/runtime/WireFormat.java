@@ -0,0 +1,265 @@
+package com.rtm.mq.toolkit.runtime;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Field-level wire encoding shared by the plan interpreter and generated codecs.
+ * <p>
+ * A segment header's occurrence count gives the number of bodies that follow it, except that a
+ * non-repeating segment carries at most one: count 0 means the segment is absent and no body
+ * follows, as marshal writes a null segment.
+ */
+final class WireFormat {
+    private WireFormat() {
+    }
+
+    /**
+     * Reads a segment header and returns the number of bodies that follow it.
+     */
+    static long readHeader(SegmentPlan segment,
+                           ByteBuffer buffer,
+                           ConversionResult<?> result,
+                           TracePath path,
+                           GroupIdMode groupIdMode) {
+        int offset = buffer.position();
+        String groupId = readText(buffer, segment.getGroupIdLength(), segment.getCodePage(), result, path,
+                segment.getGroupIdPathSegment());
+        CodecSupport.checkGroupId(segment.getGroupIdValue(), groupId, groupIdMode, result, path, offset,
+                segment.getId());
+        long count = readOccurrenceCount(segment, buffer, result, path);
+        if (!segment.isRepeating()) {
+            count = CodecSupport.singleOccurrence(count, segment.getMinOccurs(), result, path);
+        }
+        CodecSupport.checkOccurrences(count, buffer.remaining(), segment.getMinSize(), path, offset, segment.getId());
+        return count;
+    }
+
+    /**
+     * Skips one segment including its header, reading only occurrence counts; groupIds are not
+     * checked and no fields are decoded or traced.
+     */
+    static void skipSegment(SegmentPlan segment, ByteBuffer buffer, ConversionResult<?> result, TracePath path) {
+        int offset = advance(buffer, segment.getGroupIdLength());
+        long count = skipOccurrenceCount(segment, buffer, result, path);
+        if (!segment.isRepeating()) {
+            count = Math.min(count, 1);
+        }
+        CodecSupport.checkOccurrences(count, buffer.remaining(), segment.getMinSize(), path, offset, segment.getId());
+        skipBodies(segment, count, buffer, result, path);
+    }
+
+    /**
+     * Skips {@code count} occurrences of a segment whose header has already been read.
+     */
+    static void skipBodies(SegmentPlan segment,
+                           long count,
+                           ByteBuffer buffer,
+                           ConversionResult<?> result,
+                           TracePath path) {
+        if (segment.getFixedSize() >= 0) {
+            long size = count * segment.getFixedSize();
+            if (size > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            buffer.position(buffer.position() + (int) size);
+            return;
+        }
+        for (long i = 0; i < count; i++) {
+            skipBody(segment, buffer, result, path);
+        }
+    }
+
+    /**
+     * Skips one occurrence of a segment, excluding its header.
+     */
+    static void skipBody(SegmentPlan segment, ByteBuffer buffer, ConversionResult<?> result, TracePath path) {
+        for (Instruction instruction : segment.instructions()) {
+            if (instruction.kind() == InstructionKind.SEGMENT) {
+                path.push(instruction.pathSegment());
+                skipSegment(instruction.segment(), buffer, result, path);
+                path.pop();
+            } else {
+                advance(buffer, instruction.length());
+            }
+        }
+    }
+
+    static void skip(ByteBuffer buffer, int length) {
+        advance(buffer, length);
+    }
+
+    static String readText(ByteBuffer buffer,
+                           int length,
+                           CodePage codePage,
+                           ConversionResult<?> result,
+                           TracePath path,
+                           String leaf) {
+        int start = advance(buffer, length);
+        CodecSupport.trace(result, path, leaf, start, length);
+        return codePage.decode(buffer, start, length);
+    }
+
+    static String readUnsignedText(ByteBuffer buffer,
+                                   int length,
+                                   CodePage codePage,
+                                   ConversionResult<?> result,
+                                   TracePath path,
+                                   String leaf) {
+        String value = readText(buffer, length, codePage, result, path, leaf);
+        CodecSupport.issue(result, path, leaf, "WARN", "Expected 4 bytes for unsigned integer");
+        return value;
+    }
+
+    static BigDecimal readDecimal(ByteBuffer buffer,
+                                  int length,
+                                  int scale,
+                                  boolean packed,
+                                  ConversionResult<?> result,
+                                  TracePath path,
+                                  String leaf) {
+        int start = advance(buffer, length);
+        CodecSupport.trace(result, path, leaf, start, length);
+        if (buffer.hasArray()) {
+            return CodecSupport.decodeDecimal(buffer.array(), buffer.arrayOffset() + start, length, scale, packed,
+                    result, path, leaf);
+        }
+        return CodecSupport.decodeDecimal(copy(buffer, start, length), 0, length, scale, packed, result, path, leaf);
+    }
+
+    static Long readDecimalLong(ByteBuffer buffer,
+                                int length,
+                                boolean packed,
+                                ConversionResult<?> result,
+                                TracePath path,
+                                String leaf) {
+        long value = readDecimalLongValue(buffer, length, packed, result, path, leaf);
+        return value == CodecSupport.NO_VALUE ? null : value;
+    }
+
+    /**
+     * Reads a scale-0 decimal without boxing; blank or invalid fields return {@link CodecSupport#NO_VALUE}.
+     */
+    static long readDecimalLongValue(ByteBuffer buffer,
+                                     int length,
+                                     boolean packed,
+                                     ConversionResult<?> result,
+                                     TracePath path,
+                                     String leaf) {
+        int start = advance(buffer, length);
+        CodecSupport.trace(result, path, leaf, start, length);
+        if (buffer.hasArray()) {
+            return CodecSupport.decodeDecimalLongValue(buffer.array(), buffer.arrayOffset() + start, length, packed,
+                    result, path, leaf);
+        }
+        return CodecSupport.decodeDecimalLongValue(copy(buffer, start, length), 0, length, packed, result, path,
+                leaf);
+    }
+
+    static long readUnsigned(ByteBuffer buffer, ConversionResult<?> result, TracePath path, String leaf) {
+        CodecSupport.trace(result, path, leaf, buffer.position(), 4);
+        return Integer.toUnsignedLong(buffer.getInt());
+    }
+
+    static int writeHeader(SegmentPlan segment,
+                           Object value,
+                           ByteOrder byteOrder,
+                           ByteBuffer output,
+                           String path) {
+        int count = CodecSupport.count(value, segment.isRepeating(), segment.getMinOccurs(), path);
+        writeHeader(segment, count, byteOrder, output);
+        return count;
+    }
+
+    static void writeHeader(SegmentPlan segment, long count, ByteOrder byteOrder, ByteBuffer output) {
+        writeText(segment.getGroupIdValue(), segment.getGroupIdLength(), segment.getCodePage(), output);
+        writeOccurrenceCount(segment, count, byteOrder, output);
+    }
+
+    static void writeOccurrenceCount(SegmentPlan segment, long count, ByteOrder byteOrder, ByteBuffer output) {
+        if (segment.getOccurrenceLength() == 4) {
+            writeUnsigned(count, byteOrder, output, "OccurrenceCount");
+        } else {
+            writeText(String.valueOf(count), segment.getOccurrenceLength(), segment.getCodePage(), output);
+        }
+    }
+
+    static void writeUnsigned(long value, ByteOrder byteOrder, ByteBuffer output, String name) {
+        int position = output.position();
+        CodecSupport.writeUnsigned(output, position, value, byteOrder, name);
+        output.position(position + 4);
+    }
+
+    static void writeDecimal(Object value,
+                             int length,
+                             int scale,
+                             boolean packed,
+                             CodePage codePage,
+                             ByteBuffer output,
+                             String name) {
+        int position = output.position();
+        Decimals.encode(output, position, length, value, scale, packed, codePage, name);
+        output.position(position + length);
+    }
+
+    static void writeDecimal(long value,
+                             int length,
+                             int scale,
+                             boolean packed,
+                             CodePage codePage,
+                             ByteBuffer output,
+                             String name) {
+        int position = output.position();
+        Decimals.encode(output, position, length, value, scale, packed, codePage, name);
+        output.position(position + length);
+    }
+
+    static void writeText(String value, int length, CodePage codePage, ByteBuffer output) {
+        int position = output.position();
+        codePage.encode(output, position, value, length);
+        output.position(position + length);
+    }
+
+    private static int advance(ByteBuffer buffer, int length) {
+        int start = buffer.position();
+        if (buffer.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(start + length);
+        return start;
+    }
+
+    private static byte[] copy(ByteBuffer buffer, int index, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return bytes;
+    }
+
+    private static long skipOccurrenceCount(SegmentPlan segment,
+                                            ByteBuffer buffer,
+                                            ConversionResult<?> result,
+                                            TracePath path) {
+        int length = segment.getOccurrenceLength();
+        int start = advance(buffer, length);
+        if (length == 4) {
+            return Integer.toUnsignedLong(buffer.getInt(start));
+        }
+        return CodecSupport.parseOccurrence(segment.getCodePage().decode(buffer, start, length), result, path,
+                segment.getOccurrencePathSegment());
+    }
+
+    private static long readOccurrenceCount(SegmentPlan segment,
+                                            ByteBuffer buffer,
+                                            ConversionResult<?> result,
+                                            TracePath path) {
+        int length = segment.getOccurrenceLength();
+        String leaf = segment.getOccurrencePathSegment();
+        if (length == 4) {
+            return readUnsigned(buffer, result, path, leaf);
+        }
+        return CodecSupport.parseOccurrence(readText(buffer, length, segment.getCodePage(), result, path, leaf),
+                result, path, leaf);
+    }
+}
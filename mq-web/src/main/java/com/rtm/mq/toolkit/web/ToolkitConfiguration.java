@@ -3,6 +3,7 @@ package com.rtm.mq.toolkit.web;
 import com.rtm.mq.toolkit.runtime.ConversionOptions;
 import com.rtm.mq.toolkit.runtime.MessageCodec;
 import com.rtm.mq.toolkit.runtime.MessageConverter;
+import com.rtm.mq.toolkit.runtime.SpecializedMessageCodec;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,6 +22,10 @@ public class ToolkitConfiguration {
             options.setGroupIdMode(Enum.valueOf(com.rtm.mq.toolkit.runtime.GroupIdMode.class, properties.getGroupIdMode()));
         } catch (IllegalArgumentException ignored) {
         }
+        options.setFailFast(properties.isFailFast());
+        if ("GENERATED".equalsIgnoreCase(properties.getCodecMode())) {
+            return new SpecializedMessageCodec(options);
+        }
         return new MessageConverter(options);
     }
 }
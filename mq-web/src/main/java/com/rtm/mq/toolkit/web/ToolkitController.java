@@ -76,6 +76,33 @@ public class ToolkitController {
         Path baseDir = baseDirOrDefault(request.baseDir());
         Path schemaDir = schemaDirOrDefault(baseDir, request.schemaDir());
         service.generateJava(
+                baseDir,
+                schemaDir,
+                request.basePackage() != null ? request.basePackage() : properties.getBasePackage(),
+                Boolean.TRUE.equals(request.primitives()),
+                Boolean.TRUE.equals(request.records())
+        );
+        return ResponseEntity.ok(Map.of("status", "ok"));
+    }
+
+    @PostMapping("/gen-codec")
+    public ResponseEntity<?> genCodec(@RequestBody GenCodecRequest request) throws Exception {
+        Path baseDir = baseDirOrDefault(request.baseDir());
+        Path schemaDir = schemaDirOrDefault(baseDir, request.schemaDir());
+        service.generateCodec(
+                baseDir,
+                schemaDir,
+                request.basePackage() != null ? request.basePackage() : properties.getBasePackage(),
+                Boolean.TRUE.equals(request.primitives())
+        );
+        return ResponseEntity.ok(Map.of("status", "ok"));
+    }
+
+    @PostMapping("/gen-view")
+    public ResponseEntity<?> genView(@RequestBody GenViewRequest request) throws Exception {
+        Path baseDir = baseDirOrDefault(request.baseDir());
+        Path schemaDir = schemaDirOrDefault(baseDir, request.schemaDir());
+        service.generateViews(
                 baseDir,
                 schemaDir,
                 request.basePackage() != null ? request.basePackage() : properties.getBasePackage()
@@ -136,7 +163,17 @@ public class ToolkitController {
     public record ImportExcelRequest(String excelPath, String baseDir, String schemaDir) {
     }
 
-    public record GenJavaRequest(String baseDir, String schemaDir, String basePackage) {
+    public record GenJavaRequest(String baseDir,
+                                 String schemaDir,
+                                 String basePackage,
+                                 Boolean primitives,
+                                 Boolean records) {
+    }
+
+    public record GenCodecRequest(String baseDir, String schemaDir, String basePackage, Boolean primitives) {
+    }
+
+    public record GenViewRequest(String baseDir, String schemaDir, String basePackage) {
     }
 
     public record GenXmlRequest(String baseDir, String schemaDir, String basePackage) {
@@ -14,6 +14,8 @@ public class ToolkitProperties {
     private ProtocolConfig protocol = new ProtocolConfig();
     private String xmlTemplatePath;
     private String groupIdMode = "STRICT";
+    private String codecMode = "INTERPRETED";
+    private boolean failFast;
     private int maxUploadSizeMb = 50;
 
     public String getBaseDir() {
@@ -64,6 +66,22 @@ public class ToolkitProperties {
         this.groupIdMode = groupIdMode;
     }
 
+    public String getCodecMode() {
+        return codecMode;
+    }
+
+    public void setCodecMode(String codecMode) {
+        this.codecMode = codecMode;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
     public int getMaxUploadSizeMb() {
         return maxUploadSizeMb;
     }
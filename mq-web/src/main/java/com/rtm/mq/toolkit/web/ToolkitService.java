@@ -2,7 +2,9 @@ package com.rtm.mq.toolkit.web;
 
 import com.rtm.mq.toolkit.codegen.ConverterXmlGenerator;
 import com.rtm.mq.toolkit.codegen.XmlTemplateConfig;
+import com.rtm.mq.toolkit.codegen.JavaCodecGenerator;
 import com.rtm.mq.toolkit.codegen.JavaPojoGenerator;
+import com.rtm.mq.toolkit.codegen.JavaViewGenerator;
 import com.rtm.mq.toolkit.codegen.OpenApiGenerator;
 import com.rtm.mq.toolkit.diff.DiffReport;
 import com.rtm.mq.toolkit.diff.HtmlReportRenderer;
@@ -55,14 +57,34 @@ public class ToolkitService {
         return result;
     }
 
-    public void generateJava(Path baseDir, Path schemaDir, String basePackage) throws Exception {
-        JavaPojoGenerator generator = new JavaPojoGenerator();
+    public void generateJava(Path baseDir, Path schemaDir, String basePackage, boolean primitives, boolean records)
+            throws Exception {
+        JavaPojoGenerator generator = new JavaPojoGenerator(primitives, records);
         for (Path schemaPath : listSchemaFiles(schemaDir)) {
             MessageSchema schema = SchemaIO.read(schemaPath);
             generator.generate(schema.getRoot(), baseDir.resolve("generated").resolve("java"), basePackage);
         }
     }
 
+    public void generateCodec(Path baseDir, Path schemaDir, String basePackage, boolean primitives)
+            throws Exception {
+        ProtocolConfig protocolConfig = loadProtocolConfig(baseDir);
+        JavaCodecGenerator generator = new JavaCodecGenerator(primitives);
+        for (Path schemaPath : listSchemaFiles(schemaDir)) {
+            MessageSchema schema = SchemaIO.read(schemaPath);
+            generator.generate(schema, protocolConfig, baseDir.resolve("generated").resolve("java"), basePackage);
+        }
+    }
+
+    public void generateViews(Path baseDir, Path schemaDir, String basePackage) throws Exception {
+        ProtocolConfig protocolConfig = loadProtocolConfig(baseDir);
+        JavaViewGenerator generator = new JavaViewGenerator();
+        for (Path schemaPath : listSchemaFiles(schemaDir)) {
+            MessageSchema schema = SchemaIO.read(schemaPath);
+            generator.generate(schema, protocolConfig, baseDir.resolve("generated").resolve("java"), basePackage);
+        }
+    }
+
     public void generateXml(Path baseDir, Path schemaDir, String basePackage) throws Exception {
         ConverterMappingConfig mapping = loadConverterMapping(baseDir);
         ProtocolConfig protocolConfig = loadProtocolConfig(baseDir);
@@ -107,8 +129,10 @@ public class ToolkitService {
         MessageSchema schema = SchemaIO.read(schemaPath);
         byte[] expected = Files.readAllBytes(expectedPath);
         byte[] actual = Files.readAllBytes(actualPath);
-        Class<?> type = Class.forName(rootClass);
-        DiffReport report = new MessageDiffEngine(codec).diff(expected, actual, schema, type);
+        MessageDiffEngine engine = new MessageDiffEngine(codec);
+        DiffReport report = rootClass != null && !rootClass.isBlank()
+                ? engine.diff(expected, actual, schema, Class.forName(rootClass))
+                : engine.diff(expected, actual, schema);
         Path output = outputPath != null ? outputPath : expectedPath.getParent().resolve("diff-report.html");
         Files.createDirectories(output.getParent());
         String html = new HtmlReportRenderer().render(report, expected, actual);